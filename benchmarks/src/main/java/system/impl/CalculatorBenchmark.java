@@ -0,0 +1,82 @@
+package system.impl;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import datamodel.Order;
+import datamodel.TAX;
+import system.Calculator;
+import system.OrderBook;
+
+
+/**
+ * Benchmark of VAT and order value calculations in {@link CalculatorImpl}
+ * over all orders of {@link SyntheticData}, over order objects and over a
+ * {@link ColumnarOrderBook}.
+ * 
+ * @version <code style=color:green>{@value application.package_info#Version}</code>
+ * @author <code style=color:blue>{@value application.package_info#Author}</code>
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CalculatorBenchmark {
+
+	@Param({"1000", "100000"})
+	int scale;
+
+	private final Calculator calculator = new CalculatorImpl();
+
+	private List<Order> orders;
+
+	private OrderBook orderBook;
+
+	private long gross = 0L;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		SyntheticData data = new SyntheticData(scale, 42L);
+		orders = data.factory.getOrders();
+		orderBook = data.factory.createOrderBook();
+	}
+
+	@Benchmark
+	public long calculateIncludedVAT() {
+		return calculator.calculateIncludedVAT(gross++ & 0xfffff, TAX.GER_VAT);
+	}
+
+	@Benchmark
+	public long calculateValueAndTax() {
+		long sum = 0L;
+		for(Order order : orders) {
+			sum += calculator.calculateValueAndTax(order)[1];
+		}
+		return sum;
+	}
+
+	@Benchmark
+	public long[] accumulateValueAndTax() {
+		return calculator.accumulateValueAndTax(null, orders);
+	}
+
+	@Benchmark
+	public long[] accumulateValueAndTaxParallel() {
+		return calculator.accumulateValueAndTax(null, orders.parallelStream());
+	}
+
+	@Benchmark
+	public long[] orderBookValueAndTax() {
+		return orderBook.accumulateValueAndTax(null, calculator);
+	}
+
+	@Benchmark
+	public long orderBookTotalValue() {
+		return orderBook.totalValue();
+	}
+}
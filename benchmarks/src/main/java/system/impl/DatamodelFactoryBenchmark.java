@@ -0,0 +1,91 @@
+package system.impl;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import datamodel.Article;
+import datamodel.Customer;
+import datamodel.Order;
+
+
+/**
+ * Benchmark of id lookups in {@link DatamodelFactoryImpl} and
+ * {@link ConcurrentDatamodelFactory} at scales of
+ * {@code 10^3} to {@code 10^7} orders. Ids are looked up round-robin in
+ * creation order.
+ * 
+ * @version <code style=color:green>{@value application.package_info#Version}</code>
+ * @author <code style=color:blue>{@value application.package_info#Author}</code>
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DatamodelFactoryBenchmark {
+
+	@Param({"1000", "100000"})
+	int scale;
+
+	@Param({"default", "concurrent"})
+	String factory;
+
+	private SyntheticData data;
+
+	/**
+	 * {@link ArticleIdCodec} keys of data.articleIds.
+	 */
+	private long[] articleKeys;
+
+	private int next = 0;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		data = new SyntheticData(factory.equals("concurrent")?
+			new ConcurrentDatamodelFactory() : new DatamodelFactoryImpl(), scale, 42L);
+		// first lookup builds indexes, not measured
+		data.factory.findCustomerById(data.customerIds[0]);
+		data.factory.findArticleById(data.articleIds[0]);
+		data.factory.findOrderById(data.orderIds[0]);
+		articleKeys = new long[data.articleIds.length];
+		for(int i=0; i < articleKeys.length; i++) {
+			articleKeys[i] = ArticleIdCodec.encode(data.articleIds[i]);
+		}
+	}
+
+	@Benchmark
+	public Optional<Customer> findCustomerById() {
+		return data.factory.findCustomerById(data.customerIds[next++ % data.customerIds.length]);
+	}
+
+	@Benchmark
+	public Optional<Article> findArticleById() {
+		return data.factory.findArticleById(data.articleIds[next++ % data.articleIds.length]);
+	}
+
+	@Benchmark
+	public Optional<Article> findArticleByKey() {
+		return data.factory.findArticleByKey(articleKeys[next++ % articleKeys.length]);
+	}
+
+	@Benchmark
+	public Optional<Order> findOrderById() {
+		return data.factory.findOrderById(data.orderIds[next++ % data.orderIds.length]);
+	}
+
+	@Benchmark
+	public List<Order> findOrdersByCustomer() {
+		return data.factory.findOrdersByCustomer(data.customerIds[next++ % data.customerIds.length]);
+	}
+
+	@Benchmark
+	public Collection<Order> findOrdersByArticle() {
+		return data.factory.findOrdersByArticle(data.articleIds[next++ % data.articleIds.length]);
+	}
+}
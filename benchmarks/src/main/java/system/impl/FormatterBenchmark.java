@@ -0,0 +1,63 @@
+package system.impl;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import system.Formatter;
+
+
+/**
+ * Benchmark of price, decimal and date formatting in {@link FormatterImpl}
+ * into new Strings and into a reused StringBuilder.
+ * 
+ * @version <code style=color:green>{@value application.package_info#Version}</code>
+ * @author <code style=color:blue>{@value application.package_info#Author}</code>
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FormatterBenchmark {
+
+	private final Formatter formatter = new FormatterImpl();
+
+	private final StringBuilder sb = new StringBuilder();
+
+	private final long[] values = new long[1024];
+
+	private int next = 0;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		final Random rand = new Random(42L);
+		for(int i=0; i < values.length; i++) {
+			values[i] = rand.nextInt(10_000_000);
+		}
+	}
+
+	@Benchmark
+	public String fmtPrice() {
+		return formatter.fmtPrice(values[next++ & 1023], 1);
+	}
+
+	@Benchmark
+	public StringBuilder fmtPriceStringBuilder() {
+		sb.setLength(0);
+		return formatter.fmtPrice(sb, values[next++ & 1023], 1);
+	}
+
+	@Benchmark
+	public String fmtDecimal() {
+		return formatter.fmtDecimal(values[next++ & 1023], 2, "%");
+	}
+
+	@Benchmark
+	public String fmtDate() {
+		return formatter.fmtDate(1_700_000_000_000L + values[next++ & 1023] * 1000L, 0, "");
+	}
+}
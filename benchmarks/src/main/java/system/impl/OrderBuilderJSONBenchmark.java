@@ -0,0 +1,72 @@
+package system.impl;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.*;
+
+import system.DatamodelFactory;
+
+
+/**
+ * Benchmark of loading customers, articles and orders from JSON files with
+ * {@link OrderBuilderJSONImpl}, sequentially and with {@code data.parallel}.
+ * Files are generated by {@link DataGeneratorJSON} into a temporary directory
+ * with the proportions of {@link SyntheticData}.
+ * 
+ * @version <code style=color:green>{@value application.package_info#Version}</code>
+ * @author <code style=color:blue>{@value application.package_info#Author}</code>
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderBuilderJSONBenchmark {
+
+	@Param({"1000", "100000"})
+	int scale;
+
+	@Param({"false", "true"})
+	String parallel;
+
+	private Path dir;
+
+	private final Properties props = new Properties();
+
+	@Setup(Level.Trial)
+	public void setup() throws IOException {
+		dir = Files.createTempDirectory("orders-json-");
+		final Properties gen = new Properties();
+		gen.setProperty("gen.customers", String.valueOf(Math.max(1, scale / 4)));
+		gen.setProperty("gen.articles", String.valueOf(Math.max(10, Math.min(50_000, scale / 20))));
+		gen.setProperty("gen.orders", String.valueOf(scale));
+		new DataGeneratorJSON(gen).generate(dir);
+		props.setProperty("data.path", dir.toString());
+		props.setProperty("data.customers", "customers.json");
+		props.setProperty("data.articles", "articles.json");
+		props.setProperty("data.orders", "orders.json");
+		props.setProperty("data.parallel", parallel);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException {
+		try(Stream<Path> files = Files.walk(dir)) {
+			files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+		}
+	}
+
+	@Benchmark
+	public int buildOrders() {
+		final DatamodelFactory factory = new DatamodelFactoryImpl();
+		new OrderBuilderJSONImpl(factory, props).buildOrders();
+		return factory.ordersCount();
+	}
+}
@@ -0,0 +1,73 @@
+package system.impl;
+
+import java.io.Writer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.openjdk.jmh.annotations.*;
+
+import datamodel.Order;
+import system.Printer;
+import system.TablePrinter;
+
+
+/**
+ * Benchmark of rendering order tables with {@link PrinterImpl} and
+ * {@link TablePrinterImpl} into a StringBuilder and through a Writer
+ * that discards output.
+ * 
+ * @version <code style=color:green>{@value application.package_info#Version}</code>
+ * @author <code style=color:blue>{@value application.package_info#Author}</code>
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PrinterBenchmark {
+
+	@Param({"1000", "100000"})
+	int scale;
+
+	private final Printer printer = new PrinterImpl(new CalculatorImpl(), new FormatterImpl());
+
+	private List<Order> orders;
+
+	/**
+	 * Order table columns as used by the applications.
+	 */
+	private static final Consumer<TablePrinter.Builder> orderTable = builder -> builder
+		.column("|",  11)
+		.column("|",  28)
+		.column("R",   7)
+		.column(" ",   1)
+		.column("R",  10)
+		.column("|R", 10)
+		.column(" |R",12)
+		.column(" |", 0);
+
+	@Setup(Level.Trial)
+	public void setup() {
+		orders = new SyntheticData(scale, 42L).factory.getOrders();
+	}
+
+	@Benchmark
+	public int printOrdersStringBuilder() {
+		final StringBuilder sb = new StringBuilder();
+		printer.printOrders(printer.createTablePrinter(sb, orderTable), orders);
+		return sb.length();
+	}
+
+	@Benchmark
+	public TablePrinter printOrdersWriter() {
+		return printer.printOrders(printer.createTablePrinter(Writer.nullWriter(), orderTable), orders);
+	}
+
+	@Benchmark
+	public StringBuilder printOrdersText() {
+		return printer.printOrders(new StringBuilder(), orders);
+	}
+}
@@ -0,0 +1,89 @@
+package system.impl;
+
+import java.util.Random;
+
+import datamodel.Article;
+import datamodel.Customer;
+import datamodel.Order;
+import datamodel.TAX;
+import system.DatamodelFactory;
+
+
+/**
+ * Synthetic customers, articles and orders for benchmarks, generated
+ * reproducibly from a seed at a scale given as number of orders
+ * ({@code 10^3} to {@code 10^7}).
+ * <pre>
+ * orders:    scale
+ * customers: scale / 4
+ * articles:  scale / 20, at least 10, at most 50,000
+ * items:     1 to 5 per order, 20% of articles with reduced tax rate
+ * </pre>
+ * 
+ * @version <code style=color:green>{@value application.package_info#Version}</code>
+ * @author <code style=color:blue>{@value application.package_info#Author}</code>
+ */
+
+class SyntheticData {
+
+	/**
+	 * Factory that holds generated objects.
+	 */
+	final DatamodelFactory factory;
+
+	/**
+	 * Ids of generated objects in order of creation.
+	 */
+	final long[] customerIds;
+	final String[] articleIds;
+	final String[] orderIds;
+
+
+	/**
+	 * Generate customers, articles and orders in a {@link DatamodelFactoryImpl}.
+	 * 
+	 * @param scale number of orders.
+	 * @param seed seed of random generator.
+	 */
+	SyntheticData(int scale, long seed) {
+		this(new DatamodelFactoryImpl(), scale, seed);
+	}
+
+
+	/**
+	 * Generate customers, articles and orders.
+	 * 
+	 * @param factory factory that holds generated objects.
+	 * @param scale number of orders.
+	 * @param seed seed of random generator.
+	 */
+	SyntheticData(DatamodelFactory factory, int scale, long seed) {
+		this.factory = factory;
+		final Random rand = new Random(seed);
+		this.customerIds = new long[Math.max(1, scale / 4)];
+		this.articleIds = new String[Math.max(10, Math.min(50_000, scale / 20))];
+		this.orderIds = new String[scale];
+		//
+		Customer[] customers = new Customer[customerIds.length];
+		for(int i=0; i < customerIds.length; i++) {
+			customerIds[i] = 100_000L + i;
+			customers[i] = factory.createCustomer("Vorname" + i + " Nachname" + (i % 997))
+				.setId(customerIds[i])
+				.addContact("kunde" + i + "@example.com");
+		}
+		Article[] articles = new Article[articleIds.length];
+		for(int i=0; i < articleIds.length; i++) {
+			articleIds[i] = "SKU-" + (100_000 + i);
+			articles[i] = factory.createArticle("Artikel " + i, 49 + rand.nextInt(19_950))
+				.setId(articleIds[i])
+				.setTax(rand.nextInt(5)==0? TAX.GER_VAT_REDUCED : TAX.GER_VAT);
+		}
+		for(int i=0; i < orderIds.length; i++) {
+			orderIds[i] = String.valueOf(1_000_000_000L + i);
+			Order order = factory.createOrder(customers[rand.nextInt(customers.length)]).setId(orderIds[i]);
+			for(int j=1 + rand.nextInt(5); j > 0; j--) {
+				order.addItem(articles[rand.nextInt(articles.length)], 1 + rand.nextInt(12));
+			}
+		}
+	}
+}
@@ -0,0 +1,95 @@
+package system.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import datamodel.Order;
+
+
+/**
+ * Tests of reproducible {@link SyntheticData} and of running each benchmark
+ * once on a small scale, outside of JMH.
+ *
+ * @version <code style=color:green>{@value application.package_info#Version}</code>
+ * @author <code style=color:blue>{@value application.package_info#Author}</code>
+ */
+
+class SyntheticDataTest {
+
+	@Test
+	void sizesOfScale() {
+		SyntheticData data = new SyntheticData(1000, 42L);
+		assertEquals(250, data.factory.customersCount());
+		assertEquals(50, data.factory.articlesCount());
+		assertEquals(1000, data.factory.ordersCount());
+		assertEquals(10, new SyntheticData(1, 42L).articleIds.length);
+		//
+		assertEquals(data.customerIds[7], data.factory.findCustomerById(data.customerIds[7]).get().getId());
+		assertTrue(data.factory.findArticleById(data.articleIds[49]).isPresent());
+		assertTrue(data.factory.findOrderById(data.orderIds[999]).isPresent());
+	}
+
+
+	@Test
+	void sameSeedGeneratesSameData() {
+		List<Order> o1 = new SyntheticData(1000, 42L).factory.getOrders();
+		List<Order> o2 = new SyntheticData(1000, 42L).factory.getOrders();
+		List<Order> o3 = new SyntheticData(1000, 43L).factory.getOrders();
+		long[] totals = new long[3];
+		for(int i=0; i < o1.size(); i++) {
+			assertEquals(o1.get(i).getCustomer().getId(), o2.get(i).getCustomer().getId());
+			assertEquals(o1.get(i).itemsCount(), o2.get(i).itemsCount());
+			totals[0] += o1.get(i).getTotalOrderValue();
+			totals[1] += o2.get(i).getTotalOrderValue();
+			totals[2] += o3.get(i).getTotalOrderValue();
+		}
+		assertEquals(totals[0], totals[1]);
+		assertNotEquals(totals[0], totals[2]);
+	}
+
+
+	@Test
+	void benchmarksRunOnSmallScale() throws IOException {
+		CalculatorBenchmark calculator = new CalculatorBenchmark();
+		calculator.scale = 1000;
+		calculator.setup();
+		assertArrayEquals(calculator.accumulateValueAndTax(), calculator.accumulateValueAndTaxParallel());
+		assertArrayEquals(calculator.accumulateValueAndTax(), calculator.orderBookValueAndTax());
+		//
+		for(String f : new String[] {"default", "concurrent"}) {
+			DatamodelFactoryBenchmark factory = new DatamodelFactoryBenchmark();
+			factory.scale = 1000;
+			factory.factory = f;
+			factory.setup();
+			assertTrue(factory.findCustomerById().isPresent());
+			assertTrue(factory.findArticleById().isPresent());
+			assertTrue(factory.findArticleByKey().isPresent());
+			assertTrue(factory.findOrderById().isPresent());
+		}
+		//
+		FormatterBenchmark formatter = new FormatterBenchmark();
+		formatter.setup();
+		assertTrue(formatter.fmtPrice().endsWith("€"));
+		assertEquals(19, formatter.fmtDate().length());
+		//
+		PrinterBenchmark printer = new PrinterBenchmark();
+		printer.scale = 1000;
+		printer.setup();
+		assertTrue(printer.printOrdersStringBuilder() > 0);
+		assertNotNull(printer.printOrdersWriter());
+		//
+		OrderBuilderJSONBenchmark builder = new OrderBuilderJSONBenchmark();
+		builder.scale = 1000;
+		builder.parallel = "true";
+		builder.setup();
+		try {
+			assertEquals(1000, builder.buildOrders());
+		} finally {
+			builder.tearDown();
+		}
+	}
+}
@@ -118,7 +118,7 @@ public class DatamodelFactory {
 	 */
 	public Optional<Customer> findCustomerById(long id) {
 		return customers.stream()
-			.filter(c -> c.getId()==id)
+			.filter(c -> c.getIdAsLong()==id)
 			.findFirst();
 	}
 
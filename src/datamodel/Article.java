@@ -1,6 +1,7 @@
 package datamodel;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Class of entity type <i>Article</i>.
@@ -19,6 +20,13 @@ public class Article {
      */
     private String id = null;
 
+    /**
+     * Number of ids assigned to Article objects, incremented when an unassigned
+     * id is set. Factories rescan objects created without id only after ids
+     * have been assigned.
+     */
+    private static final AtomicLong idsAssigned = new AtomicLong();
+
     /**
      * Article description, never null, may be empty "".
      */
@@ -39,6 +47,20 @@ public class Article {
      */
     private TAX tax = TAX.GER_VAT;
 
+    /**
+     * Version of unit price and tax rate of this article, incremented when the
+     * unit price or tax rate changes. Cached totals of orders with items of the
+     * article are only valid for the version for which they were computed.
+     */
+    private volatile int priceVersion = 0;
+
+    /**
+     * Epoch of prices and tax rates of all articles, incremented after the unit
+     * price or tax rate of any article has changed. Orders validate cached totals
+     * with one read of the epoch as long as no price has changed.
+     */
+    private static final AtomicLong priceEpoch = new AtomicLong();
+
     /**
      * Default constructor
      */
@@ -81,10 +103,23 @@ public class Article {
         if (id == null || id.equals("")) {
             throw new IllegalArgumentException("invalid id.");
         }
-        this.id = this.id == null ? id : this.id;
+        if (this.id == null) {
+            this.id = id;
+            idsAssigned.incrementAndGet();
+        }
         return this;
     }
 
+    /**
+     * Number of ids assigned to Article objects so far, changes when the id of
+     * any Article object is set.
+     *
+     * @return number of assigned ids.
+     */
+    public static long idsAssigned() {
+        return idsAssigned.get();
+    }
+
     /**
      * Description getter.
      *
@@ -125,13 +160,18 @@ public class Article {
      *
      * @param unitPrice price in cent for one article, only valid price ( {@code >= 0} ) updates attribute.
      * @return chainable self-reference.
+     * @throws IllegalArgumentException when price is negative {@code < 0}.
      */
     public Article setUnitPrice(long unitPrice) {
         // TODO implement here
-        if (unitPrice <= 0) {
+        if (unitPrice < 0) {
             throw new IllegalArgumentException("unit price is negative.");
         }
-        this.unitPrice = unitPrice;
+        if (this.unitPrice != unitPrice) {
+            this.unitPrice = unitPrice;
+            priceVersion++;
+            priceEpoch.incrementAndGet();
+        }
         return this;
     }
 
@@ -183,8 +223,32 @@ public class Article {
         if (tax == null) {
             throw new IllegalArgumentException("invalid tax.");
         }
-        this.tax = tax;
+        if (this.tax != tax) {
+            this.tax = tax;
+            priceVersion++;
+            priceEpoch.incrementAndGet();
+        }
         return this;
     }
 
-}
\ No newline at end of file
+    /**
+     * Version of unit price and tax rate, changes when the unit price or tax
+     * rate of this article changes.
+     *
+     * @return current version of unit price and tax rate.
+     */
+    public int getPriceVersion() {
+        return priceVersion;
+    }
+
+    /**
+     * Epoch of prices and tax rates of all articles, changes when the unit
+     * price or tax rate of any article changes.
+     *
+     * @return current epoch of prices and tax rates.
+     */
+    static long priceEpoch() {
+        return priceEpoch.get();
+    }
+
+}
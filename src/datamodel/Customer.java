@@ -1,6 +1,7 @@
 package datamodel;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Class for entity type <i>Customer</i>.
@@ -17,6 +18,13 @@ public class Customer {
      */
     private long id = -1;
 
+    /**
+     * Number of ids assigned to Customer objects, incremented when an unassigned
+     * id is set. Factories rescan objects created without id only after ids
+     * have been assigned.
+     */
+    private static final AtomicLong idsAssigned = new AtomicLong();
+
     /**
      * Customer's surname attribute, never null.
      */
@@ -32,6 +40,11 @@ public class Customer {
      */
     private final List<String> contacts = new ArrayList<>();
 
+    /**
+     * Pool that deduplicates name parts, which repeat across many customers.
+     */
+    private static final StringPool pool = StringPool.getShared();
+
     /**
      * Default constructor.
      */
@@ -66,6 +79,15 @@ public class Customer {
         } else return id;
     }
 
+    /**
+     * Id getter without boxing, e.g. for lookups and comparisons on hot code paths.
+     *
+     * @return customer id, returns {@code -1}, if id is unassigned.
+     */
+    public long getIdAsLong() {
+        return id;
+    }
+
     /**
      * Id setter. Id can only be set once with valid id, id is immutable after assignment.
      *
@@ -77,10 +99,23 @@ public class Customer {
         if (id < 0) {
             throw new IllegalArgumentException("invalid id (negative).");
         }
-        this.id = this.id == -1 ? id : this.id;
+        if (this.id == -1) {
+            this.id = id;
+            idsAssigned.incrementAndGet();
+        }
         return this;
     }
 
+    /**
+     * Number of ids assigned to Customer objects so far, changes when the id of
+     * any Customer object is set.
+     *
+     * @return number of assigned ids.
+     */
+    public static long idsAssigned() {
+        return idsAssigned.get();
+    }
+
     /**
      * LastName getter.
      *
@@ -210,7 +245,8 @@ public class Customer {
     }
 
     /**
-     * Split single-String name into last- and first name parts.
+     * Split single-String name into last- and first name parts, which are
+     * deduplicated through the shared {@link StringPool}.
      *
      * @param name single-String name to split into first- and last name parts.
      * @return chainable self-reference.
@@ -218,25 +254,25 @@ public class Customer {
     private Customer splitName(String name) {
         // TODO implement here
         if (name.contains(";")) {
-            this.firstName = name.substring(name.lastIndexOf(";") + 2);
-            this.lastName = name.substring(0, name.lastIndexOf(';'));
+            this.firstName = pool.intern(name.substring(name.lastIndexOf(";") + 2));
+            this.lastName = pool.intern(name.substring(0, name.lastIndexOf(';')));
             return this;
         }
         if (name.contains(", ")) {
             List<String> names = Arrays.asList(name.split(",[ ]*"));
-            this.firstName = names.get(1);
-            this.lastName = names.get(0);
+            this.firstName = pool.intern(names.get(1));
+            this.lastName = pool.intern(names.get(0));
 //            this.firstName = name.substring(name.lastIndexOf(",") + 2);
 //            this.lastName = name.substring(0, name.lastIndexOf(','));
             return this;
         }
         if (name.contains(" ")) {
-            this.firstName = name.substring(0, name.lastIndexOf(' '));
-            this.lastName = name.substring(name.lastIndexOf(" ") + 1);
+            this.firstName = pool.intern(name.substring(0, name.lastIndexOf(' ')));
+            this.lastName = pool.intern(name.substring(name.lastIndexOf(" ") + 1));
             return this;
         }
         if (!name.contains(" ") || !name.contains(";") || !name.contains(", ")) {
-            this.lastName = name;
+            this.lastName = pool.intern(name);
             return this;
         }
         return this;
@@ -3,6 +3,8 @@ package datamodel;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
 
 /**
  * Class of entity type <i>Order</i>.
@@ -21,6 +23,13 @@ public class Order {
      */
     private String id;
 
+    /**
+     * Number of ids assigned to Order objects, incremented when an unassigned
+     * id is set. Factories rescan objects created without id only after ids
+     * have been assigned.
+     */
+    private static final AtomicLong idsAssigned = new AtomicLong();
+
     /**
      * Reference to owning Customer, final, never null.
      */
@@ -36,6 +45,112 @@ public class Order {
      */
     private final List<OrderItem> items;
 
+    /**
+     * Listener notified when items are added or deleted, null when not observed.
+     */
+    private ItemsListener itemsListener;
+
+    /**
+     * Modification count of items, incremented when items are added, deleted or changed.
+     */
+    private volatile int modCount = 0;
+
+    /**
+     * Cached totals, null when not computed. Replaced as a whole such that
+     * readers on other threads never see parts of different totals.
+     */
+    private volatile Totals totals;
+
+    /**
+     * Maximum number of keyed values cached per order.
+     */
+    private static final int MAX_KEYED = 4;
+
+    /**
+     * Immutable totals of order with keyed values, valid for the modification
+     * count of items and the sum of price versions of ordered articles they were
+     * computed for. Versions of articles only increase, the sum therefore changes
+     * when the price or tax rate of any ordered article changes. The sum is only
+     * recomputed when the global price epoch differs from the epoch the totals
+     * were last validated for, a cache hit thus never reads the items.
+     */
+    private static final class Totals {
+        final int modCount;
+        final long epoch;
+        final long pricesStamp;
+        final long value;
+        final Object[] keys;
+        final Object[] keyed;
+
+        Totals(int modCount, long epoch, long pricesStamp, long value, Object[] keys, Object[] keyed) {
+            this.modCount = modCount;
+            this.epoch = epoch;
+            this.pricesStamp = pricesStamp;
+            this.value = value;
+            this.keys = keys;
+            this.keyed = keyed;
+        }
+
+        /**
+         * Same totals validated for another price epoch.
+         */
+        Totals at(long epoch) {
+            return new Totals(modCount, epoch, pricesStamp, value, keys, keyed);
+        }
+
+        /**
+         * Same totals with value cached under key, the oldest keyed value is
+         * dropped when {@link #MAX_KEYED} values are cached.
+         */
+        Totals with(Object key, Object value) {
+            final int n = Math.min(keys.length, MAX_KEYED - 1);
+            final Object[] k = new Object[n + 1];
+            final Object[] v = new Object[n + 1];
+            k[0] = key;
+            v[0] = value;
+            System.arraycopy(keys, 0, k, 1, n);
+            System.arraycopy(keyed, 0, v, 1, n);
+            return new Totals(modCount, epoch, pricesStamp, this.value, k, v);
+        }
+
+        int indexOf(Object key) {
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] == key) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * No keyed values.
+     */
+    private static final Object[] NONE = new Object[0];
+
+    /**
+     * Listener interface to observe items added to or deleted from orders,
+     * e.g. to maintain an index of orders by article.
+     */
+    public interface ItemsListener {
+
+        /**
+         * Called after item was added to order.
+         *
+         * @param order order to which item was added.
+         * @param item  added item.
+         */
+        void itemAdded(Order order, OrderItem item);
+
+        /**
+         * Called after item was deleted from order.
+         *
+         * @param order order from which item was deleted.
+         * @param item  deleted item.
+         */
+        void itemDeleted(Order order, OrderItem item);
+    }
+
     /**
      * Constructor with customer owning the order.
      *
@@ -72,10 +187,23 @@ public class Order {
         if (id == null || id.equals("")) {
             throw new IllegalArgumentException("invalid id (negative).");
         }
-        this.id = this.id == null ? id : this.id;
+        if (this.id == null) {
+            this.id = id;
+            idsAssigned.incrementAndGet();
+        }
         return this;
     }
 
+    /**
+     * Number of ids assigned to Order objects so far, changes when the id of
+     * any Order object is set.
+     *
+     * @return number of assigned ids.
+     */
+    public static long idsAssigned() {
+        return idsAssigned.get();
+    }
+
     /**
      * Customer getter.
      *
@@ -120,6 +248,21 @@ public class Order {
 
     }
 
+    /**
+     * ItemsListener setter, listener can only be set once, e.g. by the factory that created the order.
+     *
+     * @param listener listener notified when items are added or deleted.
+     * @return chainable self-reference.
+     * @throws IllegalStateException if a listener has already been set.
+     */
+    public Order setItemsListener(ItemsListener listener) {
+        if (this.itemsListener != null && listener != this.itemsListener) {
+            throw new IllegalStateException("items listener already set.");
+        }
+        this.itemsListener = listener;
+        return this;
+    }
+
     /**
      * Number of items that are part of the order.
      *
@@ -131,13 +274,15 @@ public class Order {
     }
 
     /**
-     * Ordered items getter.
+     * Ordered items getter. Items are read-only, they are added and deleted
+     * with {@link #addItem(Article, int)} and {@link #deleteItem(int)} such
+     * that cached totals and the items listener observe all changes.
      *
-     * @return ordered items.
+     * @return read-only view of ordered items.
      */
     public Iterable<OrderItem> getItems() {
         // TODO implement here
-        return items;
+        return Collections.unmodifiableList(items);
     }
 
     /**
@@ -151,7 +296,12 @@ public class Order {
     public Order addItem(Article article, int units) {
         // TODO implement here
         OrderItem item = new OrderItem(article, units);
+        item.order = this;
         items.add(item);
+        modCount++;
+        if (itemsListener != null) {
+            itemsListener.itemAdded(this, item);
+        }
         return this;
     }
 
@@ -163,7 +313,12 @@ public class Order {
     public void deleteItem(int i) {
         // TODO implement here
         if (i >= 0 && i < itemsCount()) {
-            items.remove(i);
+            OrderItem item = items.remove(i);
+            item.order = null;
+            modCount++;
+            if (itemsListener != null) {
+                itemsListener.itemDeleted(this, item);
+            }
         }
     }
 
@@ -172,14 +327,116 @@ public class Order {
      */
     public void deleteAllItems() {
         // TODO implement here
-        items.clear();
+        while (itemsCount() > 0) {
+            deleteItem(itemsCount() - 1);
+        }
     }
 
+    /**
+     * Total value of order in cent, cached until items or prices of ordered
+     * articles change.
+     *
+     * @return sum of unit price times units ordered over all items.
+     */
     public long getTotalOrderValue() {
+        final int m = modCount;
+        final long epoch = Article.priceEpoch();
+        final Totals t = validTotals(m, epoch);
+        if (t != null) {
+            return t.value;
+        }
+        final long stamp = pricesStamp();
+        final long value = computeValue();
+        totals = new Totals(m, epoch, stamp, value, NONE, NONE);
+        return value;
+    }
+
+    /**
+     * Return value computed from order by a function, cached under a key until
+     * items or prices or tax rates of ordered articles change. Values of a few
+     * keys are cached at a time, they are only returned for the same key such
+     * that owners of different keys, e.g. calculators, never see each other's
+     * values. Cached values are shared and must not be modified by callers.
+     *
+     * @param <T>     generic type of cached value.
+     * @param key     key of owner of the cached value, compared by identity.
+     * @param compute function that computes value from order.
+     * @return cached or computed value.
+     * @throws IllegalArgumentException if key or compute is null.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T getCached(Object key, Function<Order, T> compute) {
+        if (key == null || compute == null) {
+            throw new IllegalArgumentException("key or compute function is null.");
+        }
+        final int m = modCount;
+        final long epoch = Article.priceEpoch();
+        final Totals t = validTotals(m, epoch);
+        final int i = t != null ? t.indexOf(key) : -1;
+        if (i >= 0) {
+            return (T) t.keyed[i];
+        }
+        final Totals base = t != null ? t : new Totals(m, epoch, pricesStamp(), computeValue(), NONE, NONE);
+        final T keyed = compute.apply(this);
+        totals = base.with(key, keyed);
+        return keyed;
+    }
+
+    /**
+     * Return cached totals when valid for the modification count of items and
+     * the price epoch. Totals of an earlier epoch are still valid when no price
+     * of an ordered article has changed, they are then moved to the epoch.
+     *
+     * @param m     modification count of items.
+     * @param epoch current price epoch.
+     * @return valid totals or null.
+     */
+    private Totals validTotals(int m, long epoch) {
+        final Totals t = totals;
+        if (t == null || t.modCount != m) {
+            return null;
+        }
+        if (t.epoch == epoch) {
+            return t;
+        }
+        if (t.pricesStamp != pricesStamp()) {
+            return null;
+        }
+        final Totals valid = t.at(epoch);
+        totals = valid;
+        return valid;
+    }
+
+    /**
+     * Sum of unit price times units ordered over all items.
+     *
+     * @return order value in cent.
+     */
+    private long computeValue() {
         long total = 0;
         for (OrderItem item : items) {
             total += item.getUnitsOrdered() * item.getArticle().getUnitPrice();
         }
         return total;
     }
-}
\ No newline at end of file
+
+    /**
+     * Sum of price versions of ordered articles.
+     *
+     * @return stamp of prices and tax rates of ordered articles.
+     */
+    private long pricesStamp() {
+        long stamp = 0;
+        for (OrderItem item : items) {
+            stamp += item.getArticle().getPriceVersion();
+        }
+        return stamp;
+    }
+
+    /**
+     * Invalidate cached totals when units of an item have changed.
+     */
+    void itemsChanged() {
+        modCount++;
+    }
+}
@@ -21,6 +21,11 @@ public class OrderItem {
      */
     private int unitsOrdered;
 
+    /**
+     * Order of which item is part, set when item is added to order, null before.
+     */
+    Order order;
+
     /**
      * Constructor of ordered line item with article and units arguments.
      *
@@ -64,7 +69,12 @@ public class OrderItem {
         if (units < 0) {
             throw new IllegalArgumentException("invalid units");
         }
-        this.unitsOrdered = units;
+        if (this.unitsOrdered != units) {
+            this.unitsOrdered = units;
+            if (order != null) {
+                order.itemsChanged();
+            }
+        }
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,133 @@
+package datamodel;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded, concurrent pool that deduplicates equal {@link String} values such
+ * that repeated names, descriptions, ids and contacts of loaded objects share
+ * one instance and copies created by parsers can be garbage collected.
+ * <p>
+ * The pool is a fixed-size table with one slot per hash bucket (a lossy cache,
+ * not a set): a string that collides with a different string replaces it.
+ * Memory use is therefore bounded by the capacity regardless of how many
+ * distinct strings are pooled, and lookups do not lock.
+ * </p>
+ * <p>
+ * The pool counts hits and estimates heap saved by hits, assuming compact
+ * (one byte per character) strings with compressed references: a 24 byte
+ * {@code String} object and a {@code byte[]} of 16 bytes header plus length,
+ * aligned to 8 bytes.
+ * </p>
+ *
+ * @version <code style=color:green>{@value application.package_info#Version}</code>
+ * @author <code style=color:blue>{@value application.package_info#Author}</code>
+ */
+public final class StringPool {
+
+    /**
+     * Pool shared by datamodel classes and loaders.
+     */
+    private static final StringPool shared = new StringPool(1 << 16);
+
+    /**
+     * Pooled strings by hash bucket, length is a power of two.
+     */
+    private final AtomicReferenceArray<String> slots;
+    private final int mask;
+
+    /**
+     * Number of strings returned from pool, number of strings added to pool
+     * and estimated bytes saved by hits.
+     */
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder savedBytes = new LongAdder();
+
+    /**
+     * Constructor of pool with capacity.
+     *
+     * @param capacity maximum number of pooled strings, rounded up to a power of two.
+     * @throws IllegalArgumentException if capacity is not in range {@code 1 <= capacity <= 2^30}.
+     */
+    public StringPool(int capacity) {
+        if (capacity < 1 || capacity > (1 << 30)) {
+            throw new IllegalArgumentException("capacity out of range [1, 2^30]: " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity);
+        size = size < capacity ? size << 1 : size;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    /**
+     * Shared pool getter.
+     *
+     * @return pool shared by datamodel classes and loaders.
+     */
+    public static StringPool getShared() {
+        return shared;
+    }
+
+    /**
+     * Return pooled instance equal to string, string is pooled when no equal
+     * instance is in the pool.
+     *
+     * @param s string to deduplicate, null is returned as null.
+     * @return pooled instance equal to s, or s.
+     */
+    public String intern(String s) {
+        if (s == null) {
+            return null;
+        }
+        final int h = s.hashCode();
+        final int i = (h ^ (h >>> 16)) & mask;
+        final String pooled = slots.get(i);
+        if (pooled != null && pooled.hashCode() == h && pooled.equals(s)) {
+            if (pooled != s) {
+                hits.increment();
+                savedBytes.add(24 + ((16 + s.length() + 7) & ~7));
+            }
+            return pooled;
+        }
+        slots.lazySet(i, s);
+        misses.increment();
+        return s;
+    }
+
+    /**
+     * Capacity getter.
+     *
+     * @return maximum number of pooled strings.
+     */
+    public int capacity() {
+        return slots.length();
+    }
+
+    /**
+     * Return number of strings that were replaced by a pooled instance.
+     *
+     * @return number of hits.
+     */
+    public long hits() {
+        return hits.sum();
+    }
+
+    /**
+     * Return number of strings that were added to the pool.
+     *
+     * @return number of misses.
+     */
+    public long misses() {
+        return misses.sum();
+    }
+
+    /**
+     * Return estimated heap in bytes saved by strings that were replaced by a pooled instance.
+     *
+     * @return estimated bytes saved.
+     */
+    public long savedBytes() {
+        return savedBytes.sum();
+    }
+}
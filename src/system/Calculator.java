@@ -1,5 +1,8 @@
 package system;
 
+import java.util.Collection;
+import java.util.stream.Stream;
+
 import datamodel.Order;
 import datamodel.TAX;
 
@@ -40,4 +43,31 @@ public interface Calculator {
 	 */
 	public long[] calculateValueAndTax(Order order);
 
+	/**
+	 * Accumulate value and VAT tax per tax rate over all items of orders into
+	 * an accumulator with layout:
+	 * <pre>
+	 * accumulator[2 * tax.ordinal()]      compounded value of items with tax rate
+	 * accumulator[2 * tax.ordinal() + 1]  compounded VAT tax of items with tax rate
+	 * </pre>
+	 * Accumulated sums are added to values already in the accumulator.
+	 * 
+	 * @param accumulator array of length {@code 2 * TAX.values().length}, a new array is created when accumulator is null.
+	 * @param orders collection of orders (null argument is ignored).
+	 * @return accumulator with sums per tax rate (same accumulator).
+	 */
+	long[] accumulateValueAndTax(long[] accumulator, Collection<Order> orders);
+
+	/**
+	 * Accumulate value and VAT tax per tax rate over all items of a stream of
+	 * orders. Parallel streams accumulate partial sums per split, which are
+	 * merged into the accumulator.
+	 * 
+	 * @param accumulator array of length {@code 2 * TAX.values().length}, a new array is created when accumulator is null.
+	 * @param orders stream of orders, sequential or parallel (null argument is ignored).
+	 * @return accumulator with sums per tax rate (same accumulator).
+	 * @see #accumulateValueAndTax(long[], Collection)
+	 */
+	long[] accumulateValueAndTax(long[] accumulator, Stream<Order> orders);
+
 }
@@ -4,6 +4,7 @@ import datamodel.Article;
 import datamodel.Customer;
 import datamodel.Order;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -32,7 +33,15 @@ public interface DatamodelFactory {
 
     Optional<Article> findArticleById(String id);
 
+    Optional<Article> findArticleByKey(long key);
+
     Optional<Order> findOrderById(String id);
 
+    List<Order> findOrdersByCustomer(long customerId);
+
+    Collection<Order> findOrdersByArticle(String articleId);
+
+    OrderBook createOrderBook();
+
     int ordersCount();
 }
@@ -85,6 +85,18 @@ public interface Formatter {
 	public String fmtPrice(long price, int... style);
 
 
+	/**
+	 * Format long value to price according to a style and append it to a
+	 * StringBuilder. Output is the same as {@link #fmtPrice(long, int...)}.
+	 * 
+	 * @param sb StringBuilder to append formatted price to. A new StringBuilder is created when sb is null.
+	 * @param price long value as price.
+	 * @param style price formatting style.
+	 * @return StringBuilder that contains formatted result (same sb).
+	 */
+	public StringBuilder fmtPrice(StringBuilder sb, long price, int... style);
+
+
 	/**
 	 * Method to format a long value to a decimal String with a specified
 	 * number of digits.
@@ -96,4 +108,18 @@ public interface Formatter {
 	 */
 	public String fmtDecimal(long value, int decimalDigits, String... unit);
 
+
+	/**
+	 * Method to format a long value to a decimal with a specified number of
+	 * digits and append it to a StringBuilder. Output is the same as
+	 * {@link #fmtDecimal(long, int, String...)}.
+	 * 
+	 * @param sb StringBuilder to append formatted value to. A new StringBuilder is created when sb is null.
+	 * @param value value to format in decimal format.
+	 * @param decimalDigits number of digits.
+	 * @param unit appended unit as String.
+	 * @return StringBuilder that contains formatted result (same sb).
+	 */
+	public StringBuilder fmtDecimal(StringBuilder sb, long value, int decimalDigits, String... unit);
+
 }
@@ -48,6 +48,13 @@ public interface IoC {
 	 */
 	Printer getPrinter();
 
+	/**
+	 * Getter of system singleton component that implements the {@link Metrics} interface.
+	 * 
+	 * @return reference to singleton Metrics instance.
+	 */
+	Metrics getMetrics();
+
 	/**
 	 * Getter of system singleton component that contains system properties.
 	 * @return reference to singleton Properties instance.
@@ -0,0 +1,144 @@
+package system;
+
+
+/**
+ * Interface of a metrics component that records counters and latency
+ * histograms of system components. Recording is lock-free and can be used
+ * on hot paths from multiple threads. Components obtain a {@link Counter} or
+ * {@link Histogram} once by name and record through the returned reference.
+ * <p>
+ * Names are dot-separated, e.g. {@code "factory.find.customer"}. Histogram
+ * values are recorded in nanoseconds.
+ * </p>
+ *
+ * @version <code style=color:green>{@value application.package_info#Version}</code>
+ * @author <code style=color:blue>{@value application.package_info#Author}</code>
+ */
+
+public interface Metrics {
+
+	/**
+	 * Monotonic counter of events.
+	 */
+	interface Counter {
+
+		/**
+		 * Count one event.
+		 */
+		void increment();
+
+		/**
+		 * Count n events.
+		 *
+		 * @param n number of events.
+		 */
+		void add(long n);
+
+		/**
+		 * Return number of counted events.
+		 *
+		 * @return number of counted events.
+		 */
+		long count();
+	}
+
+
+	/**
+	 * Histogram of recorded values (latencies in nanoseconds) with buckets of
+	 * bounded relative error such that percentiles are approximate.
+	 */
+	interface Histogram {
+
+		/**
+		 * Record value, negative values are recorded as 0.
+		 *
+		 * @param value value to record, e.g. latency in nanoseconds.
+		 */
+		void record(long value);
+
+		/**
+		 * Record time elapsed since start, a value obtained from {@link System#nanoTime()}.
+		 *
+		 * @param startNanos start time from {@link System#nanoTime()}.
+		 */
+		default void recordSince(long startNanos) {
+			record(System.nanoTime() - startNanos);
+		}
+
+		/**
+		 * Return number of recorded values.
+		 *
+		 * @return number of recorded values.
+		 */
+		long count();
+
+		/**
+		 * Return approximate value at percentile, the highest value that is
+		 * equivalent to the bucket in which the percentile falls.
+		 *
+		 * @param percentile percentile in range [0.0, 100.0].
+		 * @return value at percentile, 0 when no values were recorded.
+		 * @throws IllegalArgumentException when percentile is out of range.
+		 */
+		long valueAtPercentile(double percentile);
+
+		/**
+		 * Return largest recorded value.
+		 *
+		 * @return largest recorded value, 0 when no values were recorded.
+		 */
+		long max();
+
+		/**
+		 * Return mean of recorded values.
+		 *
+		 * @return mean of recorded values, 0.0 when no values were recorded.
+		 */
+		double mean();
+	}
+
+
+	/**
+	 * Return counter by name, counter is created with its first use.
+	 *
+	 * @param name name of counter.
+	 * @return counter with name.
+	 * @throws IllegalArgumentException when name is null or empty "".
+	 */
+	Counter counter(String name);
+
+	/**
+	 * Return histogram by name, histogram is created with its first use.
+	 *
+	 * @param name name of histogram.
+	 * @return histogram with name.
+	 * @throws IllegalArgumentException when name is null or empty "".
+	 */
+	Histogram histogram(String name);
+
+	/**
+	 * Snapshot of all counters and histograms as text with one metric per line
+	 * ordered by name, e.g.:
+	 * <pre>
+	 * factory.find.customer          count=12
+	 * json.read.data/orders.json     count=1 mean=8.5ms p50=8.4ms p90=8.4ms p99=8.4ms max=8.4ms
+	 * </pre>
+	 *
+	 * @param sb StringBuilder to append snapshot to. A new StringBuilder is created when sb is null.
+	 * @return StringBuilder with appended snapshot (same sb).
+	 */
+	StringBuilder snapshotText(StringBuilder sb);
+
+	/**
+	 * Snapshot of all counters and histograms as JSON object ordered by name,
+	 * histogram values in nanoseconds, e.g.:
+	 * <pre>
+	 * {"counters": {"factory.find.customer": 12},
+	 *  "histograms": {"json.read.data/orders.json": {"count": 1, "mean": 8500000, "p50": 8400000, ...}}}
+	 * </pre>
+	 *
+	 * @param sb StringBuilder to append snapshot to. A new StringBuilder is created when sb is null.
+	 * @return StringBuilder with appended snapshot (same sb).
+	 */
+	StringBuilder snapshotJSON(StringBuilder sb);
+}
@@ -0,0 +1,103 @@
+package system;
+
+import datamodel.Article;
+import datamodel.Order;
+
+
+/**
+ * Columnar, read-only snapshot of all order items for analytics. Items are
+ * stored in parallel primitive arrays (order index, article index, units,
+ * item value in cent, tax rate) such that aggregations run as loops over
+ * arrays instead of over {@link Order} and {@link datamodel.OrderItem}
+ * objects. Orders and articles are addressed by index, objects are only
+ * obtained when a view is needed.
+ * <p>
+ * The snapshot reflects orders, items and article prices when it was
+ * created, it is not updated when they change.
+ * </p>
+ *
+ * @version <code style=color:green>{@value application.package_info#Version}</code>
+ * @author <code style=color:blue>{@value application.package_info#Author}</code>
+ */
+
+public interface OrderBook {
+
+	/**
+	 * Return number of orders in order book.
+	 *
+	 * @return number of orders.
+	 */
+	int ordersCount();
+
+	/**
+	 * Return number of order items over all orders.
+	 *
+	 * @return number of order items.
+	 */
+	int itemsCount();
+
+	/**
+	 * Return number of distinct articles in order book.
+	 *
+	 * @return number of articles.
+	 */
+	int articlesCount();
+
+	/**
+	 * Return order by index.
+	 *
+	 * @param orderIndex index of order, {@code 0 <= orderIndex < ordersCount()}.
+	 * @return order at index.
+	 * @throws IndexOutOfBoundsException when index is out of range.
+	 */
+	Order getOrder(int orderIndex);
+
+	/**
+	 * Return article by index.
+	 *
+	 * @param articleIndex index of article, {@code 0 <= articleIndex < articlesCount()}.
+	 * @return article at index.
+	 * @throws IndexOutOfBoundsException when index is out of range.
+	 */
+	Article getArticle(int articleIndex);
+
+	/**
+	 * Find index of article by its id.
+	 *
+	 * @param articleId id of article.
+	 * @return index of article, -1 when no article with id is in order book.
+	 */
+	int findArticleIndex(String articleId);
+
+	/**
+	 * Compound value in cent over all order items (revenue).
+	 *
+	 * @return compounded value of all order items.
+	 */
+	long totalValue();
+
+	/**
+	 * Compound value in cent per order.
+	 *
+	 * @return array of order values indexed by order index.
+	 */
+	long[] orderValues();
+
+	/**
+	 * Units ordered per article over all orders.
+	 *
+	 * @return array of units indexed by article index.
+	 */
+	long[] unitsByArticle();
+
+	/**
+	 * Accumulate value and VAT tax per tax rate over all order items into an
+	 * accumulator with the layout of {@link Calculator#accumulateValueAndTax(long[], java.util.Collection)}.
+	 *
+	 * @param accumulator array of length {@code 2 * TAX.values().length}, a new array is created when accumulator is null.
+	 * @param calculator calculator that calculates included VAT tax of items.
+	 * @return accumulator with sums per tax rate (same accumulator).
+	 * @throws IllegalArgumentException when calculator is null.
+	 */
+	long[] accumulateValueAndTax(long[] accumulator, Calculator calculator);
+}
@@ -1,6 +1,12 @@
 package system;
 
+import java.util.Collection;
+
+import datamodel.Order;
+
 public interface OrderBuilder {
     OrderBuilder buildOrders();
     OrderBuilder buildMoreOrders();
+
+    Collection<Order> updateArticles();
 }
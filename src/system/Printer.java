@@ -9,7 +9,13 @@ import datamodel.Order;
 
 
 /**
- * Interface to format and print objects and collections into a StringBuffer.
+ * Interface to format and print objects and collections into a StringBuffer
+ * or any other {@link Appendable}.
+ * <p>
+ * Methods with {@link Appendable} arguments work on unsynchronized builders
+ * such as {@link StringBuilder} or on {@link java.io.Writer}'s, methods with
+ * {@link StringBuffer} arguments are adapters of these methods.
+ * </p>
  * 
  * @version <code style=color:green>{@value application.package_info#Version}</code>
  * @author <code style=color:blue>{@value application.package_info#Author}</code>
@@ -27,6 +33,25 @@ public interface Printer {
 	TablePrinter createTablePrinter(StringBuffer sb, Consumer<TablePrinter.Builder> builder);
 
 
+	/**
+	 * Factory method to create TablePrinter instances that append rows to an
+	 * Appendable such as an unsynchronized {@link StringBuilder}.
+	 * <p>
+	 * A {@link java.io.Writer} is not collected into, each row is written
+	 * through as it is inserted, buffered when the Writer is not a
+	 * {@link java.io.BufferedWriter}. Output to an OutputStream or NIO channel
+	 * is possible with an {@link java.io.OutputStreamWriter} or
+	 * {@link java.nio.channels.Channels#newWriter}.
+	 * {@link TablePrinter#print(java.io.PrintStream)} then only flushes the Writer.
+	 * </p>
+	 * 
+	 * @param out Appendable to collect table content or Writer to write rows to. A new StringBuilder is used when out is null.
+	 * @param builder initialize table at creation with columns, widths and alignment.
+	 * @return TablePrinter instance.
+	 */
+	TablePrinter createTablePrinter(Appendable out, Consumer<TablePrinter.Builder> builder);
+
+
 	/**
 	 * Print attributes of one Customer object into StringBuffer as column-separated line.
 	 * <pre>
@@ -41,6 +66,20 @@ public interface Printer {
 	public StringBuffer printCustomer(StringBuffer sb, Customer customer);
 
 
+	/**
+	 * Print one Customer object into Appendable, same format as
+	 * {@link #printCustomer(StringBuffer, Customer)}.
+	 * 
+	 * @param <A> generic Appendable type.
+	 * @param out Appendable that will contain the formatted result.
+	 * @param customer Customer object (null argument is ignored).
+	 * @return Appendable that contains formatted result (same out).
+	 * @throws IllegalArgumentException when out is null.
+	 * @throws java.io.UncheckedIOException when appending to out fails.
+	 */
+	public <A extends Appendable> A printCustomer(A out, Customer customer);
+
+
 	/**
 	 * Print collection of Customer objects into StringBuffer as lines with Customer attributes.
 	 * <pre>
@@ -57,6 +96,20 @@ public interface Printer {
 	public StringBuffer printCustomers(StringBuffer sb, Collection<Customer> customers);
 
 
+	/**
+	 * Print collection of Customer objects into Appendable, same format as
+	 * {@link #printCustomers(StringBuffer, Collection)}.
+	 * 
+	 * @param <A> generic Appendable type.
+	 * @param out Appendable that will contain the formatted result.
+	 * @param customers collection of Customers (null argument is ignored).
+	 * @return Appendable that contains formatted result (same out).
+	 * @throws IllegalArgumentException when out is null.
+	 * @throws java.io.UncheckedIOException when appending to out fails.
+	 */
+	public <A extends Appendable> A printCustomers(A out, Collection<Customer> customers);
+
+
 	/**
 	 * Print attributes of one Article object into StringBuffer as column-separated line.
 	 * <pre>
@@ -71,6 +124,20 @@ public interface Printer {
 	public StringBuffer printArticle(StringBuffer sb, Article article);
 
 
+	/**
+	 * Print one Article object into Appendable, same format as
+	 * {@link #printArticle(StringBuffer, Article)}.
+	 * 
+	 * @param <A> generic Appendable type.
+	 * @param out Appendable that will contain the formatted result.
+	 * @param article Article object (null argument is ignored).
+	 * @return Appendable that contains formatted result (same out).
+	 * @throws IllegalArgumentException when out is null.
+	 * @throws java.io.UncheckedIOException when appending to out fails.
+	 */
+	public <A extends Appendable> A printArticle(A out, Article article);
+
+
 	/**
 	 * Print collection of Article objects into StringBuffer as lines with Article attributes.
 	 * <pre>
@@ -87,6 +154,20 @@ public interface Printer {
 	public StringBuffer printArticles(StringBuffer sb, Collection<Article> articles);
 
 
+	/**
+	 * Print collection of Article objects into Appendable, same format as
+	 * {@link #printArticles(StringBuffer, Collection)}.
+	 * 
+	 * @param <A> generic Appendable type.
+	 * @param out Appendable that will contain the formatted result.
+	 * @param articles collection of Articles (null argument is ignored).
+	 * @return Appendable that contains formatted result (same out).
+	 * @throws IllegalArgumentException when out is null.
+	 * @throws java.io.UncheckedIOException when appending to out fails.
+	 */
+	public <A extends Appendable> A printArticles(A out, Collection<Article> articles);
+
+
 	/**
 	 * Print attributes of one Order object into StringBuffer as column-separated line.
 	 * <pre>
@@ -101,6 +182,20 @@ public interface Printer {
 	public StringBuffer printOrder(StringBuffer sb, Order order);
 
 
+	/**
+	 * Print one Order object into Appendable, same format as
+	 * {@link #printOrder(StringBuffer, Order)}.
+	 * 
+	 * @param <A> generic Appendable type.
+	 * @param out Appendable that will contain the formatted result.
+	 * @param order Order object (null argument is ignored).
+	 * @return Appendable that contains formatted result (same out).
+	 * @throws IllegalArgumentException when out is null.
+	 * @throws java.io.UncheckedIOException when appending to out fails.
+	 */
+	public <A extends Appendable> A printOrder(A out, Order order);
+
+
 	/**
 	 * Print collection of Order objects into StringBuffer as lines with Order attributes.
 	 * <pre>
@@ -118,6 +213,20 @@ public interface Printer {
 	public StringBuffer printOrders(StringBuffer sb, Collection<Order> orders);
 
 
+	/**
+	 * Print collection of Order objects into Appendable, same format as
+	 * {@link #printOrders(StringBuffer, Collection)}.
+	 * 
+	 * @param <A> generic Appendable type.
+	 * @param out Appendable that will contain the formatted result.
+	 * @param orders collection of Orders (null argument is ignored).
+	 * @return Appendable that contains formatted result (same out).
+	 * @throws IllegalArgumentException when out is null.
+	 * @throws java.io.UncheckedIOException when appending to out fails.
+	 */
+	public <A extends Appendable> A printOrders(A out, Collection<Order> orders);
+
+
 	/**
 	 * Print order into TablePrinter with order item separated lines.
 	 * <pre>
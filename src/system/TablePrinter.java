@@ -84,9 +84,11 @@ public interface TablePrinter {
 	TablePrinter row(String... args);
 
 	/**
-	 * Output table to PrintStream.
+	 * Output table to PrintStream. TablePrinters that write rows through to
+	 * a Writer (or another Flushable) only flush it, their rows have already
+	 * been written to the Writer and are not printed to ps.
 	 * 
-	 * @param ps output destination.
+	 * @param ps output destination, ignored when rows are written through.
 	 */
 	void print(PrintStream ps);
 }
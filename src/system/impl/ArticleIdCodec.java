@@ -0,0 +1,111 @@
+package system.impl;
+
+
+/**
+ * Codec of article ids of the regular form {@code "SKU-nnnnnn"} to primitive
+ * {@code long} keys such that article indexes and joins compare and hash
+ * numbers instead of strings. Ids of other forms are irregular and encode
+ * to {@link #IRREGULAR}, callers fall back to the id string for them.
+ * <p>
+ * A key holds the number of digits (1 to 15) in bits 50 to 53 and the value
+ * of the digits in bits 0 to 49, hence ids with leading zeros ("SKU-0042")
+ * and without ("SKU-42") have different keys, and every key decodes to the
+ * exact id it was encoded from. Keys are non-negative.
+ * </p>
+ *
+ * @version <code style=color:green>{@value application.package_info#Version}</code>
+ * @author <code style=color:blue>{@value application.package_info#Author}</code>
+ */
+
+final class ArticleIdCodec {
+
+	/**
+	 * Key of irregular ids that have no primitive encoding.
+	 */
+	static final long IRREGULAR = -1L;
+
+	/**
+	 * Prefix of regular ids, maximum number of digits and bit position of digit count.
+	 */
+	private static final String PREFIX = "SKU-";
+	private static final int MAX_DIGITS = 15;
+	private static final int DIGITS_SHIFT = 50;
+
+
+	/**
+	 * Private constructor, codec has static methods only.
+	 */
+	private ArticleIdCodec() { }
+
+
+	/**
+	 * Encode article id to key.
+	 *
+	 * @param id article id, e.g. "SKU-458362".
+	 * @return key of regular id, {@link #IRREGULAR} for null and irregular ids.
+	 */
+	static long encode(String id) {
+		if(id == null)
+			return IRREGULAR;
+		final int n = id.length() - PREFIX.length();
+		if(n < 1 || n > MAX_DIGITS || ! id.startsWith(PREFIX))
+			return IRREGULAR;
+		long value = 0L;
+		for(int i=PREFIX.length(); i < id.length(); i++) {
+			final int d = id.charAt(i) - '0';
+			if(d < 0 || d > 9)
+				return IRREGULAR;
+			value = value * 10 + d;
+		}
+		return ((long)n << DIGITS_SHIFT) | value;
+	}
+
+
+	/**
+	 * Encode article id given as characters in a buffer, e.g. the text buffer
+	 * of a JSON parser, without creating a String.
+	 *
+	 * @param chars buffer with characters of id.
+	 * @param offset offset of first character of id in buffer.
+	 * @param length number of characters of id.
+	 * @return key of regular id, {@link #IRREGULAR} for irregular ids.
+	 */
+	static long encode(char[] chars, int offset, int length) {
+		final int n = length - PREFIX.length();
+		if(n < 1 || n > MAX_DIGITS)
+			return IRREGULAR;
+		for(int i=0; i < PREFIX.length(); i++) {
+			if(chars[offset + i] != PREFIX.charAt(i))
+				return IRREGULAR;
+		}
+		long value = 0L;
+		for(int i=offset + PREFIX.length(); i < offset + length; i++) {
+			final int d = chars[i] - '0';
+			if(d < 0 || d > 9)
+				return IRREGULAR;
+			value = value * 10 + d;
+		}
+		return ((long)n << DIGITS_SHIFT) | value;
+	}
+
+
+	/**
+	 * Decode key to article id.
+	 *
+	 * @param key key of regular id.
+	 * @return article id, e.g. "SKU-458362".
+	 * @throws IllegalArgumentException when key is not a key of a regular id.
+	 */
+	static String decode(long key) {
+		final int n = (int)(key >>> DIGITS_SHIFT);
+		final long value = key & ((1L << DIGITS_SHIFT) - 1);
+		if(key < 0L || n < 1 || n > MAX_DIGITS || Long.toString(value).length() > n)
+			throw new IllegalArgumentException("invalid article id key: " + key);
+		final StringBuilder sb = new StringBuilder(PREFIX.length() + n).append(PREFIX);
+		final String digits = Long.toString(value);
+		for(int i=digits.length(); i < n; i++) {
+			sb.append('0');
+		}
+		return sb.append(digits).toString();
+	}
+}
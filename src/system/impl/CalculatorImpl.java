@@ -1,52 +1,178 @@
 package system.impl;
 
 import datamodel.Order;
+import datamodel.OrderItem;
 import datamodel.TAX;
 import system.Calculator;
+import system.Metrics;
 
+import java.util.Collection;
+import java.util.EnumMap;
 import java.util.Map;
-import java.util.Optional;
+import java.util.stream.Stream;
 
 
 class CalculatorImpl implements Calculator {
 
+	/**
+	 * Counter of calls of {@link #calculateValueAndTax(Order)}.
+	 */
+	private final Metrics.Counter valueAndTaxCalls;
+
+	/**
+	 * Key under which orders cache value and VAT sums per tax rate computed
+	 * by this calculator, private such that no other code reads or replaces them.
+	 */
+	private final Object totalsKey = new Object();
+
+	/**
+	 * Default constructor, calls are counted in a private Metrics instance.
+	 */
+	CalculatorImpl() {
+		this(new MetricsImpl());
+	}
+
+	/**
+	 * Constructor with injected dependency of Metrics component.
+	 *
+	 * @param metrics injected dependency of Metrics component that counts calls.
+	 */
+	CalculatorImpl(Metrics metrics) {
+		this.valueAndTaxCalls = metrics.counter("calculator.valueAndTax");
+	}
+
 	@Override
 	public double getTaxRate(TAX taxRate) {
-		// TODO Auto-generated method stub
-		return taxRate != null ? taxRateMapper.get(taxRate) : 0.0;
+		return taxRate != null ? taxRateBasisPoints[taxRate.ordinal()] / 100.0 : 0.0;
 	}
 
+	/**
+	 * Calculate included VAT in exact fixed-point arithmetic from gross value
+	 * in cent and tax rate in basis points {@code r} (1/100 percent):
+	 * {@code vat = gross * r / (10000 + r)}, rounded half-up to the cent.
+	 *
+	 * @param grossValue value in cent that includes tax.
+	 * @param tax applicable tax rate, null is tax free.
+	 * @return tax in cent included in gross value.
+	 */
 	@Override
 	public long calculateIncludedVAT(long grossValue, TAX tax) {
-		// TODO Auto-generated method stub
-		double taxRate = getTaxRate(tax);
-		double netValue = grossValue / (1 + (taxRate / 100));
-
-		double includedVat = grossValue - netValue;
-
-		double vat = grossValue / (getTaxRate(tax) / 100 + 1) * getTaxRate(tax);
-//        return Math.round(vat/100);
-		return  Math.round(includedVat);
+		final long rate = tax != null ? taxRateBasisPoints[tax.ordinal()] : 0L;
+		final long divisor = 2 * (BASIS_POINTS + rate);
+		// round half-up: floor(x + 1/2) = floor((2 * gross * rate + divisor/2) / divisor)
+		return Math.floorDiv(2 * grossValue * rate + BASIS_POINTS + rate, divisor);
 	}
 
 	@Override
 	public long[] calculateValueAndTax(Order order) {
-		// TODO Auto-generated method stub
-		long[] totals = {0L, 0L};
-		Optional.ofNullable(order).ifPresent(o -> o.getItems().forEach(item -> {
-			int units = item.getUnitsOrdered();
-			long unitPrice = item.getArticle().getUnitPrice();
-			long itemPrice = unitPrice * units;
-			long vat = calculateIncludedVAT(itemPrice, item.getArticle().getTax());
-			totals[0] += itemPrice;    // compound item price
-			totals[1] += vat;        // compound item tax
-		}));
+		valueAndTaxCalls.increment();
+		final long[] totals = new long[] {0L, 0L};
+		if (order != null) {
+			final long[] byTax = totalsByTax(order);
+			for (int i = 0; i < byTax.length; i += 2) {
+				totals[0] += byTax[i];    // compound item price
+				totals[1] += byTax[i + 1];    // compound item tax
+			}
+		}
 		return totals;    // return tuple with compounded {value, vat}
 	}
 
-	private final Map<TAX, Double> taxRateMapper = Map.of(
-			TAX.TAXFREE, 0.0,    // tax free rate
-			TAX.GER_VAT, 19.0,    // German VAT tax (MwSt) 19.0%
-			TAX.GER_VAT_REDUCED, 7.0    // German reduced VAT tax (MwSt) 7.0%
-	);
+	@Override
+	public long[] accumulateValueAndTax(long[] accumulator, Collection<Order> orders) {
+		final long[] acc = accumulator != null ? accumulator : new long[ACCUMULATOR_LENGTH];
+		if (orders != null) {
+			for (Order order : orders) {
+				accumulate(acc, order);
+			}
+		}
+		return acc;
+	}
+
+	@Override
+	public long[] accumulateValueAndTax(long[] accumulator, Stream<Order> orders) {
+		final long[] acc = accumulator != null ? accumulator : new long[ACCUMULATOR_LENGTH];
+		if (orders != null) {
+			// one partial accumulator per split, merged when splits are joined
+			merge(acc, orders.collect(() -> new long[ACCUMULATOR_LENGTH], this::accumulate, CalculatorImpl::merge));
+		}
+		return acc;
+	}
+
+	/**
+	 * Add value and VAT tax of order items to sums per tax rate in accumulator.
+	 * Sums of an order are cached by the order, VAT is only computed again
+	 * when items or prices of articles have changed.
+	 *
+	 * @param acc accumulator with sums per tax rate.
+	 * @param order order to accumulate (null argument is ignored).
+	 */
+	private void accumulate(long[] acc, Order order) {
+		if (order != null) {
+			merge(acc, totalsByTax(order));
+		}
+	}
+
+	/**
+	 * Value and VAT tax sums per tax rate of order items, cached by the order
+	 * under this calculator's key until items or prices of articles change.
+	 *
+	 * @param order order to sum (not null).
+	 * @return shared, cached sums per tax rate with accumulator layout, must not be modified.
+	 */
+	private long[] totalsByTax(Order order) {
+		return order.getCached(totalsKey, o -> {
+			final long[] byTax = new long[ACCUMULATOR_LENGTH];
+			for (OrderItem item : o.getItems()) {
+				TAX tax = item.getArticle().getTax();
+				int i = 2 * tax.ordinal();
+				long itemPrice = item.getArticle().getUnitPrice() * item.getUnitsOrdered();
+				byTax[i] += itemPrice;
+				byTax[i + 1] += calculateIncludedVAT(itemPrice, tax);
+			}
+			return byTax;
+		});
+	}
+
+	/**
+	 * Merge partial sums into accumulator.
+	 *
+	 * @param acc accumulator with sums per tax rate.
+	 * @param partial partial sums per tax rate added to accumulator.
+	 */
+	private static void merge(long[] acc, long[] partial) {
+		for (int i = 0; i < ACCUMULATOR_LENGTH; i++) {
+			acc[i] += partial[i];
+		}
+	}
+
+	/**
+	 * Basis points in 100%, tax rates are quoted in basis points (1/100 percent).
+	 */
+	private static final long BASIS_POINTS = 10_000L;
+
+	/**
+	 * Length of accumulator with value and VAT tax sums for each tax rate.
+	 */
+	private static final int ACCUMULATOR_LENGTH = 2 * TAX.values().length;
+
+	/**
+	 * Tax rates in basis points indexed by {@code TAX.ordinal()}.
+	 */
+	private static final long[] taxRateBasisPoints = toArray(new EnumMap<TAX, Long>(Map.of(
+			TAX.TAXFREE, 0L,    // tax free rate
+			TAX.GER_VAT, 1900L,    // German VAT tax (MwSt) 19.0%
+			TAX.GER_VAT_REDUCED, 700L    // German reduced VAT tax (MwSt) 7.0%
+	)));
+
+	/**
+	 * Convert tax rate map into array indexed by {@code TAX.ordinal()}.
+	 *
+	 * @param rates tax rates mapped from TAX enum values.
+	 * @return array of tax rates indexed by {@code TAX.ordinal()}.
+	 */
+	private static long[] toArray(EnumMap<TAX, Long> rates) {
+		long[] array = new long[TAX.values().length];
+		rates.forEach((tax, rate) -> array[tax.ordinal()] = rate);
+		return array;
+	}
 }
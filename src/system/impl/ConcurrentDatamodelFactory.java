@@ -0,0 +1,593 @@
+package system.impl;
+
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Predicate;
+
+import datamodel.Article;
+import datamodel.Customer;
+import datamodel.Order;
+import datamodel.OrderItem;
+import system.DatamodelFactory;
+import system.Metrics;
+import system.OrderBook;
+
+/**
+ * Thread-safe factory that creates instances of objects of the {@link datamodel}
+ * package from many threads at once, selected in application.properties with
+ * {@code datamodel.factory = concurrent}.
+ * <p>
+ * Created objects are appended to lock-free {@link AppendOnlyList} stores,
+ * getters return read-only views with weakly consistent iteration: iterators
+ * see all objects created before the iterator was obtained and may see objects
+ * created during iteration. Primary-key indexes are {@link ConcurrentHashMap}s
+ * in which hits do not lock. Objects are indexed once their id is set (ids are
+ * assigned after creation), a lookup that misses the index indexes objects
+ * with ids set since under a lock per entity type. Lookups therefore find every
+ * object whose id was set before the lookup started. A miss takes no lock
+ * when no object waits for indexing, e.g. for ids that do not exist once all
+ * objects have been indexed. When several objects are assigned the same id,
+ * the object created first wins once it is indexed. An object that is
+ * assigned its id after another object was found with the id is indexed by
+ * the next miss, lookups that hit do not look for it.
+ * </p>
+ *
+ * @version <code style=color:green>{@value application.package_info#Version}</code>
+ * @author <code style=color:blue>{@value application.package_info#Author}</code>
+ */
+
+class ConcurrentDatamodelFactory implements DatamodelFactory {
+
+	/**
+	 * Append-only stores of Customer, Article and Order objects.
+	 */
+	private final AppendOnlyList<Customer> customers = new AppendOnlyList<Customer>();
+	private final AppendOnlyList<Article> articles = new AppendOnlyList<Article>();
+	private final AppendOnlyList<Order> orders = new AppendOnlyList<Order>();
+
+	/**
+	 * Primary-key indexes of Customer, Article and Order objects by their ids.
+	 * Articles with regular ids are indexed by their {@link ArticleIdCodec} key,
+	 * articles with irregular ids by their id string. Customers are indexed by
+	 * their primitive id. Primitive indexes are written only while draining
+	 * unindexed objects under their queue lock.
+	 */
+	private final LongHashMap<Customer> customerIndex = new LongHashMap<Customer>();
+	private final LongHashMap<Article> articleKeyIndex = new LongHashMap<Article>();
+	private final Map<String, Article> articleIndex = new ConcurrentHashMap<String, Article>();
+	private final Map<String, Order> orderIndex = new ConcurrentHashMap<String, Order>();
+
+	/**
+	 * Objects not yet indexed in order of creation, queues are also the locks
+	 * under which they are drained into the indexes.
+	 */
+	private final Queue<Customer> unindexedCustomers = new ConcurrentLinkedQueue<Customer>();
+	private final Queue<Article> unindexedArticles = new ConcurrentLinkedQueue<Article>();
+	private final Queue<Order> unindexedOrders = new ConcurrentLinkedQueue<Order>();
+
+	/**
+	 * Queued objects that had no id when the queue was last drained, guarded
+	 * by the lock of their queue. Their ids are compared with objects indexed
+	 * since such that the object created first wins.
+	 */
+	private final Set<Customer> passedCustomers = Collections.newSetFromMap(new IdentityHashMap<Customer, Boolean>());
+	private final Set<Article> passedArticles = Collections.newSetFromMap(new IdentityHashMap<Article, Boolean>());
+	private final Set<Order> passedOrders = Collections.newSetFromMap(new IdentityHashMap<Order, Boolean>());
+
+	/**
+	 * Secondary index of orders by owning customer, maintained by createOrder().
+	 * Keyed by identity since customer ids may be assigned after orders are created
+	 * (Customer does not override equals()). Lists of one customer are short and
+	 * copied on write such that readers iterate snapshots.
+	 */
+	private final Map<Customer, List<Order>> ordersByCustomer = new ConcurrentHashMap<Customer, List<Order>>();
+
+	/**
+	 * Inverted index of orders by ordered article with the number of items of
+	 * the article in each order, maintained by the items listener that is set
+	 * on orders created by this factory. Updates are atomic per order entry.
+	 */
+	private final Map<Article, Map<Order, Integer>> ordersByArticle = new ConcurrentHashMap<Article, Map<Order, Integer>>();
+
+	private final Order.ItemsListener articleIndexer = new Order.ItemsListener() {
+		@Override
+		public void itemAdded(Order order, OrderItem item) {
+			if(item.getArticle() != null) {
+				ordersByArticle.computeIfAbsent(item.getArticle(), a -> new ConcurrentHashMap<Order, Integer>())
+					.merge(order, 1, Integer::sum);
+			}
+		}
+
+		@Override
+		public void itemDeleted(Order order, OrderItem item) {
+			Map<Order, Integer> orders = ordersByArticle.get(item.getArticle());
+			if(orders != null) {
+				orders.computeIfPresent(order, (o, n) -> n > 1 ? n - 1 : null);
+			}
+		}
+	};
+
+	/**
+	 * Counters of lookups by id.
+	 */
+	private final Metrics.Counter customerLookups;
+	private final Metrics.Counter articleLookups;
+	private final Metrics.Counter orderLookups;
+
+
+	/**
+	 * Default constructor, lookups are counted in a private Metrics instance.
+	 */
+	ConcurrentDatamodelFactory() {
+		this(new MetricsImpl());
+	}
+
+
+	/**
+	 * Constructor with injected dependency of Metrics component.
+	 *
+	 * @param metrics injected dependency of Metrics component that counts lookups.
+	 */
+	ConcurrentDatamodelFactory(Metrics metrics) {
+		this.customerLookups = metrics.counter("factory.find.customer");
+		this.articleLookups = metrics.counter("factory.find.article");
+		this.orderLookups = metrics.counter("factory.find.order");
+	}
+
+
+	@Override
+	public Customer createCustomer() { return add(new Customer(), customers, unindexedCustomers); }
+
+	@Override
+	public Customer createCustomer(String name) { return add(new Customer(name), customers, unindexedCustomers); }
+
+	@Override
+	public Article createArticle() { return add(new Article(), articles, unindexedArticles); }
+
+	@Override
+	public Article createArticle(String description, long unitPrice) {
+		return add(new Article(description, unitPrice), articles, unindexedArticles);
+	}
+
+	@Override
+	public Order createOrder(Customer customer) {
+		final Order order = add(new Order(customer).setItemsListener(articleIndexer), orders, unindexedOrders);
+		if(customer != null) {
+			ordersByCustomer.computeIfAbsent(customer, c -> new CopyOnWriteArrayList<Order>()).add(order);
+		}
+		return order;
+	}
+
+	@Override
+	public List<Customer> getCustomers() { return customers; }
+
+	@Override
+	public List<Article> getArticles() { return articles; }
+
+	@Override
+	public List<Order> getOrders() { return orders; }
+
+	@Override
+	public int customersCount() { return customers.size(); }
+
+	@Override
+	public int articlesCount() { return articles.size(); }
+
+	@Override
+	public int ordersCount() { return orders.size(); }
+
+	@Override
+	public Optional<Customer> findCustomerById(long id) {
+		customerLookups.increment();
+		Customer c = customerIndex.get(id);
+		if(c == null) {
+			if(unindexedCustomers.isEmpty()) {
+				c = customerIndex.get(id);	// objects leave the queue once indexed
+			} else {
+				synchronized(unindexedCustomers) {
+					drain(unindexedCustomers, passedCustomers, this::indexCustomer, this::reindexCustomer);
+					c = customerIndex.get(id);
+				}
+			}
+		}
+		return Optional.ofNullable(c);
+	}
+
+	@Override
+	public Optional<Article> findArticleById(String id) {
+		final long key = ArticleIdCodec.encode(id);
+		if(key != ArticleIdCodec.IRREGULAR)
+			return findArticleByKey(key);
+		articleLookups.increment();
+		if(id == null)
+			return Optional.empty();
+		Article a = articleIndex.get(id);
+		if(a == null) {
+			if(unindexedArticles.isEmpty()) {
+				a = articleIndex.get(id);	// objects leave the queue once indexed
+			} else {
+				synchronized(unindexedArticles) {
+					drain(unindexedArticles, passedArticles, this::indexArticle, this::reindexArticle);
+					a = articleIndex.get(id);
+				}
+			}
+		}
+		return Optional.ofNullable(a);
+	}
+
+	@Override
+	public Optional<Article> findArticleByKey(long key) {
+		articleLookups.increment();
+		Article a = articleKeyIndex.get(key);
+		if(a == null) {
+			if(unindexedArticles.isEmpty()) {
+				a = articleKeyIndex.get(key);	// objects leave the queue once indexed
+			} else {
+				synchronized(unindexedArticles) {
+					drain(unindexedArticles, passedArticles, this::indexArticle, this::reindexArticle);
+					a = articleKeyIndex.get(key);
+				}
+			}
+		}
+		return Optional.ofNullable(a);
+	}
+
+	@Override
+	public Optional<Order> findOrderById(String id) {
+		orderLookups.increment();
+		return id != null ? find(id, orderIndex, unindexedOrders, passedOrders, this::indexOrder, this::reindexOrder) : Optional.empty();
+	}
+
+
+	@Override
+	public List<Order> findOrdersByCustomer(long customerId) {
+		return findCustomerById(customerId)
+			.map(c -> ordersByCustomer.get(c))
+			.map(orders -> Collections.unmodifiableList(orders))
+			.orElse(Collections.emptyList());
+	}
+
+	@Override
+	public Collection<Order> findOrdersByArticle(String articleId) {
+		return findArticleById(articleId)
+			.map(a -> ordersByArticle.get(a))
+			.map(orders -> Collections.unmodifiableSet(orders.keySet()))
+			.orElse(Collections.emptySet());
+	}
+
+	@Override
+	public OrderBook createOrderBook() {
+		return new ColumnarOrderBook(articles, orders);
+	}
+
+
+	/**
+	 * Append new object to store and queue it for indexing.
+	 *
+	 * @param <T> generic type of object.
+	 * @param t new object.
+	 * @param store store of objects.
+	 * @param unindexed queue of objects not yet indexed.
+	 * @return new object (same t).
+	 */
+	private static <T> T add(T t, AppendOnlyList<T> store, Queue<T> unindexed) {
+		store.append(t);
+		unindexed.offer(t);
+		return t;
+	}
+
+
+	/**
+	 * Look up object in index. On a miss, objects that have been assigned
+	 * an id since they were created are moved into the index under the lock
+	 * of the unindexed queue before the index is looked up again. A miss with
+	 * an empty queue returns without locking.
+	 *
+	 * @param <K> generic type of id key.
+	 * @param <T> generic type of indexed object.
+	 * @param id id to look up, not null.
+	 * @param index index to look up.
+	 * @param unindexed objects not yet indexed, drained by objects with ids.
+	 * @param passed queued objects that had no id when the queue was last drained.
+	 * @param indexer adds object by its id to index unless id is indexed, returns false for unassigned id.
+	 * @param reindexer adds passed object by its id to index, returns false for unassigned id.
+	 * @return Optional with found object or empty Optional.
+	 */
+	private static <K, T> Optional<T> find(K id, Map<K, T> index, Queue<T> unindexed, Set<T> passed,
+			Predicate<T> indexer, Predicate<T> reindexer) {
+		T t = index.get(id);
+		if(t == null) {
+			if(unindexed.isEmpty()) {
+				t = index.get(id);	// objects leave the queue once indexed
+			} else {
+				synchronized(unindexed) {
+					drain(unindexed, passed, indexer, reindexer);
+					t = index.get(id);
+				}
+			}
+		}
+		return Optional.ofNullable(t);
+	}
+
+
+	/**
+	 * Move objects that have been assigned an id since they were created from
+	 * the unindexed queue into the index, must be called under the lock of
+	 * the queue. Objects stay queued until they are indexed such that a lookup
+	 * that finds the queue empty never misses an object being indexed. Passed
+	 * objects are at the head of the queue, they are indexed before objects
+	 * that were queued after them and replace objects indexed by earlier
+	 * drains that were created after them.
+	 *
+	 * @param <T> generic type of indexed object.
+	 * @param unindexed objects not yet indexed, drained by objects with ids.
+	 * @param passed queued objects that had no id when the queue was last drained.
+	 * @param index adds object by its id to index unless id is indexed, returns false for unassigned id.
+	 * @param reindex adds passed object by its id to index, returns false for unassigned id.
+	 */
+	private static <T> void drain(Queue<T> unindexed, Set<T> passed, Predicate<T> index, Predicate<T> reindex) {
+		for(Iterator<T> it = unindexed.iterator(); it.hasNext(); ) {
+			final T t = it.next();
+			if(passed.contains(t) ? reindex.test(t) : index.test(t)) {
+				passed.remove(t);
+				it.remove();
+			} else {
+				passed.add(t);
+			}
+		}
+	}
+
+
+	/**
+	 * Add customer to index by its primitive id unless it has no id. Called
+	 * under the lock of the unindexed customers queue.
+	 *
+	 * @param customer customer to index.
+	 * @return true when customer has an id.
+	 */
+	private boolean indexCustomer(Customer customer) {
+		final long id = customer.getIdAsLong();
+		if(id < 0)
+			return false;
+		customerIndex.putIfAbsent(id, customer);
+		return true;
+	}
+
+
+	/**
+	 * Add customer that had no id when the queue was last drained to index
+	 * unless it still has no id, replaces a later created customer with the
+	 * same id. Called under the lock of the unindexed customers queue.
+	 *
+	 * @param customer customer to index.
+	 * @return true when customer has an id.
+	 */
+	private boolean reindexCustomer(Customer customer) {
+		final long id = customer.getIdAsLong();
+		if(id < 0)
+			return false;
+		customerIndex.put(id, DatamodelFactoryImpl.first(customers, customerIndex.get(id), customer));
+		return true;
+	}
+
+
+	/**
+	 * Add article to key index when its id is regular, otherwise to string
+	 * index, unless it has no id. Called under the lock of the unindexed
+	 * articles queue.
+	 *
+	 * @param article article to index.
+	 * @return true when article has an id.
+	 */
+	private boolean indexArticle(Article article) {
+		final String id = article.getId();
+		if(id == null)
+			return false;
+		final long key = ArticleIdCodec.encode(id);
+		if(key != ArticleIdCodec.IRREGULAR) {
+			articleKeyIndex.putIfAbsent(key, article);
+		} else {
+			articleIndex.putIfAbsent(id, article);
+		}
+		return true;
+	}
+
+
+	/**
+	 * Add article that had no id when the queue was last drained to index
+	 * unless it still has no id, replaces a later created article with the
+	 * same id. Called under the lock of the unindexed articles queue.
+	 *
+	 * @param article article to index.
+	 * @return true when article has an id.
+	 */
+	private boolean reindexArticle(Article article) {
+		final String id = article.getId();
+		if(id == null)
+			return false;
+		final long key = ArticleIdCodec.encode(id);
+		if(key != ArticleIdCodec.IRREGULAR) {
+			articleKeyIndex.put(key, DatamodelFactoryImpl.first(articles, articleKeyIndex.get(key), article));
+		} else {
+			articleIndex.put(id, DatamodelFactoryImpl.first(articles, articleIndex.get(id), article));
+		}
+		return true;
+	}
+
+
+	/**
+	 * Add order to index unless it has no id. Called under the lock of the
+	 * unindexed orders queue.
+	 *
+	 * @param order order to index.
+	 * @return true when order has an id.
+	 */
+	private boolean indexOrder(Order order) {
+		final String id = order.getId();
+		if(id == null)
+			return false;
+		orderIndex.putIfAbsent(id, order);
+		return true;
+	}
+
+
+	/**
+	 * Add order that had no id when the queue was last drained to index
+	 * unless it still has no id, replaces a later created order with the
+	 * same id. Called under the lock of the unindexed orders queue.
+	 *
+	 * @param order order to index.
+	 * @return true when order has an id.
+	 */
+	private boolean reindexOrder(Order order) {
+		final String id = order.getId();
+		if(id == null)
+			return false;
+		orderIndex.put(id, DatamodelFactoryImpl.first(orders, orderIndex.get(id), order));
+		return true;
+	}
+
+
+	/**
+	 * Read-only list to which elements are appended without locks from many
+	 * threads. Elements are stored in chunks of doubling size such that
+	 * appending never copies and {@link #get(int)} is O(1). An index is
+	 * reserved before the element is stored into its slot, a reader of a
+	 * reserved slot waits for the element that is stored next. When storing
+	 * fails, e.g. when a chunk cannot be allocated, the slot is marked failed
+	 * and readers of the slot stop waiting with an exception.
+	 * <p>
+	 * Iterators are weakly consistent: they never throw
+	 * {@link java.util.ConcurrentModificationException} and see elements
+	 * appended during iteration until {@code hasNext()} returns false.
+	 * </p>
+	 *
+	 * @param <T> generic type of elements.
+	 */
+	static final class AppendOnlyList<T> extends AbstractList<T> implements RandomAccess {
+
+		/**
+		 * First chunk has {@code 2^FIRST_BITS} slots, chunk k has {@code 2^(FIRST_BITS + k)}.
+		 */
+		private static final int FIRST_BITS = 10;
+		private static final int FIRST = 1 << FIRST_BITS;
+		private static final int MAX_SIZE = Integer.MAX_VALUE - FIRST;
+
+		/**
+		 * Chunks created with their first element.
+		 */
+		private final AtomicReferenceArray<AtomicReferenceArray<T>> chunks =
+				new AtomicReferenceArray<AtomicReferenceArray<T>>(32 - FIRST_BITS);
+
+		/**
+		 * Number of reserved slots.
+		 */
+		private final AtomicInteger reserved = new AtomicInteger();
+
+		/**
+		 * Reserved slots into which no element was stored because append failed.
+		 */
+		private final Set<Integer> failed = ConcurrentHashMap.newKeySet();
+
+		/**
+		 * Append element.
+		 *
+		 * @param t element to append.
+		 * @throws IllegalArgumentException when t is null.
+		 * @throws IllegalStateException when list is full.
+		 */
+		void append(T t) {
+			if(t == null)
+				throw new IllegalArgumentException("null element.");
+			final int i = reserved.getAndIncrement();
+			if(i >= MAX_SIZE || i < 0) {
+				reserved.set(MAX_SIZE);
+				throw new IllegalStateException("list is full.");
+			}
+			final int j = i + FIRST;
+			final int hb = 31 - Integer.numberOfLeadingZeros(j);
+			try {
+				chunk(hb - FIRST_BITS, true).set(j - (1 << hb), t);
+			//
+			} catch(RuntimeException | Error e) {
+				failed.add(i);		// readers of the slot stop waiting
+				throw e;
+			}
+		}
+
+		/**
+		 * Return element, wait while its slot is reserved and the element is
+		 * being stored.
+		 *
+		 * @param i index of element.
+		 * @return element at index.
+		 * @throws IndexOutOfBoundsException when index is out of range.
+		 * @throws IllegalStateException when append of the element failed.
+		 */
+		@Override
+		public T get(int i) {
+			if(i < 0 || i >= size())
+				throw new IndexOutOfBoundsException(i);
+			final int j = i + FIRST;
+			final int hb = 31 - Integer.numberOfLeadingZeros(j);
+			AtomicReferenceArray<T> chunk;
+			while((chunk = chunk(hb - FIRST_BITS, false)) == null) {
+				awaitStore(i);		// slot is reserved, chunk is being created
+			}
+			T t;
+			while((t = chunk.get(j - (1 << hb))) == null) {
+				awaitStore(i);		// slot is reserved, element is being stored
+			}
+			return t;
+		}
+
+		@Override
+		public int size() {
+			return Math.min(reserved.get(), MAX_SIZE);
+		}
+
+		/**
+		 * Spin while element of reserved slot is being stored.
+		 *
+		 * @param i index of reserved slot.
+		 * @throws IllegalStateException when append of the element failed.
+		 */
+		private void awaitStore(int i) {
+			if( ! failed.isEmpty() && failed.contains(i))
+				throw new IllegalStateException("append of element " + i + " failed.");
+			Thread.onSpinWait();
+		}
+
+		/**
+		 * Return chunk, optionally create it when it does not exist.
+		 *
+		 * @param k chunk number.
+		 * @param create create chunk when true.
+		 * @return chunk or null when not created.
+		 */
+		private AtomicReferenceArray<T> chunk(int k, boolean create) {
+			AtomicReferenceArray<T> chunk = chunks.get(k);
+			if(chunk == null && create) {
+				chunk = new AtomicReferenceArray<T>(FIRST << k);
+				if( ! chunks.compareAndSet(k, null, chunk)) {
+					chunk = chunks.get(k);
+				}
+			}
+			return chunk;
+		}
+	}
+}
@@ -0,0 +1,380 @@
+package system.impl;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Properties;
+import java.util.Random;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+
+
+/**
+ * Generator of synthetic customers.json, articles.json and orders.json files
+ * in the schema read by {@link OrderBuilderJSONImpl} for load and render tests
+ * at scale. Records are streamed to the files one at a time, memory use only
+ * depends on the number of articles, not on the number of records written.
+ * <p>
+ * Generation is configured by properties (defaults in brackets):
+ * <pre>
+ * gen.path      = data/generated   directory to write files to
+ * gen.customers = 1000             number of valid customers
+ * gen.articles  = 100              number of valid articles
+ * gen.orders    = 10000            number of valid orders
+ * gen.items     = 5                maximum items per order (at least 1)
+ * gen.zipf      = 1.0              Zipf exponent of article popularity, 0 is uniform
+ * gen.reduced   = 0.2              share of articles with reduced tax rate
+ * gen.invalid   = 0.0              rate of invalid records inserted before valid records
+ * gen.seed      = 42               seed, same seed and properties produce same files
+ * </pre>
+ * Invalid records are inserted in addition to valid records such that all
+ * orders still reference existing customers and articles. They have fields
+ * of wrong type (e.g. text in a number field), which the builder skips, or
+ * are rejected by the builder (e.g. missing name, negative price, unknown
+ * customer). Orders with units of wrong type are loaded without items.
+ * </p>
+ * Command line with properties as {@code key=value} arguments:
+ * <pre>
+ * java system.impl.DataGeneratorJSON gen.orders=10000000 gen.invalid=0.001
+ * </pre>
+ *
+ * @version <code style=color:green>{@value application.package_info#Version}</code>
+ * @author <code style=color:blue>{@value application.package_info#Author}</code>
+ */
+
+class DataGeneratorJSON {
+
+	/**
+	 * Number of valid customers, articles and orders to generate.
+	 */
+	private final int customers;
+	private final int articles;
+	private final long orders;
+
+	/**
+	 * Maximum number of items per order.
+	 */
+	private final int maxItems;
+
+	/**
+	 * Zipf exponent of article popularity.
+	 */
+	private final double zipf;
+
+	/**
+	 * Share of articles with reduced tax rate.
+	 */
+	private final double reducedShare;
+
+	/**
+	 * Rate of invalid records inserted before valid records.
+	 */
+	private final double invalidRate;
+
+	/**
+	 * Seed of random generator.
+	 */
+	private final long seed;
+
+	/**
+	 * Id bases of generated customers, articles and orders.
+	 */
+	private static final long CUSTOMER_ID_BASE = 100_000L;
+	private static final long ARTICLE_ID_BASE = 100_000L;
+	private static final long ORDER_ID_BASE = 1_000_000_000L;
+
+	/**
+	 * Pools from which names and descriptions are composed.
+	 */
+	private static final String[] firstNames = {
+		"Eric", "Anne", "Tim", "Nadine", "Khaled", "Lena", "Jonas", "Mia", "Paul", "Sofia",
+		"Lukas", "Emma", "Leon", "Hannah", "Felix", "Lea", "Max", "Marie", "Ali", "Zeynep"
+	};
+	private static final String[] lastNames = {
+		"Meyer", "Bayer", "Schulz-Mueller", "Blumenfeld", "Abdelalim", "Neumann", "Schmidt",
+		"Fischer", "Weber", "Wagner", "Becker", "Hoffmann", "Koch", "Richter", "Klein", "Wolf"
+	};
+	private static final String[] nouns = {
+		"Tasse", "Becher", "Kanne", "Teller", "Buch", "Pfanne", "Topf", "Messer", "Gabel",
+		"Loeffel", "Schuessel", "Glas", "Krug", "Brett", "Sieb", "Schale"
+	};
+
+	/**
+	 * Shared encoder that escapes strings for JSON.
+	 */
+	private static final JsonStringEncoder encoder = JsonStringEncoder.getInstance();
+
+
+	/**
+	 * Constructor with generation properties, missing properties use defaults.
+	 *
+	 * @param props generation properties with keys "gen.*".
+	 * @throws IllegalArgumentException when a property value is not valid.
+	 */
+	DataGeneratorJSON(Properties props) {
+		this.customers = (int)property(props, "gen.customers", "1000", 1, Integer.MAX_VALUE);
+		this.articles = (int)property(props, "gen.articles", "100", 1, Integer.MAX_VALUE);
+		this.orders = property(props, "gen.orders", "10000", 0, Long.MAX_VALUE);
+		this.maxItems = (int)property(props, "gen.items", "5", 1, 1000);
+		this.zipf = share(props, "gen.zipf", "1.0", 100.0);
+		this.reducedShare = share(props, "gen.reduced", "0.2", 1.0);
+		this.invalidRate = share(props, "gen.invalid", "0.0", 1.0);
+		this.seed = property(props, "gen.seed", "42", Long.MIN_VALUE, Long.MAX_VALUE);
+	}
+
+
+	/**
+	 * Generate customers.json, articles.json and orders.json into a directory,
+	 * which is created when it does not exist.
+	 *
+	 * @param dir directory to write files to.
+	 * @return chainable self-reference.
+	 * @throws IOException when files cannot be written.
+	 */
+	DataGeneratorJSON generate(Path dir) throws IOException {
+		final Random rand = new Random(seed);
+		Files.createDirectories(dir);
+		try(Writer w = Files.newBufferedWriter(dir.resolve("customers.json"), StandardCharsets.UTF_8)) {
+			writeCustomers(w, rand);
+		}
+		try(Writer w = Files.newBufferedWriter(dir.resolve("articles.json"), StandardCharsets.UTF_8)) {
+			writeArticles(w, rand);
+		}
+		try(Writer w = Files.newBufferedWriter(dir.resolve("orders.json"), StandardCharsets.UTF_8)) {
+			writeOrders(w, rand);
+		}
+		return this;
+	}
+
+
+	/**
+	 * Write customers as JSON array:
+	 * {@code {"id": 100000, "name": "Eric Meyer", "contacts": ["eric.meyer0@example.com"] }}.
+	 *
+	 * @param w writer to write to.
+	 * @param rand random generator.
+	 * @throws IOException when writing fails.
+	 */
+	private void writeCustomers(Writer w, Random rand) throws IOException {
+		final StringBuilder sb = new StringBuilder();
+		String sep = "[\n";
+		for(int i=0; i < customers; i++) {
+			sb.setLength(0);
+			if(rand.nextDouble() < invalidRate) {
+				sb.append(rand.nextBoolean()?
+					"  {\"id\": \"C-" + i + "\", \"name\": \"Unknown\", \"contacts\": [] }" :	// no numeric id
+					"  {\"id\": -1, \"contacts\": [\"nobody@example.com\"] }");	// no name
+				w.append(sep).append(sb);
+				sep = ",\n";
+				sb.setLength(0);
+			}
+			String first = firstNames[rand.nextInt(firstNames.length)];
+			String last = lastNames[rand.nextInt(lastNames.length)];
+			sb.append("  {\"id\": ").append(CUSTOMER_ID_BASE + i).append(", \"name\": \"");
+			if(rand.nextInt(4)==0) {
+				sb.append(last).append(", ").append(first);
+			} else {
+				sb.append(first).append(' ').append(last);
+			}
+			sb.append("\", \"contacts\": [\"").append(first.toLowerCase()).append('.')
+				.append(last.toLowerCase()).append(i).append("@example.com\"");
+			if(rand.nextInt(3)==0) {
+				sb.append(", \"(030) ").append(1000 + rand.nextInt(9000)).append('-').append(rand.nextInt(1_000_000)).append('"');
+			}
+			sb.append("] }");
+			w.append(sep).append(sb);
+			sep = ",\n";
+		}
+		w.append(sep.equals(",\n")? "\n]\n" : "[\n]\n");
+	}
+
+
+	/**
+	 * Write articles as JSON array:
+	 * {@code {"id": "SKU-100000", "description": "Tasse 0", "price": 299, "tax": "reduced" }}.
+	 *
+	 * @param w writer to write to.
+	 * @param rand random generator.
+	 * @throws IOException when writing fails.
+	 */
+	private void writeArticles(Writer w, Random rand) throws IOException {
+		final StringBuilder sb = new StringBuilder();
+		String sep = "[\n";
+		for(int i=0; i < articles; i++) {
+			sb.setLength(0);
+			if(rand.nextDouble() < invalidRate) {
+				switch(rand.nextInt(3)) {
+				case 0: sb.append("  {\"id\": \"SKU-X").append(i).append("\", \"description\": \"Defekt\", \"price\": \"n/a\" }"); break;	// no numeric price
+				case 1: sb.append("  {\"id\": \"\", \"description\": \"Ohne ID\", \"price\": 100 }"); break;	// no id
+				default: sb.append("  {\"id\": \"SKU-X").append(i).append("\", \"description\": \"Negativ\", \"price\": -1 }");	// negative price
+				}
+				w.append(sep).append(sb);
+				sep = ",\n";
+				sb.setLength(0);
+			}
+			sb.append("  {\"id\": \"SKU-").append(ARTICLE_ID_BASE + i).append("\", \"description\": \"");
+			encoder.quoteAsString(nouns[rand.nextInt(nouns.length)] + (rand.nextInt(8)==0? " \"" + i + "\"" : " " + i), sb);
+			sb.append("\", \"price\": ").append(99 + rand.nextInt(19_901));
+			sb.append(rand.nextDouble() < reducedShare? ", \"tax\": \"reduced\" }" : " }");
+			w.append(sep).append(sb);
+			sep = ",\n";
+		}
+		w.append(sep.equals(",\n")? "\n]\n" : "[\n]\n");
+	}
+
+
+	/**
+	 * Write orders as JSON array with articles chosen by Zipf-distributed
+	 * popularity: {@code {"id": 1000000000, "customer_id": 100000, "items": [
+	 * {"article_id": "SKU-100000", "units": 4 } ]}}. Invalid orders have
+	 * unique ids that follow the ids of valid orders.
+	 *
+	 * @param w writer to write to.
+	 * @param rand random generator.
+	 * @throws IOException when writing fails.
+	 */
+	private void writeOrders(Writer w, Random rand) throws IOException {
+		final double[] popularity = zipfDistribution(articles, zipf);
+		final StringBuilder sb = new StringBuilder();
+		long invalidId = ORDER_ID_BASE + orders;	// invalid orders have ids after valid orders
+		String sep = "[\n";
+		for(long i=0; i < orders; i++) {
+			sb.setLength(0);
+			if(rand.nextDouble() < invalidRate) {
+				switch(rand.nextInt(3)) {
+				case 0: sb.append("  {\"id\": ").append(invalidId++).append(", \"customer_id\": ").append(CUSTOMER_ID_BASE)
+							.append(", \"items\": [\n\t{\"article_id\": \"SKU-").append(ARTICLE_ID_BASE).append("\", \"units\": \"many\" }\n  ]}"); break;	// item skipped, no items
+				case 1: sb.append("  {\"id\": ").append(invalidId++).append(", \"customer_id\": -1, \"items\": [\n\t{\"article_id\": \"SKU-")
+							.append(ARTICLE_ID_BASE).append("\", \"units\": 1 }\n  ]}"); break;	// unknown customer
+				default: sb.append("  {\"id\": ").append(invalidId++).append(", \"customer_id\": ").append(CUSTOMER_ID_BASE)
+							.append(", \"items\": [\n  ]}");	// no items
+				}
+				w.append(sep).append(sb);
+				sep = ",\n\n";
+				sb.setLength(0);
+			}
+			sb.append("  {\"id\": ").append(ORDER_ID_BASE + i)
+				.append(", \"customer_id\": ").append(CUSTOMER_ID_BASE + rand.nextInt(customers))
+				.append(", \"items\": [");
+			for(int j=1 + rand.nextInt(maxItems), k=0; k < j; k++) {
+				sb.append(k==0? "\n" : ",\n").append("\t{\"article_id\": \"SKU-")
+					.append(ARTICLE_ID_BASE + sample(popularity, rand))
+					.append("\", \"units\": ").append(1 + rand.nextInt(12)).append(" }");
+			}
+			sb.append("\n  ]}");
+			w.append(sep).append(sb);
+			sep = ",\n\n";
+		}
+		w.append(sep.equals(",\n\n")? "\n]\n" : "[\n]\n");
+	}
+
+
+	/**
+	 * Cumulative Zipf distribution over ranks {@code 0 .. n-1} with
+	 * probability of rank k proportional to {@code 1 / (k+1)^s}.
+	 *
+	 * @param n number of ranks.
+	 * @param s Zipf exponent, 0 is uniform distribution.
+	 * @return cumulative probabilities of ranks, last is 1.0.
+	 */
+	private static double[] zipfDistribution(int n, double s) {
+		final double[] cdf = new double[n];
+		double sum = 0.0;
+		for(int k=0; k < n; k++) {
+			cdf[k] = sum += 1.0 / Math.pow(k + 1, s);
+		}
+		for(int k=0; k < n; k++) {
+			cdf[k] /= sum;
+		}
+		cdf[n - 1] = 1.0;
+		return cdf;
+	}
+
+
+	/**
+	 * Sample rank from cumulative distribution.
+	 *
+	 * @param cdf cumulative probabilities of ranks.
+	 * @param rand random generator.
+	 * @return sampled rank.
+	 */
+	private static int sample(double[] cdf, Random rand) {
+		int i = Arrays.binarySearch(cdf, rand.nextDouble());
+		return Math.min(i < 0? -i - 1 : i, cdf.length - 1);
+	}
+
+
+	/**
+	 * Look up integral property in range.
+	 *
+	 * @param props properties to look up.
+	 * @param key key of property.
+	 * @param defaultValue value used when property is not set.
+	 * @param min minimum value.
+	 * @param max maximum value.
+	 * @return property value.
+	 * @throws IllegalArgumentException when value is not a number or not in range.
+	 */
+	private static long property(Properties props, String key, String defaultValue, long min, long max) {
+		String value = props.getProperty(key, defaultValue).trim();
+		long v;
+		try {
+			v = Long.parseLong(value.replace("_", ""));
+		//
+		} catch(NumberFormatException e) {
+			throw new IllegalArgumentException(String.format("invalid property: %s = %s, not a number", key, value), e);
+		}
+		if(v < min || v > max)
+			throw new IllegalArgumentException(String.format("invalid property: %s = %s, not in range [%d, %d]", key, value, min, max));
+		return v;
+	}
+
+
+	/**
+	 * Look up non-negative decimal property.
+	 *
+	 * @param props properties to look up.
+	 * @param key key of property.
+	 * @param defaultValue value used when property is not set.
+	 * @param max maximum value.
+	 * @return property value.
+	 * @throws IllegalArgumentException when value is not a number or not in range.
+	 */
+	private static double share(Properties props, String key, String defaultValue, double max) {
+		String value = props.getProperty(key, defaultValue).trim();
+		double v;
+		try {
+			v = Double.parseDouble(value);
+		//
+		} catch(NumberFormatException e) {
+			throw new IllegalArgumentException(String.format("invalid property: %s = %s, not a number", key, value), e);
+		}
+		if( ! (v >= 0.0 && v <= max))	// also rejects NaN
+			throw new IllegalArgumentException(String.format("invalid property: %s = %s, not in range [0, %s]", key, value, max));
+		return v;
+	}
+
+
+	/**
+	 * Generate files with properties passed as {@code key=value} arguments.
+	 *
+	 * @param args generation properties, e.g. {@code gen.orders=1000000}.
+	 * @throws IOException when files cannot be written.
+	 */
+	public static void main(String[] args) throws IOException {
+		final Properties props = new Properties();
+		for(String arg : args) {
+			int i = arg.indexOf('=');
+			if(i <= 0)
+				throw new IllegalArgumentException("argument not key=value: " + arg);
+			props.setProperty(arg.substring(0, i).trim(), arg.substring(i + 1).trim());
+		}
+		Path dir = Path.of(props.getProperty("gen.path", "data/generated"));
+		long start = System.nanoTime();
+		new DataGeneratorJSON(props).generate(dir);
+		System.out.println(String.format("generated %s in %d ms", dir, (System.nanoTime() - start) / 1_000_000));
+	}
+}
@@ -1,11 +1,15 @@
 package system.impl;
 
 import java.util.*;
+import java.util.function.Predicate;
 
 import datamodel.Customer;
 import datamodel.Article;
 import datamodel.Order;
+import datamodel.OrderItem;
 import system.DatamodelFactory;
+import system.Metrics;
+import system.OrderBook;
 
 /**
  * Factory that creates instances of objects of the {@link datamodel} package.
@@ -23,6 +27,100 @@ class DatamodelFactoryImpl implements DatamodelFactory {
 	private final List<Article> articles = new ArrayList<Article>();
 	private final List<Order> orders = new ArrayList<Order>();
 
+	/**
+	 * Primary-key indexes of Customer, Article and Order objects by their ids.
+	 * Customers are indexed by their primitive id without boxing. Articles
+	 * with regular ids are indexed by their {@link ArticleIdCodec} key,
+	 * articles with irregular ids by their id string.
+	 */
+	private final LongHashMap<Customer> customerIndex = new LongHashMap<Customer>();
+	private final LongHashMap<Article> articleKeyIndex = new LongHashMap<Article>();
+	private final Map<String, Article> articleIndex = new HashMap<String, Article>();
+	private final Map<String, Order> orderIndex = new HashMap<String, Order>();
+
+	/**
+	 * Objects added since the last lookup (ids are assigned after creation by
+	 * chained setId(...) calls), indexed with the next lookup.
+	 */
+	private final List<Customer> unindexedCustomers = new ArrayList<Customer>();
+	private final List<Article> unindexedArticles = new ArrayList<Article>();
+	private final List<Order> unindexedOrders = new ArrayList<Order>();
+
+	/**
+	 * Objects that had no id when they were last scanned, rescanned only when
+	 * more ids were assigned since the last lookup than objects were indexed
+	 * such that lookups do not rescan them while their ids are unassigned.
+	 */
+	private final List<Customer> idlessCustomers = new ArrayList<Customer>();
+	private final List<Article> idlessArticles = new ArrayList<Article>();
+	private final List<Order> idlessOrders = new ArrayList<Order>();
+
+	/**
+	 * Number of ids assigned to Customer, Article and Order objects at the
+	 * last lookup, see {@link Customer#idsAssigned()}.
+	 */
+	private long customerIds = 0L;
+	private long articleIds = 0L;
+	private long orderIds = 0L;
+
+	/**
+	 * Secondary index of orders by owning customer, maintained by createOrder().
+	 * Keyed by identity since customer ids may be assigned after orders are created.
+	 */
+	private final Map<Customer, List<Order>> ordersByCustomer = new IdentityHashMap<Customer, List<Order>>();
+
+	/**
+	 * Inverted index of orders by ordered article with the number of items of
+	 * the article in each order, maintained by the items listener that is set
+	 * on orders created by this factory.
+	 */
+	private final Map<Article, Map<Order, Integer>> ordersByArticle = new IdentityHashMap<Article, Map<Order, Integer>>();
+
+	private final Order.ItemsListener articleIndexer = new Order.ItemsListener() {
+		@Override
+		public void itemAdded(Order order, OrderItem item) {
+			if(item.getArticle() != null) {
+				ordersByArticle.computeIfAbsent(item.getArticle(), a -> new LinkedHashMap<Order, Integer>())
+					.merge(order, 1, Integer::sum);
+			}
+		}
+
+		@Override
+		public void itemDeleted(Order order, OrderItem item) {
+			Map<Order, Integer> orders = ordersByArticle.get(item.getArticle());
+			if(orders != null) {
+				orders.computeIfPresent(order, (o, n) -> n > 1 ? n - 1 : null);
+			}
+		}
+	};
+
+	/**
+	 * Counters of lookups by id.
+	 */
+	private final Metrics.Counter customerLookups;
+	private final Metrics.Counter articleLookups;
+	private final Metrics.Counter orderLookups;
+
+
+	/**
+	 * Default constructor, lookups are counted in a private Metrics instance.
+	 */
+	DatamodelFactoryImpl() {
+		this(new MetricsImpl());
+	}
+
+
+	/**
+	 * Constructor with injected dependency of Metrics component.
+	 * 
+	 * @param metrics injected dependency of Metrics component that counts lookups.
+	 */
+	DatamodelFactoryImpl(Metrics metrics) {
+		this.customerLookups = metrics.counter("factory.find.customer");
+		this.articleLookups = metrics.counter("factory.find.article");
+		this.orderLookups = metrics.counter("factory.find.order");
+	}
+
 
 	/**
 	 * Customer factory method using default constructor.
@@ -73,7 +171,7 @@ class DatamodelFactoryImpl implements DatamodelFactory {
 	 * @throws IllegalArgumentException when customer argument is null or has invalid id.
 	 */
 	@Override
-	public Order createOrder(Customer customer) { return add(new Order(customer)); }
+	public Order createOrder(Customer customer) { return add(new Order(customer).setItemsListener(articleIndexer)); }
 
 
 	/**
@@ -129,9 +227,11 @@ class DatamodelFactoryImpl implements DatamodelFactory {
 	 */
 	@Override
 	public Optional<Customer> findCustomerById(long id) {
-		return customers.stream()
-			.filter(c -> c.getId()==id)
-			.findFirst();
+		customerLookups.increment();
+		final long assigned = Customer.idsAssigned();
+		index(unindexedCustomers, idlessCustomers, assigned - customerIds, this::indexCustomer, this::reindexCustomer);
+		customerIds = assigned;
+		return Optional.ofNullable(customerIndex.get(id));
 	}
 
 
@@ -143,9 +243,28 @@ class DatamodelFactoryImpl implements DatamodelFactory {
 	 */
 	@Override
 	public Optional<Article> findArticleById(String id) {
-		return articles.stream()
-			.filter(a -> a.getId().equals(id))
-			.findFirst();
+		final long key = ArticleIdCodec.encode(id);
+		if(key != ArticleIdCodec.IRREGULAR)
+			return findArticleByKey(key);
+		articleLookups.increment();
+		if(id == null)
+			return Optional.empty();
+		indexArticles();
+		return Optional.ofNullable(articleIndex.get(id));
+	}
+
+
+	/**
+	 * Find a created Article object by the key of its regular id.
+	 * 
+	 * @param key article id key obtained from {@link ArticleIdCodec#encode(String)}.
+	 * @return Optional with found object or empty Optional.
+	 */
+	@Override
+	public Optional<Article> findArticleByKey(long key) {
+		articleLookups.increment();
+		indexArticles();
+		return Optional.ofNullable(articleKeyIndex.get(key));
 	}
 
 
@@ -157,9 +276,58 @@ class DatamodelFactoryImpl implements DatamodelFactory {
 	 */
 	@Override
 	public Optional<Order> findOrderById(String id) {
-		return orders.stream()
-			.filter(o -> o.getId().equals(id))
-			.findFirst();
+		orderLookups.increment();
+		if(id == null)
+			return Optional.empty();
+		final long assigned = Order.idsAssigned();
+		index(unindexedOrders, idlessOrders, assigned - orderIds, this::indexOrder, this::reindexOrder);
+		orderIds = assigned;
+		return Optional.ofNullable(orderIndex.get(id));
+	}
+
+
+	/**
+	 * Find orders of a customer in order of creation. Cost is proportional
+	 * to the number of orders of the customer.
+	 * 
+	 * @param customerId id of customer.
+	 * @return read-only list of orders of customer, empty when customer was not found.
+	 */
+	@Override
+	public List<Order> findOrdersByCustomer(long customerId) {
+		return findCustomerById(customerId)
+			.map(c -> ordersByCustomer.get(c))
+			.map(orders -> Collections.unmodifiableList(orders))
+			.orElse(Collections.emptyList());
+	}
+
+
+	/**
+	 * Find orders that have items of an article in order of creation. Cost is
+	 * proportional to the number of orders of the article. The index is
+	 * updated when items are added to or deleted from orders.
+	 * 
+	 * @param articleId id of article.
+	 * @return read-only view of orders with the article, empty when article was not found.
+	 */
+	@Override
+	public Collection<Order> findOrdersByArticle(String articleId) {
+		return findArticleById(articleId)
+			.map(a -> ordersByArticle.get(a))
+			.map(orders -> Collections.unmodifiableSet(orders.keySet()))
+			.orElse(Collections.emptySet());
+	}
+
+
+	/**
+	 * Create columnar snapshot of all orders for analytics, articles are
+	 * indexed in order of creation.
+	 * 
+	 * @return columnar order book of created orders.
+	 */
+	@Override
+	public OrderBook createOrderBook() {
+		return new ColumnarOrderBook(articles, orders);
 	}
 
 
@@ -173,22 +341,211 @@ class DatamodelFactoryImpl implements DatamodelFactory {
 
 
 	/*
-	 * Private methods to add objects to internal lists.
+	 * Private methods to add objects to internal lists and indexes.
 	 */
 
 	private Customer add(Customer customer) {
 		customers.add(customer);
+		unindexedCustomers.add(customer);
 		return customer;
 	}
 
 	private Article add(Article article) {
 		articles.add(article);
+		unindexedArticles.add(article);
 		return article;
 	}
 
 	private Order add(Order order) {
 		orders.add(order);
+		unindexedOrders.add(order);
+		if(order.getCustomer() != null) {
+			ordersByCustomer.computeIfAbsent(order.getCustomer(), c -> new ArrayList<Order>()).add(order);
+		}
 		return order;
 	}
 
+
+	/**
+	 * Index articles added since the last lookup and articles that were
+	 * assigned an id since they were scanned without id.
+	 */
+	private void indexArticles() {
+		final long assigned = Article.idsAssigned();
+		index(unindexedArticles, idlessArticles, assigned - articleIds, this::indexArticle, this::reindexArticle);
+		articleIds = assigned;
+	}
+
+
+	/**
+	 * Add customer to index by its primitive id unless it has no id.
+	 * 
+	 * @param customer customer to index.
+	 * @return true when customer has an id.
+	 */
+	private boolean indexCustomer(Customer customer) {
+		final long id = customer.getIdAsLong();
+		if(id < 0)
+			return false;
+		customerIndex.putIfAbsent(id, customer);
+		return true;
+	}
+
+
+	/**
+	 * Add customer that was scanned without id before to index unless it
+	 * still has no id. A customer indexed with the same id is replaced when
+	 * it was created later.
+	 * 
+	 * @param customer customer to index.
+	 * @return true when customer has an id.
+	 */
+	private boolean reindexCustomer(Customer customer) {
+		final long id = customer.getIdAsLong();
+		if(id < 0)
+			return false;
+		customerIndex.put(id, first(customers, customerIndex.get(id), customer));
+		return true;
+	}
+
+
+	/**
+	 * Add article to key index when its id is regular, otherwise to string
+	 * index, unless it has no id.
+	 * 
+	 * @param article article to index.
+	 * @return true when article has an id.
+	 */
+	private boolean indexArticle(Article article) {
+		final String id = article.getId();
+		if(id == null)
+			return false;
+		final long key = ArticleIdCodec.encode(id);
+		if(key != ArticleIdCodec.IRREGULAR) {
+			articleKeyIndex.putIfAbsent(key, article);
+		} else {
+			articleIndex.putIfAbsent(id, article);
+		}
+		return true;
+	}
+
+
+	/**
+	 * Add article that was scanned without id before to index unless it
+	 * still has no id. An article indexed with the same id is replaced when
+	 * it was created later.
+	 * 
+	 * @param article article to index.
+	 * @return true when article has an id.
+	 */
+	private boolean reindexArticle(Article article) {
+		final String id = article.getId();
+		if(id == null)
+			return false;
+		final long key = ArticleIdCodec.encode(id);
+		if(key != ArticleIdCodec.IRREGULAR) {
+			articleKeyIndex.put(key, first(articles, articleKeyIndex.get(key), article));
+		} else {
+			articleIndex.put(id, first(articles, articleIndex.get(id), article));
+		}
+		return true;
+	}
+
+
+	/**
+	 * Add order to index unless it has no id.
+	 * 
+	 * @param order order to index.
+	 * @return true when order has an id.
+	 */
+	private boolean indexOrder(Order order) {
+		final String id = order.getId();
+		if(id == null)
+			return false;
+		orderIndex.putIfAbsent(id, order);
+		return true;
+	}
+
+
+	/**
+	 * Add order that was scanned without id before to index unless it still
+	 * has no id. An order indexed with the same id is replaced when it was
+	 * created later.
+	 * 
+	 * @param order order to index.
+	 * @return true when order has an id.
+	 */
+	private boolean reindexOrder(Order order) {
+		final String id = order.getId();
+		if(id == null)
+			return false;
+		orderIndex.put(id, first(orders, orderIndex.get(id), order));
+		return true;
+	}
+
+
+	/**
+	 * Move objects added since the last lookup into the index and objects
+	 * without ids to the id-less list. Ids are immutable once assigned, hence
+	 * each object is indexed exactly once. Added objects were created after
+	 * all indexed objects and are indexed in order of creation. Id-less objects
+	 * that were assigned an id replace a later created object with the same id,
+	 * such that the object created first with an id wins as with a scan of all
+	 * objects. Id-less objects are rescanned only when more ids were assigned
+	 * than added objects were indexed, such that lookups cost amortized O(1)
+	 * while objects keep having no ids.
+	 * 
+	 * @param <T> generic type of indexed object.
+	 * @param added objects added since the last lookup, drained by this method.
+	 * @param idless objects scanned without id.
+	 * @param assigned number of ids assigned since the last lookup.
+	 * @param index adds added object by its id to index unless id is indexed, returns false for unassigned id.
+	 * @param reindex adds id-less object by its id to index, returns false for unassigned id.
+	 */
+	private static <T> void index(List<T> added, List<T> idless, long assigned, Predicate<T> index, Predicate<T> reindex) {
+		final int n = added.size(), scanned = idless.size();
+		int indexed = 0;
+		for(int i=0; i < n; i++) {
+			T t = added.get(i);
+			if(index.test(t)) {
+				indexed++;
+			} else {
+				idless.add(t);
+			}
+		}
+		added.clear();
+		if(indexed < assigned && scanned > 0) {
+			int kept = 0;
+			for(int i=0; i < scanned; i++) {
+				T t = idless.get(i);
+				if( ! reindex.test(t)) {
+					idless.set(kept++, t);		// keep object without id in place
+				}
+			}
+			idless.subList(kept, scanned).clear();
+		}
+	}
+
+
+	/**
+	 * Return the object that was created first of an indexed object and an
+	 * object with the same id that was scanned without id before. Objects are
+	 * only scanned in order of creation when both are different objects.
+	 * 
+	 * @param <T> generic type of object.
+	 * @param created objects in order of creation.
+	 * @param indexed object indexed with the id, may be null.
+	 * @param t object with the same id.
+	 * @return object created first.
+	 */
+	static <T> T first(List<T> created, T indexed, T t) {
+		if(indexed == null || indexed == t)
+			return t;
+		for(T c : created) {
+			if(c == indexed || c == t)
+				return c;
+		}
+		return indexed;
+	}
+
 }
@@ -0,0 +1,838 @@
+package system.impl;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.IntFunction;
+
+import datamodel.Article;
+import datamodel.Currency;
+import datamodel.Customer;
+import datamodel.Order;
+import datamodel.OrderItem;
+import datamodel.StringPool;
+import datamodel.TAX;
+import system.DatamodelFactory;
+
+
+/**
+ * Compact binary snapshot of the contents of a {@link DatamodelFactory}
+ * (customers, articles, orders with items). The snapshot file is mapped
+ * read-only with {@link FileChannel#map} such that data stays off-heap in
+ * the page cache and opening a snapshot does not copy the file.
+ * {@link Customer}, {@link Article} and {@link Order} objects are only
+ * materialized when accessed, or all at once with {@link #loadInto(DatamodelFactory)},
+ * which copies all objects onto the heap as the application does at startup.
+ * <p>
+ * File layout (little endian), sections follow each other in this order:
+ * <pre>
+ * header        magic, version, counts of customers, articles, orders, items, contacts, strings (32 bytes)
+ * customers     long id, int firstName, int lastName, int contactsStart, int contactsCount (24 bytes)
+ * articles      long unitPrice, int id, int description, byte tax, byte currency, 6 bytes padding (24 bytes)
+ * orders        long creationDate, int id, int customer, int itemsStart, int itemsCount (24 bytes)
+ * customer ids  long id, int customer, 4 bytes padding, sorted by id (16 bytes)
+ * article ids   int hash of id, int article, sorted by hash (8 bytes)
+ * order ids     int hash of id, int order, sorted by hash (8 bytes)
+ * items         int article, int units (8 bytes)
+ * contacts      int string (4 bytes)
+ * string index  int offset of string in string data, strings + 1 entries (4 bytes)
+ * string data   UTF-8 bytes of strings
+ * </pre>
+ * Names, descriptions, ids and contacts are stored once in the string table
+ * and referred to by string number, -1 refers to null. Customers, articles
+ * and orders refer to each other by record number. Snapshots are limited to
+ * 2GB, the size of a single mapping.
+ * </p>
+ * <p>
+ * Opening a snapshot validates the structure of the whole file: counts,
+ * section sizes, string offsets, references between records and tax and
+ * currency ordinals. A damaged file is rejected before any object is
+ * materialized. Snapshots are written to a temporary file that replaces
+ * the snapshot file atomically such that an interrupted write never leaves
+ * a partial snapshot behind.
+ * </p>
+ * <p>
+ * Materialized objects are cached per record such that references between
+ * objects are preserved. Names, contacts, article ids and descriptions are
+ * deduplicated through the shared {@link StringPool}. Materialization is not thread-safe.
+ * </p>
+ *
+ * @version <code style=color:green>{@value application.package_info#Version}</code>
+ * @author <code style=color:blue>{@value application.package_info#Author}</code>
+ */
+
+class DatamodelSnapshot {
+
+	/**
+	 * Magic number "DMSN" and format version in header.
+	 */
+	private static final int MAGIC = 0x4E534D44;
+	private static final int VERSION = 1;
+
+	/**
+	 * Sizes of header and fixed-width records in bytes.
+	 */
+	private static final int HEADER = 32;
+	private static final int CUSTOMER = 24;
+	private static final int ARTICLE = 24;
+	private static final int ORDER = 24;
+	private static final int CUSTOMER_ID = 16;
+	private static final int HASH_ID = 8;
+	private static final int ITEM = 8;
+	private static final int CONTACT = 4;
+	private static final int STRING_OFFSET = 4;
+
+	private static final TAX[] taxes = TAX.values();
+	private static final StringPool pool = StringPool.getShared();
+	private static final Currency[] currencies = Currency.values();
+
+	/**
+	 * Mapped snapshot file.
+	 */
+	private final ByteBuffer buf;
+
+	/**
+	 * Record counts read from header.
+	 */
+	private final int customersCount;
+	private final int articlesCount;
+	private final int ordersCount;
+	private final int itemsCount;
+	private final int contactsCount;
+	private final int stringsCount;
+
+	/**
+	 * Offsets of sections in mapped file.
+	 */
+	private final int customers;
+	private final int articles;
+	private final int orders;
+	private final int customerIds;
+	private final int articleIds;
+	private final int orderIds;
+	private final int items;
+	private final int contacts;
+	private final int stringIndex;
+	private final int stringData;
+
+	/**
+	 * Objects materialized by record number.
+	 */
+	private final Customer[] customerCache;
+	private final Article[] articleCache;
+	private final Order[] orderCache;
+
+
+	/**
+	 * Private constructor, snapshots are opened with {@link #open(Path)}.
+	 *
+	 * @param buf mapped snapshot file.
+	 * @throws IOException when buffer does not contain a valid snapshot of this version.
+	 */
+	private DatamodelSnapshot(ByteBuffer buf) throws IOException {
+		this.buf = buf.order(ByteOrder.LITTLE_ENDIAN);
+		if(buf.capacity() < HEADER || buf.getInt(0) != MAGIC || buf.getInt(4) != VERSION)
+			throw new IOException("not a datamodel snapshot of version " + VERSION + ".");
+		this.customersCount = buf.getInt(8);
+		this.articlesCount = buf.getInt(12);
+		this.ordersCount = buf.getInt(16);
+		this.itemsCount = buf.getInt(20);
+		this.contactsCount = buf.getInt(24);
+		this.stringsCount = buf.getInt(28);
+		if((customersCount | articlesCount | ordersCount | itemsCount | contactsCount | stringsCount) < 0)
+			throw new IOException("datamodel snapshot is corrupted: negative count.");
+		//
+		final long[] offsets = offsets(customersCount, articlesCount, ordersCount, itemsCount, contactsCount, stringsCount);
+		if(offsets[9] > buf.capacity())
+			throw new IOException("datamodel snapshot is truncated.");
+		this.customers = (int)offsets[0];
+		this.articles = (int)offsets[1];
+		this.orders = (int)offsets[2];
+		this.customerIds = (int)offsets[3];
+		this.articleIds = (int)offsets[4];
+		this.orderIds = (int)offsets[5];
+		this.items = (int)offsets[6];
+		this.contacts = (int)offsets[7];
+		this.stringIndex = (int)offsets[8];
+		this.stringData = (int)offsets[9];
+		this.customerCache = new Customer[customersCount];
+		this.articleCache = new Article[articlesCount];
+		this.orderCache = new Order[ordersCount];
+		validate();
+	}
+
+
+	/**
+	 * Open snapshot file by mapping it read-only into memory. The mapping
+	 * remains valid after the file channel is closed.
+	 *
+	 * @param file path to snapshot file.
+	 * @return opened snapshot.
+	 * @throws IOException when file cannot be mapped, is not a snapshot or is damaged.
+	 */
+	static DatamodelSnapshot open(Path file) throws IOException {
+		try(FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			if(channel.size() > Integer.MAX_VALUE)
+				throw new IOException("datamodel snapshot exceeds 2GB: " + file);
+			return new DatamodelSnapshot(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+		}
+	}
+
+
+	/**
+	 * Write snapshot of customers, articles and orders of a factory to file.
+	 * Customers and articles referred to by orders that are not returned by
+	 * the factory are included. Contents are written to a temporary file in
+	 * the same directory, which then atomically replaces the snapshot file.
+	 *
+	 * @param factory factory with contents to write.
+	 * @param file path to snapshot file, existing file is replaced.
+	 * @return number of bytes written.
+	 * @throws IOException when file cannot be written or contents exceed 2GB.
+	 * @throws IllegalArgumentException when factory is null.
+	 */
+	static long write(DatamodelFactory factory, Path file) throws IOException {
+		if(factory == null)
+			throw new IllegalArgumentException("factory is null.");
+		//
+		// number records, collect strings and count items and contacts
+		final Map<Customer, Integer> customerIndex = new IdentityHashMap<Customer, Integer>();
+		final Map<Article, Integer> articleIndex = new IdentityHashMap<Article, Integer>();
+		final List<Customer> customerList = new ArrayList<Customer>(factory.getCustomers());
+		final List<Article> articleList = new ArrayList<Article>(factory.getArticles());
+		final List<Order> orderList = factory.getOrders();
+		customerList.forEach(c -> customerIndex.putIfAbsent(c, customerIndex.size()));
+		articleList.forEach(a -> articleIndex.putIfAbsent(a, articleIndex.size()));
+		long itemsCount = 0L;
+		for(Order order : orderList) {
+			if(customerIndex.putIfAbsent(order.getCustomer(), customerIndex.size()) == null)
+				customerList.add(order.getCustomer());
+			for(OrderItem item : order.getItems()) {
+				if(articleIndex.putIfAbsent(item.getArticle(), articleIndex.size()) == null)
+					articleList.add(item.getArticle());
+				itemsCount++;
+			}
+		}
+		final StringTable strings = new StringTable();
+		long contactsCount = 0L;
+		for(Customer c : customerList) {
+			strings.add(c.getFirstName());
+			strings.add(c.getLastName());
+			for(String contact : c.getContacts()) {
+				strings.add(contact);
+				contactsCount++;
+			}
+		}
+		articleList.forEach(a -> { strings.add(a.getId()); strings.add(a.getDescription()); });
+		orderList.forEach(o -> strings.add(o.getId()));
+		//
+		final long[] offsets = offsets(customerList.size(), articleList.size(), orderList.size(),
+			itemsCount, contactsCount, strings.size());
+		final long size = offsets[9] + strings.bytes;
+		if(size > Integer.MAX_VALUE)
+			throw new IOException("datamodel snapshot exceeds 2GB: " + size + " bytes.");
+		//
+		final Path tmp = Files.createTempFile(file.toAbsolutePath().getParent(), file.getFileName().toString(), ".tmp");
+		try {
+			write(tmp, customerList, articleList, orderList, customerIndex, articleIndex, strings, itemsCount, contactsCount);
+			Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		} finally {
+			Files.deleteIfExists(tmp);
+		}
+		return size;
+	}
+
+
+	/**
+	 * Write numbered records, id indexes and string table to file.
+	 */
+	private static void write(Path file, List<Customer> customerList, List<Article> articleList, List<Order> orderList,
+			Map<Customer, Integer> customerIndex, Map<Article, Integer> articleIndex, StringTable strings,
+			long itemsCount, long contactsCount) throws IOException {
+		//
+		try(Output out = new Output(file)) {
+			out.putInt(MAGIC).putInt(VERSION).putInt(customerList.size()).putInt(articleList.size())
+				.putInt(orderList.size()).putInt((int)itemsCount).putInt((int)contactsCount).putInt(strings.size());
+			//
+			int contactsStart = 0;
+			for(Customer c : customerList) {
+				out.putLong(c.getIdAsLong()).putInt(strings.get(c.getFirstName())).putInt(strings.get(c.getLastName()))
+					.putInt(contactsStart).putInt(c.contactsCount());
+				contactsStart += c.contactsCount();
+			}
+			for(Article a : articleList) {
+				out.putLong(a.getUnitPrice()).putInt(strings.get(a.getId())).putInt(strings.get(a.getDescription()))
+					.put((byte)a.getTax().ordinal()).put((byte)a.getCurrency().ordinal()).pad(6);
+			}
+			int itemsStart = 0;
+			for(Order o : orderList) {
+				out.putLong(o.getCreationDate()).putInt(strings.get(o.getId())).putInt(customerIndex.get(o.getCustomer()))
+					.putInt(itemsStart).putInt(o.itemsCount());
+				itemsStart += o.itemsCount();
+			}
+			//
+			// id indexes
+			final Integer[] byId = new Integer[customerList.size()];
+			Arrays.setAll(byId, i -> i);
+			Arrays.sort(byId, (i, j) -> Long.compare(idOf(customerList.get(i)), idOf(customerList.get(j))));
+			for(int i : byId) {
+				out.putLong(idOf(customerList.get(i))).putInt(i).pad(4);
+			}
+			final long[] articleHashes = new long[articleList.size()];
+			Arrays.setAll(articleHashes, i -> hashEntry(articleList.get(i).getId(), i));
+			out.putHashIndex(articleHashes);
+			final long[] orderHashes = new long[orderList.size()];
+			Arrays.setAll(orderHashes, i -> hashEntry(orderList.get(i).getId(), i));
+			out.putHashIndex(orderHashes);
+			//
+			for(Order o : orderList) {
+				for(OrderItem item : o.getItems()) {
+					out.putInt(articleIndex.get(item.getArticle())).putInt(item.getUnitsOrdered());
+				}
+			}
+			for(Customer c : customerList) {
+				for(String contact : c.getContacts()) {
+					out.putInt(strings.get(contact));
+				}
+			}
+			int offset = 0;
+			for(byte[] bytes : strings.encoded) {
+				out.putInt(offset);
+				offset += bytes.length;
+			}
+			out.putInt(offset);
+			for(byte[] bytes : strings.encoded) {
+				out.put(bytes);
+			}
+		}
+	}
+
+
+	/**
+	 * Return number of customers in snapshot.
+	 *
+	 * @return number of customers.
+	 */
+	int customersCount() { return customersCount; }
+
+	/**
+	 * Return number of articles in snapshot.
+	 *
+	 * @return number of articles.
+	 */
+	int articlesCount() { return articlesCount; }
+
+	/**
+	 * Return number of orders in snapshot.
+	 *
+	 * @return number of orders.
+	 */
+	int ordersCount() { return ordersCount; }
+
+	/**
+	 * Return number of order items over all orders in snapshot.
+	 *
+	 * @return number of order items.
+	 */
+	int itemsCount() { return itemsCount; }
+
+
+	/**
+	 * Return customer by record number, customer is materialized with first access.
+	 *
+	 * @param i record number, {@code 0 <= i < customersCount()}.
+	 * @return customer of record.
+	 * @throws IndexOutOfBoundsException when record number is out of range.
+	 */
+	Customer getCustomer(int i) {
+		if(customerCache[i] == null) {
+			customerCache[i] = materializeCustomer(i, new Customer());
+		}
+		return customerCache[i];
+	}
+
+
+	/**
+	 * Return article by record number, article is materialized with first access.
+	 *
+	 * @param i record number, {@code 0 <= i < articlesCount()}.
+	 * @return article of record.
+	 * @throws IndexOutOfBoundsException when record number is out of range.
+	 */
+	Article getArticle(int i) {
+		if(articleCache[i] == null) {
+			articleCache[i] = materializeArticle(i, new Article());
+		}
+		return articleCache[i];
+	}
+
+
+	/**
+	 * Return order by record number, order is materialized with first access
+	 * together with its customer and articles.
+	 *
+	 * @param i record number, {@code 0 <= i < ordersCount()}.
+	 * @return order of record.
+	 * @throws IndexOutOfBoundsException when record number is out of range.
+	 */
+	Order getOrder(int i) {
+		if(orderCache[i] == null) {
+			final int r = record(orders, ORDER, i, ordersCount);
+			orderCache[i] = materializeOrder(r, new Order(getCustomer(buf.getInt(r + 12))), this::getArticle);
+		}
+		return orderCache[i];
+	}
+
+
+	/**
+	 * Find customer by id using the sorted id index without materializing other customers.
+	 *
+	 * @param id customer id.
+	 * @return Optional with customer, empty when no customer with id exists.
+	 */
+	Optional<Customer> findCustomerById(long id) {
+		int lo = 0, hi = customersCount - 1;
+		while(lo <= hi) {
+			final int mid = (lo + hi) >>> 1;
+			final long midId = buf.getLong(customerIds + mid * CUSTOMER_ID);
+			if(midId < id) {
+				lo = mid + 1;
+			} else if(midId > id) {
+				hi = mid - 1;
+			} else {
+				return Optional.of(getCustomer(buf.getInt(customerIds + mid * CUSTOMER_ID + 8)));
+			}
+		}
+		return Optional.empty();
+	}
+
+
+	/**
+	 * Find article by id using the hash index without materializing other articles.
+	 *
+	 * @param id article id.
+	 * @return Optional with article, empty when no article with id exists.
+	 */
+	Optional<Article> findArticleById(String id) {
+		final int i = findByHash(articleIds, articlesCount, id, articles, ARTICLE, 8);
+		return i >= 0 ? Optional.of(getArticle(i)) : Optional.empty();
+	}
+
+
+	/**
+	 * Find order by id using the hash index without materializing other orders.
+	 *
+	 * @param id order id.
+	 * @return Optional with order, empty when no order with id exists.
+	 */
+	Optional<Order> findOrderById(String id) {
+		final int i = findByHash(orderIds, ordersCount, id, orders, ORDER, 8);
+		return i >= 0 ? Optional.of(getOrder(i)) : Optional.empty();
+	}
+
+
+	/**
+	 * Materialize all customers, articles and orders of the snapshot through
+	 * a factory, in the order in which they were written. Objects are created
+	 * by the factory such that they are indexed by the factory, they are not
+	 * shared with objects returned by get and find methods.
+	 * <p>
+	 * Contacts, the only strings checked by setters, are checked before the
+	 * first object is created. With the structure validated when opening, a
+	 * load that fails leaves no objects behind in the factory.
+	 * </p>
+	 *
+	 * @param factory factory through which objects are created.
+	 * @return factory (same factory).
+	 * @throws IllegalArgumentException when factory is null or a contact is invalid.
+	 */
+	DatamodelFactory loadInto(DatamodelFactory factory) {
+		if(factory == null)
+			throw new IllegalArgumentException("factory is null.");
+		for(int k=0; k < contactsCount; k++) {
+			new Customer().addContact(string(buf.getInt(contacts + k * CONTACT)));
+		}
+		final Customer[] c = new Customer[customersCount];
+		for(int i=0; i < customersCount; i++) {
+			c[i] = materializeCustomer(i, factory.createCustomer());
+		}
+		final Article[] a = new Article[articlesCount];
+		for(int i=0; i < articlesCount; i++) {
+			a[i] = materializeArticle(i, factory.createArticle());
+		}
+		for(int i=0; i < ordersCount; i++) {
+			final int r = record(orders, ORDER, i, ordersCount);
+			materializeOrder(r, factory.createOrder(c[buf.getInt(r + 12)]), k -> a[k]);
+		}
+		return factory;
+	}
+
+
+	/**
+	 * Validate string offsets, references between records and enum ordinals
+	 * such that materializing any record cannot fail or read out of bounds.
+	 *
+	 * @throws IOException when the snapshot is damaged.
+	 */
+	private void validate() throws IOException {
+		int previous = 0;
+		for(int s=0; s <= stringsCount; s++) {
+			final int offset = buf.getInt(stringIndex + s * STRING_OFFSET);
+			check(s == 0 ? offset == 0 : offset >= previous, "string offsets");
+			previous = offset;
+		}
+		check((long)stringData + previous == buf.capacity(), "size of string data");
+		for(int i=0; i < customersCount; i++) {
+			final int r = customers + i * CUSTOMER;
+			check(isString(buf.getInt(r + 8)) && isString(buf.getInt(r + 12)), "customer names");
+			check(inRange(buf.getInt(r + 16), buf.getInt(r + 20), contactsCount), "customer contacts");
+			check(inRange(buf.getInt(customerIds + i * CUSTOMER_ID + 8), 1, customersCount), "customer ids");
+		}
+		for(int k=0; k < contactsCount; k++) {
+			final int contact = buf.getInt(contacts + k * CONTACT);
+			check(contact >= 0 && isString(contact), "contacts");
+		}
+		for(int i=0; i < articlesCount; i++) {
+			final int r = articles + i * ARTICLE;
+			check(isString(buf.getInt(r + 8)) && isString(buf.getInt(r + 12)), "article strings");
+			check(buf.getLong(r) >= 0L, "article price");
+			check(inRange(buf.get(r + 16), 1, taxes.length), "article tax");
+			check(inRange(buf.get(r + 17), 1, currencies.length), "article currency");
+			check(inRange(buf.getInt(articleIds + i * HASH_ID + 4), 1, articlesCount), "article ids");
+		}
+		for(int i=0; i < ordersCount; i++) {
+			final int r = orders + i * ORDER;
+			check(isString(buf.getInt(r + 8)), "order id");
+			check(inRange(buf.getInt(r + 12), 1, customersCount), "order customer");
+			check(inRange(buf.getInt(r + 16), buf.getInt(r + 20), itemsCount), "order items");
+			check(inRange(buf.getInt(orderIds + i * HASH_ID + 4), 1, ordersCount), "order ids");
+		}
+		for(int k=0; k < itemsCount; k++) {
+			check(inRange(buf.getInt(items + k * ITEM), 1, articlesCount), "item article");
+		}
+	}
+
+
+	/**
+	 * Test string number, -1 refers to null.
+	 */
+	private boolean isString(int s) {
+		return s >= -1 && s < stringsCount;
+	}
+
+
+	/**
+	 * Test that {@code count} entries from {@code start} lie within {@code size} entries.
+	 */
+	private static boolean inRange(int start, int count, int size) {
+		return start >= 0 && count >= 0 && (long)start + count <= size;
+	}
+
+
+	/**
+	 * Reject damaged snapshot.
+	 *
+	 * @param valid result of validation.
+	 * @param what validated part of the snapshot.
+	 * @throws IOException when validation failed.
+	 */
+	private static void check(boolean valid, String what) throws IOException {
+		if( ! valid)
+			throw new IOException("datamodel snapshot is corrupted: " + what + ".");
+	}
+
+
+	/**
+	 * Assign attributes of customer record to customer object.
+	 *
+	 * @param i record number.
+	 * @param customer customer object to assign attributes to.
+	 * @return customer (same customer).
+	 */
+	private Customer materializeCustomer(int i, Customer customer) {
+		final int r = record(customers, CUSTOMER, i, customersCount);
+		final long id = buf.getLong(r);
+		if(id >= 0L) {
+			customer.setId(id);
+		}
+		customer.setName(pool.intern(string(buf.getInt(r + 8))), pool.intern(string(buf.getInt(r + 12))));
+		final int start = buf.getInt(r + 16), count = buf.getInt(r + 20);
+		for(int k=0; k < count; k++) {
+			customer.addContact(pool.intern(string(buf.getInt(contacts + (start + k) * CONTACT))));
+		}
+		return customer;
+	}
+
+
+	/**
+	 * Assign attributes of article record to article object.
+	 *
+	 * @param i record number.
+	 * @param article article object to assign attributes to.
+	 * @return article (same article).
+	 */
+	private Article materializeArticle(int i, Article article) {
+		final int r = record(articles, ARTICLE, i, articlesCount);
+		final String id = pool.intern(string(buf.getInt(r + 8)));
+		final String description = pool.intern(string(buf.getInt(r + 12)));
+		final long unitPrice = buf.getLong(r);
+		if(id != null && id.length() > 0) {
+			article.setId(id);
+		}
+		if(description != null && description.length() > 0) {
+			article.setDescription(description);
+		}
+		if(unitPrice > 0L) {
+			article.setUnitPrice(unitPrice);
+		}
+		return article.setTax(taxes[buf.get(r + 16)]).setCurrency(currencies[buf.get(r + 17)]);
+	}
+
+
+	/**
+	 * Assign attributes and items of order record to order object.
+	 *
+	 * @param r offset of order record.
+	 * @param order order object created for customer of record.
+	 * @param article resolves article record numbers of items to articles.
+	 * @return order (same order).
+	 */
+	private Order materializeOrder(int r, Order order, IntFunction<Article> article) {
+		final String id = string(buf.getInt(r + 8));
+		if(id != null && id.length() > 0) {
+			order.setId(id);
+		}
+		order.setCreationDate(buf.getLong(r));
+		final int start = buf.getInt(r + 16), count = buf.getInt(r + 20);
+		for(int k=0; k < count; k++) {
+			final int item = items + (start + k) * ITEM;
+			order.addItem(article.apply(buf.getInt(item)), buf.getInt(item + 4));
+		}
+		return order;
+	}
+
+
+	/**
+	 * Find record number by string id in a hash index. Entries with equal
+	 * hash are compared with the id string of their record.
+	 *
+	 * @param index offset of hash index.
+	 * @param count number of entries in index.
+	 * @param id id to find.
+	 * @param section offset of records.
+	 * @param size record size.
+	 * @param idField offset of id string number in record.
+	 * @return record number, -1 when no record with id exists.
+	 */
+	private int findByHash(int index, int count, String id, int section, int size, int idField) {
+		if(id == null)
+			return -1;
+		final int hash = id.hashCode();
+		int lo = 0, hi = count;
+		while(lo < hi) {	// lower bound of hash
+			final int mid = (lo + hi) >>> 1;
+			if(buf.getInt(index + mid * HASH_ID) < hash) {
+				lo = mid + 1;
+			} else {
+				hi = mid;
+			}
+		}
+		for(int e=lo; e < count && buf.getInt(index + e * HASH_ID) == hash; e++) {
+			final int i = buf.getInt(index + e * HASH_ID + 4);
+			if(id.equals(string(buf.getInt(section + i * size + idField)))) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+
+	/**
+	 * Decode string from string table.
+	 *
+	 * @param s string number, -1 for null.
+	 * @return decoded string, null for string number -1.
+	 */
+	private String string(int s) {
+		if(s < 0)
+			return null;
+		if(s >= stringsCount)
+			throw new IndexOutOfBoundsException("string " + s + " out of range: " + stringsCount);
+		final int start = buf.getInt(stringIndex + s * STRING_OFFSET);
+		final byte[] bytes = new byte[buf.getInt(stringIndex + (s + 1) * STRING_OFFSET) - start];
+		buf.get(stringData + start, bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+
+	/**
+	 * Offset of record in section.
+	 *
+	 * @param section offset of section.
+	 * @param size record size.
+	 * @param i record number.
+	 * @param count number of records in section.
+	 * @return offset of record.
+	 * @throws IndexOutOfBoundsException when record number is out of range.
+	 */
+	private static int record(int section, int size, int i, int count) {
+		return section + size * Objects.checkIndex(i, count);
+	}
+
+
+	/**
+	 * Compute section offsets from counts, sections follow the header in file order.
+	 *
+	 * @param customers number of customers.
+	 * @param articles number of articles.
+	 * @param orders number of orders.
+	 * @param items number of order items.
+	 * @param contacts number of contacts.
+	 * @param strings number of strings.
+	 * @return offsets of the sections up to string data (10 entries).
+	 */
+	private static long[] offsets(long customers, long articles, long orders, long items, long contacts, long strings) {
+		final long[] sizes = {
+			customers * CUSTOMER, articles * ARTICLE, orders * ORDER,
+			customers * CUSTOMER_ID, articles * HASH_ID, orders * HASH_ID,
+			items * ITEM, contacts * CONTACT, (strings + 1) * STRING_OFFSET
+		};
+		final long[] offsets = new long[sizes.length + 1];
+		offsets[0] = HEADER;
+		for(int i=0; i < sizes.length; i++) {
+			offsets[i + 1] = offsets[i] + sizes[i];
+		}
+		return offsets;
+	}
+
+
+	/**
+	 * Customer id, -1 when unassigned (sorts before assigned ids).
+	 *
+	 * @param customer customer.
+	 * @return customer id, -1 when unassigned.
+	 */
+	private static long idOf(Customer customer) {
+		return customer.getIdAsLong();
+	}
+
+
+	/**
+	 * Hash index entry that sorts by hash of id, then by record number.
+	 *
+	 * @param id id of record, null hashes to 0.
+	 * @param i record number.
+	 * @return entry {@code hash << 32 | i}.
+	 */
+	private static long hashEntry(String id, int i) {
+		return ((long)(id != null ? id.hashCode() : 0) << 32) | i;
+	}
+
+
+	/**
+	 * Table of distinct strings, numbered in order of addition.
+	 */
+	private static final class StringTable {
+		private final Map<String, Integer> numbers = new HashMap<String, Integer>();
+		private final List<byte[]> encoded = new ArrayList<byte[]>();
+		private long bytes = 0L;
+
+		void add(String s) {
+			if(s != null && ! numbers.containsKey(s)) {
+				numbers.put(s, encoded.size());
+				final byte[] b = s.getBytes(StandardCharsets.UTF_8);
+				encoded.add(b);
+				bytes += b.length;
+			}
+		}
+
+		int get(String s) { return s != null ? numbers.get(s) : -1; }
+
+		int size() { return encoded.size(); }
+	}
+
+
+	/**
+	 * Sequential little endian output to a file channel through a direct buffer.
+	 */
+	private static final class Output implements AutoCloseable {
+		private final FileChannel channel;
+		private final ByteBuffer out = ByteBuffer.allocateDirect(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+
+		Output(Path file) throws IOException {
+			this.channel = FileChannel.open(file, StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+		}
+
+		Output putInt(int v) throws IOException { ensure(4).putInt(v); return this; }
+
+		Output putLong(long v) throws IOException { ensure(8).putLong(v); return this; }
+
+		Output put(byte v) throws IOException { ensure(1).put(v); return this; }
+
+		Output pad(int n) throws IOException {
+			for(int i=0; i < n; i++) {
+				put((byte)0);
+			}
+			return this;
+		}
+
+		Output put(byte[] bytes) throws IOException {
+			for(int i=0; i < bytes.length; ) {
+				final int n = Math.min(bytes.length - i, ensure(1).remaining());
+				out.put(bytes, i, n);
+				i += n;
+			}
+			return this;
+		}
+
+		/**
+		 * Write entries {@code hash << 32 | record} sorted by hash as (int hash, int record).
+		 */
+		Output putHashIndex(long[] entries) throws IOException {
+			Arrays.sort(entries);
+			for(long e : entries) {
+				putInt((int)(e >> 32)).putInt((int)e);
+			}
+			return this;
+		}
+
+		private ByteBuffer ensure(int n) throws IOException {
+			if(out.remaining() < n) {
+				flush();
+			}
+			return out;
+		}
+
+		private void flush() throws IOException {
+			out.flip();
+			while(out.hasRemaining()) {
+				channel.write(out);
+			}
+			out.clear();
+		}
+
+		@Override
+		public void close() throws IOException {
+			try {
+				flush();
+			} finally {
+				channel.close();
+			}
+		}
+	}
+}
@@ -3,8 +3,13 @@ package system.impl;
 import datamodel.Currency;
 import system.Formatter;
 
-import java.text.DateFormat;
-import java.text.SimpleDateFormat;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.text.NumberFormat;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.FormatStyle;
 import java.util.Locale;
 import java.util.Map;
 
@@ -39,103 +44,235 @@ class FormatterImpl implements Formatter {
 
     @Override
     public String fmtDate(long datetime, int dateStyle, String fill, int... timeStyle) {
-        // TODO Auto-generated method stub
+        if (dateStyle == 2) {
+            return Long.toUnsignedString(datetime);    // case 2: return long number as String
+        }
         int tst = timeStyle.length > 0 ? timeStyle[0] : -1;
-        String datetimeStr = "";
-        DateFormat df = dateStyle >= 0 && dateStyle < dateFmts.length ? dateFmts[dateStyle] : null;
-        datetimeStr = dateStyle == 2 ?
-                Long.toUnsignedString(datetime) :    // case 2: return long number as String
-                df == null ? "" : df.format(datetime);    // remaining cases
-        //
-        DateFormat tf = tst >= 0 && tst < timeFmts.length ? timeFmts[tst] : null;
-        if (tf != null && dateStyle > 2) {
-            datetimeStr += fill != null ? fill : " ";
-            datetimeStr += tf.format(datetime);
+        DateTimeFormatter df = dateStyle >= 0 && dateStyle < dateFmts.length ? dateFmts[dateStyle] : null;
+        DateTimeFormatter tf = tst >= 0 && tst < timeFmts.length && dateStyle > 2 ? timeFmts[tst] : null;
+        if (df == null && tf == null) {
+            return "";
+        }
+        // immutable formatters are thread-safe, format directly into one builder
+        final Instant instant = Instant.ofEpochMilli(datetime);
+        final StringBuilder sb = new StringBuilder(32);
+        if (df != null) {
+            df.formatTo(instant, sb);
         }
-        return datetimeStr;
+        if (tf != null) {
+            sb.append(fill != null ? fill : " ");
+            tf.formatTo(instant, sb);
+        }
+        return sb.toString();
     }
 
     @Override
     public String fmtPrice(long price, int... style) {
-        // TODO Auto-generated method stub
+        return fmtPrice(new StringBuilder(16), price, style).toString();
+    }
+
+    @Override
+    public StringBuilder fmtPrice(StringBuilder sb, long price, int... style) {
         final int st = style.length > 0 ? style[0] : 0;    // 0 is default format
+        final StringBuilder sb_ = sb == null ? new StringBuilder() : sb;
         return
-                st == 0 ? fmtDecimal(price, 2) :
-                        st == 1 ? fmtDecimal(price, 2, EUR) :
-                                st == 2 ? fmtDecimal(price, 2, CurrencySymbol.get(Currency.USD)) :
-                                        st == 3 ? fmtDecimal(price, 2, CurrencySymbol.get(Currency.GBP)) :
-                                                st == 4 ? fmtDecimal(price, 0, CurrencySymbol.get(Currency.YEN)) :
-                                                        st == 5 ? fmtDecimal(price, 0) :
-                                                                "";
+                st == 0 ? fmtDecimal(sb_, price, 2) :
+                        st == 1 ? fmtDecimal(sb_, price, 2, EUR) :
+                                st == 2 ? fmtDecimal(sb_, price, 2, CurrencySymbol.get(Currency.USD)) :
+                                        st == 3 ? fmtDecimal(sb_, price, 2, CurrencySymbol.get(Currency.GBP)) :
+                                                st == 4 ? fmtDecimal(sb_, price, 0, CurrencySymbol.get(Currency.YEN)) :
+                                                        st == 5 ? fmtDecimal(sb_, price, 0) :
+                                                                sb_;
     }
 
     @Override
     public String fmtDecimal(long value, int decimalDigits, String... unit) {
-        // TODO Auto-generated method stub
+        return fmtDecimal(new StringBuilder(16), value, decimalDigits, unit).toString();
+    }
+
+    /**
+     * Emits digits directly into sb with the same output as
+     * {@code String.format("%,d.%02d%s", ...)} in the default locale.
+     * Like before, the sign of values between -1 and 0 is not shown.
+     */
+    @Override
+    public StringBuilder fmtDecimal(StringBuilder sb, long value, int decimalDigits, String... unit) {
         final String unitStr = unit.length > 0 ? unit[0] : null;
-        final Object[][] dec = {
-                {"%,d", 1L},        // no decimal digits:  16,000Y
-                {"%,d.%01d", 10L},
-                {"%,d.%02d", 100L},    // double-digit price: 169.99E
-                {"%,d.%03d", 1000L},    // triple-digit unit:  16.999-
-        };
-        String result;
-        String fmt = (String) dec[decimalDigits][0];
-        if (unitStr != null && unitStr.length() > 0) {
-            fmt += "%s";    // add "%s" to format for unit string
-        }
-        int decdigs = Math.max(0, Math.min(dec.length - 1, decimalDigits));
+        final StringBuilder sb_ = sb == null ? new StringBuilder() : sb;
+        final NumberSymbols sym = numberSymbols();
+        final int decdigs = Math.max(0, Math.min(decimalScale.length - 1, decimalDigits));
         //
         if (decdigs == 0) {
-            Object[] args = {value, unitStr};
-            result = String.format(fmt, args);
+            appendGrouped(sb_, value, sym);        // no decimal digits:  16,000Y
         } else {
-            long digs = (long) dec[decdigs][1];
+            long digs = decimalScale[decdigs];
+            appendGrouped(sb_, value / digs, sym);    // double-digit price: 169.99E
+            sb_.append('.');
             long frac = Math.abs(value % digs);
-            Object[] args = {value / digs, frac, unitStr};
-            result = String.format(fmt, args);
+            for (long d = digs / 10; d > 0; d /= 10) {    // zero-padded fraction digits
+                sb_.append((char) (sym.zero + (frac / d) % 10));
+            }
+        }
+        if (unitStr != null && unitStr.length() > 0) {
+            sb_.append(unitStr);
         }
-        return result;
+        return sb_;
     }
 
+    /**
+     * Append value with grouping separators, digits are emitted from least
+     * significant digit and reversed in place (no intermediate String).
+     *
+     * @param sb StringBuilder to append to.
+     * @param value value to append.
+     * @param sym locale-dependent digit and grouping symbols.
+     */
+    private static void appendGrouped(StringBuilder sb, long value, NumberSymbols sym) {
+        if (value < 0) {
+            sb.append('-');
+        }
+        long q = value < 0 ? value : -value;    // negative magnitude also covers Long.MIN_VALUE
+        final int start = sb.length();
+        int n = 0;
+        do {
+            if (n > 0 && n % sym.groupingSize == 0 && sym.grouping != NO_GROUPING) {
+                sb.append(sym.grouping);
+            }
+            sb.append((char) (sym.zero - (q % 10)));
+            q /= 10;
+            n++;
+        } while (q != 0);
+        for (int i = start, j = sb.length() - 1; i < j; i++, j--) {
+            char c = sb.charAt(i);
+            sb.setCharAt(i, sb.charAt(j));
+            sb.setCharAt(j, c);
+        }
+    }
 
     /**
-     * DateFormatter for date formats.
+     * Return digit and grouping symbols of the default format locale,
+     * symbols are looked up again only when the default locale changes.
+     *
+     * @return digit and grouping symbols of the default format locale.
      */
-    private static final DateFormat[] dateFmts = {
-            new SimpleDateFormat("yyyy-MM-dd HH:mm:ss"),                // 0: 2022-05-17 18:55:43
-            new SimpleDateFormat("dd-MM-yyyy HH:mm:ss"),                // 1: 17-05-2022 18:55:43
-            null,                                                        // 2: 1652823817740, as long-String
+    private static NumberSymbols numberSymbols() {
+        final Locale locale = Locale.getDefault(Locale.Category.FORMAT);
+        NumberSymbols sym = numberSymbols;
+        if (!sym.locale.equals(locale)) {
+            numberSymbols = sym = NumberSymbols.of(locale);
+        }
+        return sym;
+    }
+
+    /**
+     * Zero digit of the default format locale as used by {@code String.format("%d")}.
+     *
+     * @return zero digit, '0' for most locales.
+     */
+    static char zeroDigit() {
+        return numberSymbols().zero;
+    }
+
+    /**
+     * Digit and grouping symbols of a locale as used by {@code String.format("%,d")}.
+     */
+    private record NumberSymbols(Locale locale, char zero, char grouping, int groupingSize) {
+
+        static NumberSymbols of(Locale locale) {
+            if (locale.equals(Locale.US)) {
+                return new NumberSymbols(locale, '0', ',', 3);
+            }
+            DecimalFormatSymbols dfs = DecimalFormatSymbols.getInstance(locale);
+            char grouping = dfs.getGroupingSeparator();
+            int groupingSize = 3;
+            if (NumberFormat.getInstance(locale) instanceof DecimalFormat df) {
+                groupingSize = df.getGroupingSize();
+                grouping = !df.isGroupingUsed() || groupingSize == 0 ? NO_GROUPING : grouping;
+            }
+            return new NumberSymbols(locale, dfs.getZeroDigit(), grouping, Math.max(1, groupingSize));
+        }
+    }
+
+    /**
+     * Grouping separator value for locales without grouping.
+     */
+    private static final char NO_GROUPING = 0x00;
+
+    /**
+     * Scale factors for 0 to 3 decimal digits.
+     */
+    private static final long[] decimalScale = {1L, 10L, 100L, 1000L};
+
+    /**
+     * Cached digit and grouping symbols of last used default format locale.
+     */
+    private static volatile NumberSymbols numberSymbols = NumberSymbols.of(Locale.getDefault(Locale.Category.FORMAT));
+
+    /**
+     * Time zone in which date/time values are formatted.
+     */
+    private static final ZoneId zone = ZoneId.systemDefault();
+
+    /**
+     * Immutable, thread-safe DateTimeFormatter for date formats.
+     */
+    private static final DateTimeFormatter[] dateFmts = {
+            pattern("yyyy-MM-dd HH:mm:ss", null),                            // 0: 2022-05-17 18:55:43
+            pattern("dd-MM-yyyy HH:mm:ss", null),                            // 1: 17-05-2022 18:55:43
+            null,                                                            // 2: 1652823817740, as long-String
             //
-            new SimpleDateFormat("yyyy-MM-dd"),                            // 3: 2022-05-17
-            new SimpleDateFormat("dd-MM-yyyy"),                            // 4: 17-05-2022
-            new SimpleDateFormat("MM/dd/yy", Locale.US),                // 5: 05/17/22
-            new SimpleDateFormat("MM/dd/yyyy", Locale.US),                // 6: 05/17/2022
-            DateFormat.getDateInstance(DateFormat.MEDIUM, Locale.US),    // 7: May 17, 2022
+            pattern("yyyy-MM-dd", null),                                     // 3: 2022-05-17
+            pattern("dd-MM-yyyy", null),                                     // 4: 17-05-2022
+            pattern("MM/dd/yy", Locale.US),                                  // 5: 05/17/22
+            pattern("MM/dd/yyyy", Locale.US),                                // 6: 05/17/2022
+            localized(FormatStyle.MEDIUM, Locale.US),                        // 7: May 17, 2022
             //
-            DateFormat.getDateInstance(DateFormat.SHORT, Locale.GERMAN),    // 8: 17.05.22
-            DateFormat.getDateInstance(DateFormat.MEDIUM, Locale.GERMAN),    // 9: 17.05.2022
-            DateFormat.getDateInstance(DateFormat.LONG, Locale.GERMAN),        //10: 17. Mai 2022
-            new SimpleDateFormat("EEE", Locale.GERMAN),                        //11: Di
-            new SimpleDateFormat("EEEE", Locale.GERMAN),                    //12: Dienstag
-            new SimpleDateFormat("EEEE, 'der' dd. MMM yyyy", Locale.GERMAN),    //13: Dienstag, der 17. Mai 2022
-            new SimpleDateFormat("EEE", Locale.US),                            //14: Tue
-            new SimpleDateFormat("EEEE", Locale.US),                        //15: Tuesday
-            new SimpleDateFormat("EEE, MMM dd, yyyy", Locale.US),            //16: Tue, May 05, 2022
+            localized(FormatStyle.SHORT, Locale.GERMAN),                     // 8: 17.05.22
+            localized(FormatStyle.MEDIUM, Locale.GERMAN),                    // 9: 17.05.2022
+            localized(FormatStyle.LONG, Locale.GERMAN),                      //10: 17. Mai 2022
+            pattern("EEE", Locale.GERMAN),                                   //11: Di
+            pattern("EEEE", Locale.GERMAN),                                  //12: Dienstag
+            pattern("EEEE, 'der' dd. MMM yyyy", Locale.GERMAN),              //13: Dienstag, der 17. Mai 2022
+            pattern("EEE", Locale.US),                                       //14: Tue
+            pattern("EEEE", Locale.US),                                      //15: Tuesday
+            pattern("EEE, MMM dd, yyyy", Locale.US),                         //16: Tue, May 05, 2022
     };
 
     /**
-     * DateFormatter for time formats.
+     * Immutable, thread-safe DateTimeFormatter for time formats.
      */
-    private static final DateFormat[] timeFmts = {
-            new SimpleDateFormat("HH:mm:ss"),                // 0: 18:55:43
-            new SimpleDateFormat("HH:mm"),                    // 1: 18:55
-            new SimpleDateFormat("HH:mm:ss.SSS"),            // 2: 18:55:43.348
-            new SimpleDateFormat("HH:mm:ss, z"),            // 3: 18:55:43, CEST
-            new SimpleDateFormat("HH:mm:ss, Z"),            // 4: 18:55:43, +0200
-            new SimpleDateFormat("HH:mm:ss, aa")            // 5: 06:55:43 PM
+    private static final DateTimeFormatter[] timeFmts = {
+            pattern("HH:mm:ss", null),                  // 0: 18:55:43
+            pattern("HH:mm", null),                     // 1: 18:55
+            pattern("HH:mm:ss.SSS", null),              // 2: 18:55:43.348
+            pattern("HH:mm:ss, z", null),               // 3: 18:55:43, CEST
+            pattern("HH:mm:ss, Z", null),               // 4: 18:55:43, +0200
+            pattern("HH:mm:ss, a", null)                // 5: 06:55:43 PM
     };
 
+    /**
+     * Create DateTimeFormatter from pattern in formatting time zone.
+     *
+     * @param pattern date/time pattern.
+     * @param locale locale of formatter, default locale is used when null.
+     * @return DateTimeFormatter for pattern.
+     */
+    private static DateTimeFormatter pattern(String pattern, Locale locale) {
+        return (locale != null ? DateTimeFormatter.ofPattern(pattern, locale) : DateTimeFormatter.ofPattern(pattern))
+                .withZone(zone);
+    }
+
+    /**
+     * Create localized DateTimeFormatter for date style in formatting time zone.
+     *
+     * @param style localized date style.
+     * @param locale locale of formatter.
+     * @return localized DateTimeFormatter.
+     */
+    private static DateTimeFormatter localized(FormatStyle style, Locale locale) {
+        return DateTimeFormatter.ofLocalizedDate(style).withLocale(locale).withZone(zone);
+    }
+
     /**
      * Currency symbols defined by ASCII/Unicode-Strings mapped from Currency enum.
      */
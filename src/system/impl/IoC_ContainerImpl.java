@@ -29,9 +29,15 @@ public final class IoC_ContainerImpl implements IoC {
     private final Calculator calculator;
     private final Formatter formatter;
     private final Printer printer;
-    private final DatamodelFactory datamodelFactory;
-    private final OrderBuilder orderBuilder;
-    private final OrderBuilder orderBuilderOld;
+    private final Metrics metrics;
+
+    /**
+     * Components created with first access after properties have been loaded,
+     * DatamodelFactory implementation is selected by property "datamodel.factory".
+     */
+    private DatamodelFactory datamodelFactory;
+    private OrderBuilder orderBuilder;
+    private OrderBuilder orderBuilderOld;
 
     private final Properties props;
 
@@ -40,13 +46,11 @@ public final class IoC_ContainerImpl implements IoC {
      * Private constructor to prevent instance creation outside this class.
      */
     private IoC_ContainerImpl() {
-        this.calculator = new CalculatorImpl();
+        this.metrics = new MetricsImpl();
+        this.calculator = new CalculatorImpl(metrics);
         this.formatter = new FormatterImpl();
-        this.printer = new PrinterImpl(calculator, formatter);
+        this.printer = new PrinterImpl(calculator, formatter, metrics);
         this.props = new Properties();
-        this.datamodelFactory = new DatamodelFactoryImpl();
-        this.orderBuilder = new OrderBuilderJSONImpl(datamodelFactory, props);
-        this.orderBuilderOld = new OrderBuilderImpl(datamodelFactory);
     }
 
 
@@ -92,11 +96,41 @@ public final class IoC_ContainerImpl implements IoC {
         return this.printer;
     }
 
-    public OrderBuilder getOrderBuilder(){
+
+    /**
+     * Getter of system singleton component that implements the {@link Metrics} interface.
+     *
+     * @return reference to singleton Metrics instance.
+     */
+    @Override
+    public Metrics getMetrics() {
+        return this.metrics;
+    }
+
+    public synchronized OrderBuilder getOrderBuilder(){
+        getDatamodelFactory();
         return this.orderBuilder;
     }
 
-    public DatamodelFactory getDatamodelFactory() {
+    /**
+     * Getter of system singleton component that implements the {@link DatamodelFactory}
+     * interface. The factory is created with the first call from property:
+     * <pre>
+     * datamodel.factory = concurrent    (thread-safe ConcurrentDatamodelFactory)
+     * datamodel.factory = default       (DatamodelFactoryImpl, also when not set)
+     * </pre>
+     *
+     * @return reference to singleton DatamodelFactory instance.
+     */
+    public synchronized DatamodelFactory getDatamodelFactory() {
+        if (datamodelFactory == null) {
+            String impl = props.getProperty("datamodel.factory", "default").trim();
+            this.datamodelFactory = impl.equalsIgnoreCase("concurrent")
+                    ? new ConcurrentDatamodelFactory(metrics)
+                    : new DatamodelFactoryImpl(metrics);
+            this.orderBuilder = new OrderBuilderJSONImpl(datamodelFactory, props, metrics);
+            this.orderBuilderOld = new OrderBuilderImpl(datamodelFactory);
+        }
         return datamodelFactory;
     }
 
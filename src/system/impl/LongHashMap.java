@@ -0,0 +1,171 @@
+package system.impl;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+
+/**
+ * Open-addressing hash map with primitive {@code long} keys, which are
+ * neither boxed on insertion nor on lookup. Keys and values are stored in
+ * parallel arrays probed linearly, the table doubles when it is half full.
+ * Entries cannot be removed, as needed by primary-key indexes.
+ * <p>
+ * The map has a single writer and any number of concurrent readers:
+ * {@link #putIfAbsent(long, Object)} and {@link #put(long, Object)} must be
+ * called by one thread at a time (e.g. under a lock), {@link #get(long)}
+ * does not lock. A value is stored with release semantics after its key, a
+ * reader that sees the value also sees the key. A grown table is filled before it is published, readers of
+ * the previous table still find all entries that were in it.
+ * </p>
+ *
+ * @param <V> generic type of values.
+ *
+ * @version <code style=color:green>{@value application.package_info#Version}</code>
+ * @author <code style=color:blue>{@value application.package_info#Author}</code>
+ */
+
+final class LongHashMap<V> {
+
+	/**
+	 * Access to value slots with acquire/release semantics.
+	 */
+	private static final VarHandle VALUES = MethodHandles.arrayElementVarHandle(Object[].class);
+
+	/**
+	 * Keys and values of one table size, a slot is empty when its value is null.
+	 */
+	private static final class Table {
+		final long[] keys;
+		final Object[] values;
+		final int mask;
+
+		Table(int capacity) {
+			this.keys = new long[capacity];
+			this.values = new Object[capacity];
+			this.mask = capacity - 1;
+		}
+	}
+
+	/**
+	 * Current table, replaced by a table of twice the size when half full.
+	 */
+	private volatile Table table = new Table(16);
+	private int size = 0;
+
+
+	/**
+	 * Return value of key.
+	 *
+	 * @param key key to look up.
+	 * @return value of key, null when key is not in map.
+	 */
+	@SuppressWarnings("unchecked")
+	V get(long key) {
+		final Table t = table;
+		for(int i = slot(key, t.mask); ; i = (i + 1) & t.mask) {
+			final Object v = (Object)VALUES.getAcquire(t.values, i);
+			if(v == null)
+				return null;
+			if(t.keys[i] == key)
+				return (V)v;
+		}
+	}
+
+
+	/**
+	 * Add key with value unless key is in map. Must not be called concurrently.
+	 *
+	 * @param key key to add.
+	 * @param value value of key.
+	 * @return value of key that was in map, null when key was added.
+	 * @throws IllegalArgumentException when value is null.
+	 */
+	@SuppressWarnings("unchecked")
+	V putIfAbsent(long key, V value) {
+		if(value == null)
+			throw new IllegalArgumentException("value is null.");
+		Table t = table;
+		int i = slot(key, t.mask);
+		for(Object v; (v = t.values[i]) != null; i = (i + 1) & t.mask) {
+			if(t.keys[i] == key)
+				return (V)v;
+		}
+		if(2 * (size + 1) > t.keys.length) {
+			table = t = grow(t);
+			for(i = slot(key, t.mask); t.values[i] != null; i = (i + 1) & t.mask) { }
+		}
+		t.keys[i] = key;
+		VALUES.setRelease(t.values, i, value);
+		size++;
+		return null;
+	}
+
+
+	/**
+	 * Add key with value or replace the value of key when key is in map.
+	 * Must not be called concurrently, readers see the previous or the
+	 * new value.
+	 *
+	 * @param key key to add.
+	 * @param value value of key.
+	 * @return previous value of key, null when key was added.
+	 * @throws IllegalArgumentException when value is null.
+	 */
+	@SuppressWarnings("unchecked")
+	V put(long key, V value) {
+		final V previous = putIfAbsent(key, value);
+		if(previous != null && previous != value) {
+			final Table t = table;
+			int i = slot(key, t.mask);
+			while(t.keys[i] != key || t.values[i] == null) {
+				i = (i + 1) & t.mask;
+			}
+			VALUES.setRelease(t.values, i, value);
+		}
+		return previous;
+	}
+
+
+	/**
+	 * Return number of keys in map.
+	 *
+	 * @return number of keys.
+	 */
+	int size() { return size; }
+
+
+	/**
+	 * Copy entries into table of twice the size.
+	 *
+	 * @param t table to grow.
+	 * @return new table with all entries of t.
+	 */
+	private static Table grow(Table t) {
+		final Table g = new Table(2 * t.keys.length);
+		for(int j=0; j < t.keys.length; j++) {
+			if(t.values[j] != null) {
+				int i = slot(t.keys[j], g.mask);
+				while(g.values[i] != null) {
+					i = (i + 1) & g.mask;
+				}
+				g.keys[i] = t.keys[j];
+				g.values[i] = t.values[j];
+			}
+		}
+		return g;
+	}
+
+
+	/**
+	 * First slot probed for key, bits of key are mixed such that sequential
+	 * keys spread over the table.
+	 *
+	 * @param key key.
+	 * @param mask table size - 1.
+	 * @return slot index.
+	 */
+	private static int slot(long key, int mask) {
+		final long h = key * 0x9E3779B97F4A7C15L;
+		return (int)(h ^ (h >>> 32)) & mask;
+	}
+}
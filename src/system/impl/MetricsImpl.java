@@ -0,0 +1,229 @@
+package system.impl;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+
+import system.Metrics;
+
+
+/**
+ * Metrics component with counters based on {@link LongAdder} and histograms
+ * with log-linear buckets in an {@link AtomicLongArray} (similar to
+ * HdrHistogram). Recording does not lock, counters and histograms are
+ * registered by name in a concurrent map with their first use.
+ *
+ * @version <code style=color:green>{@value application.package_info#Version}</code>
+ * @author <code style=color:blue>{@value application.package_info#Author}</code>
+ */
+
+class MetricsImpl implements Metrics {
+
+	/**
+	 * Registered counters and histograms by name.
+	 */
+	private final Map<String, CounterImpl> counters = new ConcurrentHashMap<String, CounterImpl>();
+	private final Map<String, HistogramImpl> histograms = new ConcurrentHashMap<String, HistogramImpl>();
+
+
+	@Override
+	public Counter counter(String name) {
+		return counters.computeIfAbsent(requireName(name), n -> new CounterImpl());
+	}
+
+
+	@Override
+	public Histogram histogram(String name) {
+		return histograms.computeIfAbsent(requireName(name), n -> new HistogramImpl());
+	}
+
+
+	@Override
+	public StringBuilder snapshotText(StringBuilder sb) {
+		final StringBuilder out = sb != null ? sb : new StringBuilder();
+		new TreeMap<String, CounterImpl>(counters).forEach((name, c) ->
+			out.append(String.format("%-40s count=%d\n", name, c.count())));
+		new TreeMap<String, HistogramImpl>(histograms).forEach((name, h) ->
+			out.append(String.format("%-40s count=%d mean=%s p50=%s p90=%s p99=%s p999=%s max=%s\n", name, h.count(),
+				duration((long)h.mean()), duration(h.valueAtPercentile(50.0)), duration(h.valueAtPercentile(90.0)),
+				duration(h.valueAtPercentile(99.0)), duration(h.valueAtPercentile(99.9)), duration(h.max()))));
+		return out;
+	}
+
+
+	@Override
+	public StringBuilder snapshotJSON(StringBuilder sb) {
+		final StringBuilder out = sb != null ? sb : new StringBuilder();
+		final JsonStringEncoder encoder = JsonStringEncoder.getInstance();
+		String sep = "";
+		out.append("{\"counters\": {");
+		for(Map.Entry<String, CounterImpl> e : new TreeMap<String, CounterImpl>(counters).entrySet()) {
+			out.append(sep).append('"');
+			encoder.quoteAsString(e.getKey(), out);
+			out.append("\": ").append(e.getValue().count());
+			sep = ", ";
+		}
+		sep = "";
+		out.append("}, \"histograms\": {");
+		for(Map.Entry<String, HistogramImpl> e : new TreeMap<String, HistogramImpl>(histograms).entrySet()) {
+			HistogramImpl h = e.getValue();
+			out.append(sep).append('"');
+			encoder.quoteAsString(e.getKey(), out);
+			out.append("\": {\"count\": ").append(h.count())
+				.append(", \"mean\": ").append((long)h.mean())
+				.append(", \"p50\": ").append(h.valueAtPercentile(50.0))
+				.append(", \"p90\": ").append(h.valueAtPercentile(90.0))
+				.append(", \"p99\": ").append(h.valueAtPercentile(99.0))
+				.append(", \"p999\": ").append(h.valueAtPercentile(99.9))
+				.append(", \"max\": ").append(h.max()).append('}');
+			sep = ", ";
+		}
+		return out.append("}}");
+	}
+
+
+	/**
+	 * Counter that adds to cells striped across threads.
+	 */
+	private static final class CounterImpl implements Counter {
+		private final LongAdder adder = new LongAdder();
+
+		@Override
+		public void increment() { adder.increment(); }
+
+		@Override
+		public void add(long n) { adder.add(n); }
+
+		@Override
+		public long count() { return adder.sum(); }
+	}
+
+
+	/**
+	 * Histogram with log-linear buckets. Values below {@code 2 * SUB_BUCKETS}
+	 * have their own bucket, larger values are split into {@code SUB_BUCKETS}
+	 * buckets per power of two, which bounds the relative error of reported
+	 * values to {@code 1 / SUB_BUCKETS} (about 3%).
+	 */
+	private static final class HistogramImpl implements Histogram {
+
+		/**
+		 * Sub-buckets per power of two, {@code 2^SUB_BITS}.
+		 */
+		private static final int SUB_BITS = 5;
+		private static final int SUB_BUCKETS = 1 << SUB_BITS;
+
+		/**
+		 * Bucket counts covering all non-negative long values.
+		 */
+		private final AtomicLongArray buckets = new AtomicLongArray((64 - SUB_BITS) * SUB_BUCKETS);
+		private final LongAdder count = new LongAdder();
+		private final LongAdder sum = new LongAdder();
+		private final AtomicLong max = new AtomicLong();
+
+		@Override
+		public void record(long value) {
+			final long v = Math.max(value, 0L);
+			buckets.incrementAndGet(bucket(v));
+			count.increment();
+			sum.add(v);
+			if(v > max.get()) {
+				max.accumulateAndGet(v, Math::max);
+			}
+		}
+
+		@Override
+		public long count() { return count.sum(); }
+
+		@Override
+		public long max() { return max.get(); }
+
+		@Override
+		public double mean() {
+			long n = count.sum();
+			return n > 0 ? (double)sum.sum() / n : 0.0;
+		}
+
+		@Override
+		public long valueAtPercentile(double percentile) {
+			if(percentile < 0.0 || percentile > 100.0)
+				throw new IllegalArgumentException("percentile out of range [0.0, 100.0]: " + percentile);
+			//
+			final long[] snapshot = new long[buckets.length()];
+			long total = 0L;
+			for(int i=0; i < snapshot.length; i++) {
+				total += snapshot[i] = buckets.get(i);
+			}
+			final long rank = Math.max(1L, (long)Math.ceil(percentile / 100.0 * total));
+			long seen = 0L;
+			for(int i=0; i < snapshot.length; i++) {
+				if((seen += snapshot[i]) >= rank) {
+					return Math.min(highestEquivalentValue(i), max.get());
+				}
+			}
+			return 0L;
+		}
+
+		/**
+		 * Bucket index of value: magnitude {@code m} (highest bit) selects the
+		 * range, the {@code SUB_BITS} bits below the highest bit the sub-bucket.
+		 *
+		 * @param v non-negative value.
+		 * @return bucket index.
+		 */
+		private static int bucket(long v) {
+			if(v < SUB_BUCKETS)
+				return (int)v;
+			final int m = 63 - Long.numberOfLeadingZeros(v);
+			return ((m - SUB_BITS + 1) << SUB_BITS) + (int)(v >>> (m - SUB_BITS)) - SUB_BUCKETS;
+		}
+
+		/**
+		 * Highest value that falls into bucket.
+		 *
+		 * @param i bucket index.
+		 * @return highest value of bucket.
+		 */
+		private static long highestEquivalentValue(int i) {
+			if(i < SUB_BUCKETS)
+				return i;
+			final int shift = (i >>> SUB_BITS) - 1;
+			final long sub = (i & (SUB_BUCKETS - 1)) + SUB_BUCKETS;
+			return ((sub + 1) << shift) - 1;
+		}
+	}
+
+
+	/**
+	 * Format duration in nanoseconds with unit ns, us, ms or s.
+	 *
+	 * @param nanos duration in nanoseconds.
+	 * @return formatted duration, e.g. "8.4ms".
+	 */
+	private static String duration(long nanos) {
+		return nanos < 1_000L ? nanos + "ns"
+			: nanos < 1_000_000L ? String.format(Locale.ROOT, "%.1fus", nanos / 1e3)
+			: nanos < 1_000_000_000L ? String.format(Locale.ROOT, "%.1fms", nanos / 1e6)
+			: String.format(Locale.ROOT, "%.2fs", nanos / 1e9);
+	}
+
+
+	/**
+	 * Check name argument.
+	 *
+	 * @param name name of metric.
+	 * @return name argument (same name).
+	 * @throws IllegalArgumentException when name is null or empty "".
+	 */
+	private static String requireName(String name) {
+		if(name == null || name.isEmpty())
+			throw new IllegalArgumentException("metric name is null or empty.");
+		return name;
+	}
+}
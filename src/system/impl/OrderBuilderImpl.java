@@ -1,7 +1,11 @@
 package system.impl;
 
+import java.util.Collection;
+import java.util.Collections;
+
 import datamodel.Article;
 import datamodel.Customer;
+import datamodel.Order;
 import datamodel.TAX;
 import system.DatamodelFactory;
 import system.OrderBuilder;
@@ -159,4 +163,15 @@ class OrderBuilderImpl implements OrderBuilder {
 		//
 		return this;
 	}
+
+
+	/**
+	 * Sample orders have no article updates.
+	 * 
+	 * @return empty collection, no order is affected.
+	 */
+	@Override
+	public Collection<Order> updateArticles() {
+		return Collections.emptyList();
+	}
 }
@@ -2,20 +2,57 @@ package system.impl;
 
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Optional;
 import java.util.Properties;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
-import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.deser.DeserializationProblemHandler;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
 
 import datamodel.Article;
 import datamodel.Customer;
 import datamodel.Order;
+import datamodel.StringPool;
 import datamodel.TAX;
 import system.DatamodelFactory;
+import system.Metrics;
 import system.OrderBuilder;
 
 
@@ -43,6 +80,181 @@ class OrderBuilderJSONImpl implements OrderBuilder {
 	 */
 	private boolean loaded = false;
 
+	/**
+	 * Metrics component that records read time per file ("json.read.&lt;file&gt;"),
+	 * snapshot read and write times ("snapshot.read", "snapshot.write") and
+	 * counts dropped records ("json.dropped").
+	 */
+	private final Metrics metrics;
+	private final Metrics.Counter dropped;
+
+	/**
+	 * Pool that deduplicates strings of loaded objects that repeat across
+	 * records (names, descriptions, article ids, contacts).
+	 */
+	private final StringPool pool = StringPool.getShared();
+
+	/**
+	 * Shared, immutable and thread-safe readers that bind JSON objects to
+	 * {@link CustomerJSON}, {@link ArticleJSON} and {@link OrderJSON} records.
+	 * Readers are created once with their root deserializers resolved such
+	 * that Jackson's caches are reused by every read. Fields of the wrong
+	 * type are bound leniently by {@link LenientFields}.
+	 */
+	private static final ObjectMapper mapper = new ObjectMapper()
+			.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+			.addHandler(new LenientFields());
+	private static final ObjectReader customerReader = mapper.readerFor(CustomerJSON.class);
+	private static final ObjectReader articleReader = mapper.readerFor(ArticleJSON.class);
+	private static final ObjectReader orderReader = mapper.readerFor(OrderJSON.class);
+
+	/**
+	 * Shape of Customer objects in JSON:
+	 * {@code {"id": 892474, "name": "Eric Meyer", "contacts": ["eric98@yahoo.com"]}}.
+	 */
+	record CustomerJSON(Long id, String name, List<String> contacts) { }
+
+	/**
+	 * Shape of Article objects in JSON:
+	 * {@code {"id": "SKU-458362", "description": "Tasse", "price": 299, "tax": "reduced"}}.
+	 */
+	record ArticleJSON(String id, String description, Long price, String tax) { }
+
+	/**
+	 * Shape of Order objects in JSON:
+	 * {@code {"id": 8592356245, "customer_id": 892474, "items": [ ... ]}}.
+	 */
+	record OrderJSON(String id, @JsonProperty("customer_id") Long customerId, List<ItemJSON> items) { }
+
+	/**
+	 * Shape of order items in JSON: {@code {"article_id": "SKU-638035", "units": 4}}.
+	 * Regular article ids are bound to their {@link ArticleIdCodec} key without
+	 * creating a String, articleId is only bound for irregular ids.
+	 */
+	@JsonDeserialize(using = ItemJSONDeserializer.class)
+	record ItemJSON(long articleKey, String articleId, Integer units) { }
+
+	/**
+	 * Order record joined against customers and articles: customer, and
+	 * articles with units of items. Customer is null when the order is invalid.
+	 */
+	record JoinedOrder(OrderJSON json, Customer customer, List<Article> articles, int[] units) { }
+
+	/**
+	 * JSON record bound from an array element with the byte offset of the
+	 * element in its file, such that the original text of dropped elements
+	 * can be reported without keeping the text of every element.
+	 * 
+	 * @param <J> generic type of JSON record.
+	 */
+	record JsonElement<J>(J record, String fileName, long offset) {
+
+		/**
+		 * Read text of element again from file, e.g. to report a dropped element.
+		 * 
+		 * @return compact JSON text of element, text of record when file cannot be read.
+		 */
+		String text() {
+			try(FileChannel channel = FileChannel.open(Path.of(fileName))) {
+				return mapper.readTree(Channels.newInputStream(channel.position(offset))).toString();
+			//
+			} catch(IOException e) {
+				return String.valueOf(record);
+			}
+		}
+	}
+
+	/**
+	 * Number of order records parsed into one chunk.
+	 */
+	private static final int CHUNK = 1024;
+
+	/**
+	 * Number of chunks parsed ahead of orders created by a parallel load.
+	 */
+	private static final int AHEAD = 8;
+
+	/**
+	 * Binds fields of the wrong type to null such that only the field is
+	 * skipped, not the whole record: e.g. contacts that are not an array,
+	 * units that are not a number or items that are not objects. Records
+	 * bound from array elements are still dropped when the element is not
+	 * an object.
+	 */
+	static final class LenientFields extends DeserializationProblemHandler {
+
+		@Override
+		public Object handleUnexpectedToken(DeserializationContext ctxt, JavaType targetType,
+				JsonToken t, JsonParser p, String failureMsg) throws IOException {
+			if(isElement(targetType.getRawClass()))
+				return NOT_HANDLED;
+			p.skipChildren();	// skip object or array of field, no-op for scalars
+			return null;
+		}
+
+		@Override
+		public Object handleWeirdStringValue(DeserializationContext ctxt, Class<?> targetType,
+				String valueToConvert, String failureMsg) {
+			return isElement(targetType) ? NOT_HANDLED : null;
+		}
+
+		@Override
+		public Object handleWeirdNumberValue(DeserializationContext ctxt, Class<?> targetType,
+				Number valueToConvert, String failureMsg) {
+			return isElement(targetType) ? NOT_HANDLED : null;
+		}
+
+		private static boolean isElement(Class<?> type) {
+			return type == CustomerJSON.class || type == ArticleJSON.class || type == OrderJSON.class;
+		}
+	}
+
+	/**
+	 * Deserializer of {@link ItemJSON} records that encodes "article_id" from
+	 * the text buffer of the parser. Other properties bind as with the default
+	 * record deserializer, unknown properties are skipped.
+	 */
+	static final class ItemJSONDeserializer extends StdDeserializer<ItemJSON> {
+
+		private static final long serialVersionUID = 1L;
+
+		ItemJSONDeserializer() {
+			super(ItemJSON.class);
+		}
+
+		@Override
+		public ItemJSON deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+			JsonToken t = p.currentToken();
+			if(t == JsonToken.START_OBJECT) {
+				t = p.nextToken();
+			}
+			long articleKey = ArticleIdCodec.IRREGULAR;
+			String articleId = null;
+			Integer units = null;
+			for( ; t == JsonToken.FIELD_NAME; t = p.nextToken()) {
+				String field = p.currentName();
+				JsonToken value = p.nextToken();
+				if(field.equals("article_id")) {
+					if(value == JsonToken.VALUE_STRING) {
+						articleKey = ArticleIdCodec.encode(p.getTextCharacters(), p.getTextOffset(), p.getTextLength());
+						articleId = articleKey == ArticleIdCodec.IRREGULAR ? p.getText() : null;
+					} else if(value != JsonToken.VALUE_NULL) {
+						String id = ctxt.readValue(p, String.class);	// scalar coerced to String
+						articleKey = ArticleIdCodec.encode(id);
+						articleId = articleKey == ArticleIdCodec.IRREGULAR ? id : null;
+					}
+				} else if(field.equals("units")) {
+					units = value == JsonToken.VALUE_NULL ? null : ctxt.readValue(p, Integer.class);
+				} else {
+					p.skipChildren();
+				}
+			}
+			if(t != JsonToken.END_OBJECT)
+				return (ItemJSON)ctxt.handleUnexpectedToken(ItemJSON.class, p);
+			return new ItemJSON(articleKey, articleId, units);
+		}
+	}
+
 
 	/**
 	 * Constructor with injected dependencies for DatamodelFactory component.
@@ -50,8 +262,22 @@ class OrderBuilderJSONImpl implements OrderBuilder {
 	 * @param factory injected dependency of factory from which objects are created.
 	 */
 	OrderBuilderJSONImpl(DatamodelFactory factory, Properties properties) {
+		this(factory, properties, new MetricsImpl());
+	}
+
+
+	/**
+	 * Constructor with injected dependencies for DatamodelFactory and Metrics components.
+	 * 
+	 * @param factory injected dependency of factory from which objects are created.
+	 * @param properties application properties.
+	 * @param metrics injected dependency of Metrics component.
+	 */
+	OrderBuilderJSONImpl(DatamodelFactory factory, Properties properties, Metrics metrics) {
 		this.factory = factory;
 		this.properties = properties;
+		this.metrics = metrics;
+		this.dropped = metrics.counter("json.dropped");
 	}
 
 
@@ -77,6 +303,32 @@ class OrderBuilderJSONImpl implements OrderBuilder {
 	}
 
 
+	/**
+	 * Apply article updates from the JSON file specified in application.properties
+	 * as delta to loaded articles without reloading customers and orders. The file
+	 * has the same schema as the articles file and is streamed. Articles with ids
+	 * that exist are updated in place, other articles are created.
+	 * <p>
+	 * Example to update articles from "data/articles_price_update.json":
+	 * <pre>
+	 * data.path = data
+	 * data.articles.update = articles_price_update.json
+	 * </pre>
+	 * 
+	 * @return orders with articles of changed price or tax rate, whose totals are affected.
+	 */
+	@Override
+	public Collection<Order> updateArticles() {
+		final Set<Order> affected = new LinkedHashSet<Order>();
+		if(properties.getProperty("data.articles.update") != null) {
+			String updateFile = buildFilePath("data.path", "data.articles.update");
+			long updated = read(updateFile, articleReader, (ArticleJSON aj) -> updateArticle(aj, affected));
+			metrics.counter("json.updated").add(updated);
+		}
+		return affected;
+	}
+
+
 	/**
 	 * Load {@link Customer}, {@link Article} and {@link Order} objects from
 	 * JSON files specified in application.properties. Method loads objects
@@ -89,25 +341,267 @@ class OrderBuilderJSONImpl implements OrderBuilder {
 	 * data.articles = articles.json
 	 * data.orders = orders.json
 	 * </pre>
+	 * Files are loaded in parallel with property {@code data.parallel = true}.
+	 * <p>
+	 * With property {@code data.snapshot = snapshot.bin}, objects are loaded
+	 * from the binary {@link DatamodelSnapshot} "data/snapshot.bin" when it is
+	 * newer than the JSON files. Otherwise JSON files are loaded and the
+	 * snapshot is (re-)written for the next start.
+	 * </p>
+	 * <p>
+	 * Repeated strings are deduplicated through the shared {@link StringPool},
+	 * hits and estimated heap saved are counted as "strings.dedup.hits" and
+	 * "strings.dedup.saved.bytes".
+	 * </p>
 	 * 
 	 * @param props application.properties.
 	 * @return chainable self-reference.
+	 * @throws IllegalStateException when a parallel load failed, nothing is marked loaded.
 	 */
 	private OrderBuilder loadFromJSON(Properties props) {
 		if( ! loaded) {
 			String customerFile = buildFilePath("data.path", "data.customers");
 			String articleFile = buildFilePath("data.path", "data.articles");
 			String orderFile = buildFilePath("data.path", "data.orders");
+			Path snapshotFile = props.getProperty("data.snapshot") != null ?
+					Path.of(buildFilePath("data.path", "data.snapshot")) : null;
 			//
-			read(customerFile, jn -> createCustomer(jn));
-			read(articleFile, jn -> createArticle(jn));
-			read(orderFile, jn -> createOrder(jn));
+			long hits = pool.hits(), savedBytes = pool.savedBytes();
+			boolean fromSnapshot = snapshotFile != null
+					&& isNewer(snapshotFile, customerFile, articleFile, orderFile) && loadSnapshot(snapshotFile);
+			//
+			if( ! fromSnapshot) {
+				if(Boolean.parseBoolean(props.getProperty("data.parallel"))) {
+					loadParallel(customerFile, articleFile, orderFile);
+				} else {
+					read(customerFile, customerReader, (CustomerJSON cj) -> createCustomer(factory, cj));
+					read(articleFile, articleReader, (ArticleJSON aj) -> createArticle(factory, aj));
+					read(orderFile, orderReader, (OrderJSON oj) -> createOrder(factory, oj));
+				}
+				if(snapshotFile != null) {
+					writeSnapshot(snapshotFile);
+				}
+			}
+			metrics.counter("strings.dedup.hits").add(pool.hits() - hits);
+			metrics.counter("strings.dedup.saved.bytes").add(pool.savedBytes() - savedBytes);
 			loaded = true;
 		}
 		return this;
 	}
 
 
+	/**
+	 * Load objects from binary snapshot into factory. All objects are copied
+	 * onto the heap, load time is recorded as "snapshot.read". A damaged
+	 * snapshot is rejected before objects are created, JSON files are then
+	 * loaded instead and the snapshot is rewritten.
+	 * 
+	 * @param snapshotFile path to snapshot file.
+	 * @return true when snapshot was loaded, false when snapshot could not be opened or loaded.
+	 */
+	private boolean loadSnapshot(Path snapshotFile) {
+		long start = System.nanoTime();
+		try {
+			DatamodelSnapshot.open(snapshotFile).loadInto(factory);
+			metrics.histogram("snapshot.read").recordSince(start);
+			return true;
+		//
+		} catch(IOException | RuntimeException e) {
+			System.err.println("Snapshot not loaded: " + e.getMessage());
+			return false;
+		}
+	}
+
+
+	/**
+	 * Write objects of factory to binary snapshot, write time is recorded
+	 * as "snapshot.write".
+	 * 
+	 * @param snapshotFile path to snapshot file.
+	 */
+	private void writeSnapshot(Path snapshotFile) {
+		long start = System.nanoTime();
+		try {
+			DatamodelSnapshot.write(factory, snapshotFile);
+			metrics.histogram("snapshot.write").recordSince(start);
+		//
+		} catch(IOException e) {
+			System.err.println("Snapshot not written: " + e.getMessage());
+		}
+	}
+
+
+	/**
+	 * Test whether file exists and was modified after other files that exist.
+	 * 
+	 * @param file file to test.
+	 * @param others paths to other files.
+	 * @return true when file exists and is newer than existing other files.
+	 */
+	private static boolean isNewer(Path file, String... others) {
+		try {
+			if( ! Files.exists(file))
+				return false;
+			FileTime modified = Files.getLastModifiedTime(file);
+			for(String other : others) {
+				Path path = Path.of(other);
+				if(Files.exists(path) && Files.getLastModifiedTime(path).compareTo(modified) >= 0)
+					return false;
+			}
+			return true;
+		//
+		} catch(IOException e) {
+			return false;
+		}
+	}
+
+
+	/**
+	 * Load customers, articles and orders from JSON files in parallel.
+	 * <p>
+	 * Customers and articles do not depend on each other and are created
+	 * concurrently through a synchronized factory, or directly through a
+	 * {@link ConcurrentDatamodelFactory}. Orders are parsed at the same time
+	 * in chunks of {@value #CHUNK} records. Once all customers and articles
+	 * exist, no other thread creates objects and the calling thread joins
+	 * parsed chunks against customers and articles of the factory without
+	 * locking and creates orders in file order.
+	 * </p>
+	 * <p>
+	 * Memory does not grow with the size of the orders file. At most
+	 * {@value #AHEAD} chunks are parsed ahead of orders created, the parser
+	 * blocks when more chunks are pending.
+	 * </p>
+	 * <p>
+	 * When a task fails or the calling thread is interrupted, all tasks are
+	 * cancelled and an unchecked exception is thrown such that the partial
+	 * load is neither marked as loaded nor written to a snapshot.
+	 * </p>
+	 * 
+	 * @param customerFile path to customers JSON file.
+	 * @param articleFile path to articles JSON file.
+	 * @param orderFile path to orders JSON file.
+	 * @throws IllegalStateException when a task failed.
+	 * @throws CancellationException when the calling thread was interrupted.
+	 */
+	private void loadParallel(String customerFile, String articleFile, String orderFile) {
+		final DatamodelFactory sink = factory instanceof ConcurrentDatamodelFactory ? factory
+				: new SynchronizedDatamodelFactory(factory);
+		final BlockingQueue<List<JsonElement<OrderJSON>>> parsed = new ArrayBlockingQueue<List<JsonElement<OrderJSON>>>(AHEAD);
+		final List<JsonElement<OrderJSON>> end = new ArrayList<JsonElement<OrderJSON>>();
+		final ExecutorService readers = Executors.newFixedThreadPool(3);
+		boolean completed = false;
+		try {
+			final Future<Long> customers = readers.submit(() -> read(customerFile, customerReader, cancellable((CustomerJSON cj) -> createCustomer(sink, cj))));
+			final Future<Long> articles = readers.submit(() -> read(articleFile, articleReader, cancellable((ArticleJSON aj) -> createArticle(sink, aj))));
+			final Future<?> orders = readers.submit(() -> {
+				try {
+					final Chunker chunker = new Chunker(parsed::put);
+					read(orderFile, orderReader, (Stream<JsonElement<OrderJSON>> elements) -> {
+						elements.forEach(chunker);
+						chunker.flush();
+						return 0L;
+					});
+				} finally {
+					parsed.put(end);
+				}
+				return null;
+			});
+			customers.get();	// join after all customers and articles exist
+			articles.get();
+			//
+			// join and create orders in file order
+			for(List<JsonElement<OrderJSON>> chunk = parsed.take(); chunk != end; chunk = parsed.take()) {
+				create(chunk.stream(), (OrderJSON oj) -> createOrder(factory, oj));
+			}
+			orders.get();
+			completed = true;
+		//
+		} catch(InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new CancellationException("parallel load interrupted.");
+		//
+		} catch(ExecutionException e) {
+			throw new IllegalStateException("parallel load failed: " + e.getCause(), e.getCause());
+		//
+		} finally {
+			if(completed) {
+				readers.shutdown();
+			} else {
+				readers.shutdownNow();	// stop tasks from creating objects of a failed load
+			}
+		}
+	}
+
+
+	/**
+	 * Wrap creator such that it stops reading when the reading thread is
+	 * interrupted, e.g. when a parallel load is cancelled.
+	 * 
+	 * @param <J> generic type of JSON record.
+	 * @param <T> generic type of object to create.
+	 * @param creator lambda to create object.
+	 * @return creator that throws {@link CancellationException} when interrupted.
+	 */
+	private static <J, T> Function<J,Optional<T>> cancellable(Function<J,Optional<T>> creator) {
+		return jsonRecord -> {
+			if(Thread.currentThread().isInterrupted())
+				throw new CancellationException("reading interrupted.");
+			return creator.apply(jsonRecord);
+		};
+	}
+
+
+	/**
+	 * Collects parsed order elements into chunks that are passed on when full.
+	 * Stops reading with {@link CancellationException} when the reading thread
+	 * is interrupted.
+	 */
+	private static final class Chunker implements Consumer<JsonElement<OrderJSON>> {
+
+		/**
+		 * Receiver of full chunks, may block until chunk is accepted.
+		 */
+		interface ChunkConsumer {
+			void accept(List<JsonElement<OrderJSON>> chunk) throws InterruptedException;
+		}
+
+		private final ChunkConsumer consumer;
+		private List<JsonElement<OrderJSON>> chunk = new ArrayList<JsonElement<OrderJSON>>(CHUNK);
+
+		Chunker(ChunkConsumer consumer) {
+			this.consumer = consumer;
+		}
+
+		@Override
+		public void accept(JsonElement<OrderJSON> element) {
+			if(Thread.currentThread().isInterrupted())
+				throw new CancellationException("reading interrupted.");
+			chunk.add(element);
+			if(chunk.size() == CHUNK) {
+				flush();
+			}
+		}
+
+		/**
+		 * Pass on collected elements as chunk unless no elements were collected.
+		 *
+		 * @throws CancellationException when interrupted while chunk is passed on.
+		 */
+		void flush() {
+			if(chunk.size() > 0) {
+				try {
+					consumer.accept(chunk);
+				} catch(InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new CancellationException("interrupted while passing on parsed orders.");
+				}
+				chunk = new ArrayList<JsonElement<OrderJSON>>(CHUNK);
+			}
+		}
+	}
+
+
 	/**
 	 * Build path to file by keys looked up in application.properties.
 	 * Example: "data.path = data" and "data.customers = customers.json"
@@ -129,25 +623,26 @@ class OrderBuilderJSONImpl implements OrderBuilder {
 
 
 	/**
-	 * Create Customer object from JsonNode.
+	 * Create Customer object from JSON record.
 	 * 
-	 * @param jn JsonNode of Customer object to create.
+	 * @param factory factory from which Customer object is created.
+	 * @param cj JSON record of Customer object to create.
 	 * @return Optional with created Customer object.
 	 */
-	private Optional<Customer> createCustomer(final JsonNode jn) {
+	private Optional<Customer> createCustomer(final DatamodelFactory factory, final CustomerJSON cj) {
 		//
-		long id = Optional.ofNullable(jn.get("id")).map(jn2 -> jn2.asLong()).orElse(-1L);
-		String name = Optional.ofNullable(jn.get("name")).map(jn2 -> jn2.asText()).orElse(null);
+		long id = cj.id() != null ? cj.id() : -1L;
+		String name = cj.name();
 		//
 		if(id >= 0 && name != null) {
 			//
 			Customer customer = factory.createCustomer(name).setId(id);
 			//
-			Optional.ofNullable(jn.get("contacts"))
-				.filter(ja -> ja.isArray())
-				.ifPresent(ja ->
-					ja.forEach(jn2 -> customer.addContact(jn2.asText()))
-				);
+			if(cj.contacts() != null) {
+				cj.contacts().stream()
+					.filter(contact -> contact != null)		// contact of wrong type is skipped
+					.forEach(contact -> customer.addContact(pool.intern(contact)));
+			}
 			return Optional.of(customer);
 		}
 		return Optional.empty();
@@ -155,21 +650,22 @@ class OrderBuilderJSONImpl implements OrderBuilder {
 
 
 	/**
-	 * Create Article object from JsonNode.
+	 * Create Article object from JSON record.
 	 * 
-	 * @param jn JsonNode of Article object to create.
+	 * @param factory factory from which Article object is created.
+	 * @param aj JSON record of Article object to create.
 	 * @return Optional with created Article object.
 	 */
-	private Optional<Article> createArticle(final JsonNode jn) {
+	private Optional<Article> createArticle(final DatamodelFactory factory, final ArticleJSON aj) {
 		//
-		String id = Optional.ofNullable(jn.get("id")).map(jn2 -> jn2.asText()).orElse(null);
-		String description = Optional.ofNullable(jn.get("description")).map(jn2 -> jn2.asText()).orElse(null);
-		long unitPrice = Optional.ofNullable(jn.get("price")).map(jn2 -> jn2.asLong()).orElse(-1L);
-		String tax = Optional.ofNullable(jn.get("tax")).map(jn2 -> jn2.asText()).orElse("");
+		String id = aj.id();
+		String description = aj.description();
+		long unitPrice = aj.price() != null ? aj.price() : -1L;
+		String tax = aj.tax() != null ? aj.tax() : "";
 		//
 		if(id != null && id.length() > 0 && description != null && unitPrice >= 0) {
 			//
-			Article article = factory.createArticle(description, unitPrice).setId(id);
+			Article article = factory.createArticle(pool.intern(description), unitPrice).setId(pool.intern(id));
 			if(tax.equals("reduced")) {
 				article.setTax(TAX.GER_VAT_REDUCED);
 			}
@@ -181,72 +677,199 @@ class OrderBuilderJSONImpl implements OrderBuilder {
 
 
 	/**
-	 * Create Order object from JsonNode.
+	 * Update existing Article object from JSON record in place, create Article
+	 * object when no article with the id exists. The tax rate is only changed
+	 * when the record has a tax field. Orders that have items of an article
+	 * with changed price or tax rate are collected as affected.
 	 * 
-	 * @param jn JsonNode of Order object to create.
+	 * @param aj JSON record of Article object to update.
+	 * @param affected collects orders affected by the update.
+	 * @return Optional with updated or created Article object.
+	 */
+	private Optional<Article> updateArticle(final ArticleJSON aj, final Set<Order> affected) {
+		//
+		String id = aj.id();
+		Optional<Article> existing = id != null && id.length() > 0 ? factory.findArticleById(id) : Optional.empty();
+		if(existing.isEmpty()) {
+			return createArticle(factory, aj);
+		}
+		Article article = existing.get();
+		long unitPrice = aj.price() != null ? aj.price() : -1L;
+		TAX tax = aj.tax() == null ? article.getTax()		// keep tax rate when record has no tax
+				: aj.tax().equals("reduced") ? TAX.GER_VAT_REDUCED : TAX.GER_VAT;
+		//
+		if(aj.description() != null && aj.description().length() > 0 && unitPrice >= 0) {
+			//
+			article.setDescription(pool.intern(aj.description()));
+			if(article.getUnitPrice() != unitPrice || article.getTax() != tax) {
+				article.setUnitPrice(unitPrice).setTax(tax);
+				affected.addAll(factory.findOrdersByArticle(id));
+			}
+			return Optional.of(article);
+		}
+		return Optional.empty();
+	}
+
+
+	/**
+	 * Create Order object from JSON record.
+	 * 
+	 * @param factory factory from which Order object is created.
+	 * @param oj JSON record of Order object to create.
 	 * @return Optional with created Order object.
 	 */
-	private Optional<Order> createOrder(final JsonNode jn) {
+	private Optional<Order> createOrder(final DatamodelFactory factory, final OrderJSON oj) {
+		return createOrder(factory, joinOrder(factory, oj));
+	}
+
+
+	/**
+	 * Join JSON record of order against customers and articles of factory.
+	 * Items with invalid units or unknown articles are left out.
+	 * 
+	 * @param factory factory in which customer and articles are looked up.
+	 * @param oj JSON record of Order object.
+	 * @return joined order, with null customer when order is invalid.
+	 */
+	private JoinedOrder joinOrder(final DatamodelFactory factory, final OrderJSON oj) {
 		//
-		String id = Optional.ofNullable(jn.get("id")).map(jn2 -> jn2.asText()).orElse(null);
-		long customer_id = Optional.ofNullable(jn.get("customer_id")).map(jn2 -> jn2.asLong()).orElse(-1L);
+		String id = oj.id();
+		long customer_id = oj.customerId() != null ? oj.customerId() : -1L;
 		Optional<Customer> copt = factory.findCustomerById(customer_id);
-		boolean hasItems = Optional.ofNullable(jn.get("items")).map(ja -> ja.isArray() && ja.size() > 0).orElse(false);
+		boolean hasItems = oj.items() != null && oj.items().size() > 0;
 		//
 		if(id != null && id.length() > 0 && copt.isPresent() && hasItems) {
-			Order order = factory.createOrder(copt.get()).setId(id);
-			jn.get("items").forEach(jn2 -> {
-				int units = Optional.ofNullable(jn2.get("units")).map(jn3 -> jn3.asInt()).orElse(-1);
-				Optional.ofNullable(jn2.get("article_id"))
-					.filter(jn3 -> units > 0)
-					.ifPresent(jn3 -> factory.findArticleById(jn3.asText())
-							.ifPresent(a -> order.addItem(a, units))
-					);
-			});
-			return Optional.of(order);
+			List<Article> articles = new ArrayList<Article>(oj.items().size());
+			int[] units = new int[oj.items().size()];
+			for(ItemJSON ij : oj.items()) {
+				int u = ij != null && ij.units() != null ? ij.units() : -1;
+				Optional<Article> article = Optional.empty();
+				if(u > 0 && ij.articleKey() != ArticleIdCodec.IRREGULAR) {
+					article = factory.findArticleByKey(ij.articleKey());
+				//
+				} else if(u > 0 && ij.articleId() != null) {
+					article = factory.findArticleById(ij.articleId());
+				}
+				if(article.isPresent()) {
+					units[articles.size()] = u;
+					articles.add(article.get());
+				}
+			}
+			return new JoinedOrder(oj, copt.get(), articles, units);
 		}
 		//
-		return Optional.empty();
+		return new JoinedOrder(oj, null, List.of(), new int[0]);
+	}
+
+
+	/**
+	 * Create Order object from joined order.
+	 * 
+	 * @param factory factory from which Order object is created.
+	 * @param jo joined order.
+	 * @return Optional with created Order object, empty when order is invalid.
+	 */
+	private Optional<Order> createOrder(final DatamodelFactory factory, final JoinedOrder jo) {
+		if(jo.customer() == null)
+			return Optional.empty();
+		//
+		Order order = factory.createOrder(jo.customer()).setId(jo.json().id());
+		for(int i=0; i < jo.articles().size(); i++) {
+			order.addItem(jo.articles().get(i), jo.units()[i]);
+		}
+		return Optional.of(order);
 	}
 
 
 	/**
 	 * Load objects from JSON File with array structure: [ {obj1}, {obj2}, ... ]
+	 * <p>
+	 * The file is streamed, only one array element is bound to a JSON record
+	 * at a time such that memory use does not depend on file size. Elements
+	 * that do not bind to the record are dropped.
+	 * </p>
 	 * 
+	 * @param <J> generic type of JSON record bound by reader.
 	 * @param <T> generic type of object to read from JSON.
 	 * @param jsonFileName name of the JSON file.
+	 * @param reader shared reader that binds array elements to JSON records.
 	 * @param creator lambda to create object from calling code.
 	 * @param limit limit number of objects to create.
 	 * @return number of objects created from JSON file.
 	 */
-	private <T> long read(String jsonFileName,
-		Function<JsonNode,Optional<T>> creator,
+	private <J, T> long read(String jsonFileName, ObjectReader reader,
+		Function<J,Optional<T>> creator,
 //		Consumer<T> collector,
 		Integer... limit )
 	{
+		int lim = Math.max( limit.length > 0? limit[0].intValue() : Integer.MAX_VALUE, 0 );
+		return read(jsonFileName, reader, (Stream<JsonElement<J>> elements) -> create(elements
+					//
+					// cut stream to limited number of objects
+					.limit(lim),
+					creator));
+	}
+
+
+	/**
+	 * Stream array elements of JSON File bound to JSON records to consumer.
+	 * 
+	 * @param <J> generic type of JSON record bound by reader.
+	 * @param jsonFileName name of the JSON file.
+	 * @param reader shared reader that binds array elements to JSON records.
+	 * @param consumer consumes stream of bound elements, returns number of objects created.
+	 * @return number of objects created from JSON file.
+	 */
+	private <J> long read(String jsonFileName, ObjectReader reader, ToLongFunction<Stream<JsonElement<J>>> consumer) {
 		if(jsonFileName==null)
 			return 0;
 		//
-		int lim = Math.max( limit.length > 0? limit[0].intValue() : Integer.MAX_VALUE, 0 );
 		long count = 0;
+		long start = System.nanoTime();
 		try (
 				// auto-close on exception, InputStream implements the java.lang.AutoClosable interface
 				InputStream fis = new FileInputStream(jsonFileName);
+				MappingIterator<J> elements = reader.readValues(fis);
 			) {
 				//
-				count = StreamSupport
-					// stream source: read JSON array and split into stream of JsonNode's
-					.stream(new ObjectMapper().readTree(fis).spliterator(), false)
-					//
-					// cut stream to limited number of objects
-					.limit(lim)
-					//
-					// map JsonNode to new Optional<T> Object
-					.map(jsonNode -> {
+				count = consumer.applyAsLong(StreamSupport
+					// stream source: bind JSON array element by element into stream of JSON records
+					.stream(arrayElements(elements, jsonFileName), false));
+			//
+			} catch(FileNotFoundException e) {
+				System.err.println("File not found: " + jsonFileName);
+			//
+			} catch(CancellationException e) {
+				throw e;	// creator was cancelled, e.g. parallel load interrupted
+			//
+			} catch(Exception e) {
+				e.printStackTrace();
+			}
+		//
+		metrics.histogram("json.read." + jsonFileName).recordSince(start);
+		return count;
+	}
+
+
+	/**
+	 * Create objects from a stream of JSON elements, invalid objects are dropped
+	 * and reported with the JSON text of their element.
+	 * 
+	 * @param <J> generic type of JSON record.
+	 * @param <T> generic type of object to create.
+	 * @param jsonElements stream of JSON elements.
+	 * @param creator lambda to create object from calling code.
+	 * @return number of objects created.
+	 */
+	private <J, T> long create(Stream<JsonElement<J>> jsonElements, Function<J,Optional<T>> creator) {
+		return jsonElements
+					// map JSON record to new Optional<T> Object
+					.map(jsonElement -> {
 						//
-						Optional<T> opt = creator.apply(jsonNode);
+						Optional<T> opt = creator.apply(jsonElement.record());
 						if( opt.isEmpty() ) {
-							System.out.println("dropping: " + jsonNode.toString());
+							dropped.increment();
+							System.out.println("dropping: " + jsonElement.text());
 						}
 						return opt;
 					})
@@ -265,14 +888,49 @@ class OrderBuilderJSONImpl implements OrderBuilder {
 					//
 					// collect and return valid article objects only
 					.count();
-			//
-			} catch(FileNotFoundException e) {
-				System.err.println("File not found: " + jsonFileName);
-			//
-			} catch(Exception e) {
-				e.printStackTrace();
+	}
+
+
+	/**
+	 * Create Spliterator over the elements of a JSON array that are bound one
+	 * at a time when the Spliterator advances. Elements that do not bind to
+	 * the JSON record are reported with their JSON text and skipped.
+	 * 
+	 * @param <J> generic type of JSON record.
+	 * @param elements iterator that binds array elements to JSON records.
+	 * @param jsonFileName name of the JSON file read by the iterator.
+	 * @return Spliterator over JSON elements.
+	 */
+	private <J> Spliterator<JsonElement<J>> arrayElements(final MappingIterator<J> elements, final String jsonFileName) {
+		return new Spliterators.AbstractSpliterator<JsonElement<J>>(Long.MAX_VALUE,
+				Spliterator.ORDERED | Spliterator.NONNULL)
+		{
+			@Override
+			public boolean tryAdvance(Consumer<? super JsonElement<J>> action) {
+				try {
+					while(elements.hasNextValue()) {
+						// parser is at the start token of the next element
+						long offset = elements.getParser().currentTokenLocation().getByteOffset();
+						J jsonRecord = null;
+						try {
+							jsonRecord = elements.nextValue();
+						//
+						} catch(JsonMappingException e) {
+							// iterator skips to next element with next hasNextValue()
+							System.out.println("dropping: " + new JsonElement<J>(null, jsonFileName, offset).text());
+							dropped.increment();
+						}
+						if(jsonRecord != null) {
+							action.accept(new JsonElement<J>(jsonRecord, jsonFileName, offset));
+							return true;
+						}
+					}
+					return false;
+				//
+				} catch(IOException e) {
+					throw new UncheckedIOException(e);
+				}
 			}
-		//
-		return count;
+		};
 	}
 }
@@ -1,16 +1,18 @@
 package system.impl;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.function.Consumer;
 import java.util.function.Function;
-import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import application.Application_E1;
 import datamodel.*;
 import system.Calculator;
 import system.Formatter;
+import system.Metrics;
 import system.Printer;
 import system.TablePrinter;
 import system.TablePrinter.Builder;
@@ -20,101 +22,238 @@ class PrinterImpl implements Printer {
     //
     private final Calculator calculator;
     private final Formatter formatter;
+    private final Metrics metrics;
 
     PrinterImpl(Calculator calculator, Formatter formatter) {
+        this(calculator, formatter, new MetricsImpl());
+    }
+
+    PrinterImpl(Calculator calculator, Formatter formatter, Metrics metrics) {
         this.calculator = calculator;
         this.formatter = formatter;
+        this.metrics = metrics;
     }
 
     @Override
     public TablePrinter createTablePrinter(StringBuffer sb, Consumer<Builder> builder) {
-        // TODO Auto-generated method stub
-        return new TablePrinterImpl(sb, builder);
+        return new TablePrinterImpl(sb == null ? new StringBuffer() : sb, builder, metrics);
     }
 
+    @Override
+    public TablePrinter createTablePrinter(Appendable out, Consumer<Builder> builder) {
+        return new TablePrinterImpl(out, builder, metrics);
+    }
+
+    /*
+     * StringBuffer methods are adapters of Appendable methods.
+     */
+
     @Override
     public StringBuffer printCustomer(StringBuffer sb, Customer c) {
-        // TODO Auto-generated method stub
-        if (c == null)
-            return sb;
-        //
-        final StringBuffer contacts = new StringBuffer();
-        IntStream.range(0, c.contactsCount()).forEach(i ->
-                contacts.append(i == 0 ? "" : ", ").append(c.getContacts()[i])
-        );
-        //
-        int nameStyle = 0;
-        return (sb == null ? new StringBuffer() : sb)
-                .append(String.format("| %6d ", c.getId()))
-                .append(String.format("| %-31s", formatter.fmtName(c.getFirstName(), c.getLastName(), nameStyle)))
-                .append(String.format("| %-44s ", contacts))
-                .append("|\n");
+        return c == null ? sb : appendCustomer(sb == null ? new StringBuffer() : sb, c);
     }
 
     @Override
     public StringBuffer printCustomers(StringBuffer sb, Collection<Customer> customers) {
-        // TODO Auto-generated method stub
-        if (customers == null)
-            return sb;
-        //
-        final StringBuffer sb_ = sb == null ? new StringBuffer() : sb;
-//		var cit = customers.iterator();
-//		while(cit.hasNext()) {		// iterate through Customer collection
-//			Customer c = cit.next();
-//			printCustomer(sb, c);		// format each Customer object as line into StringBuffer
-//		}
-//		return sb;
-        return process(sb_, customers, s -> s, c -> printCustomer(sb_, c));    // calling generic print method
+        return customers == null ? sb : appendCustomers(sb == null ? new StringBuffer() : sb, customers);
     }
 
     @Override
     public StringBuffer printArticle(StringBuffer sb, Article a) {
-        // TODO Auto-generated method stub
-        if (a == null)
-            return sb;
-        //
-        return (sb == null ? new StringBuffer() : sb)
-                .append(String.format("| %10s ", a.getId()))
-                .append(String.format("| %-27s", a.getDescription()))
-                .append(String.format("| %6d ", a.getUnitPrice())).append("\u20ac")    // Unicode for Euro
-                .append(String.format("| %4s MwSt", a.getTax() == TAX.GER_VAT_REDUCED ? "7%" : "19%"))
-                .append("|\n");
+        return a == null ? sb : appendArticle(sb == null ? new StringBuffer() : sb, a);
     }
 
     @Override
     public StringBuffer printArticles(StringBuffer sb, Collection<Article> articles) {
-        // TODO Auto-generated method stub
-        if (articles == null)
-            return sb;
-        //
-        final StringBuffer sb_ = sb == null ? new StringBuffer() : sb;
-        return process(sb_, articles, a -> printArticle(sb_, a));
+        return articles == null ? sb : appendArticles(sb == null ? new StringBuffer() : sb, articles);
     }
 
     @Override
     public StringBuffer printOrder(StringBuffer sb, Order order) {
-        // TODO Auto-generated method stub
-        if (order == null)
-            return sb;
-        //
-        final String creationDate = formatter.fmtDate(order.getCreationDate(), 0, "");
-        final Customer c = order.getCustomer();
-        return (sb == null ? new StringBuffer() : sb)
-                .append(String.format("| %10s ", order.getId()))
-                .append(String.format("| %-27s", formatter.fmtName(c.getFirstName(), c.getLastName(), 0)))
-                .append(String.format("| %1d items ", order.itemsCount()))
-                .append(String.format("| created: %s ", creationDate))
-                .append("|\n");
+        return order == null ? sb : appendOrder(sb == null ? new StringBuffer() : sb, order);
     }
 
     @Override
     public StringBuffer printOrders(StringBuffer sb, Collection<Order> orders) {
-        // TODO Auto-generated method stub
-        if (orders == null)
-            return sb;
-        //
-        final StringBuffer sb_ = sb == null ? new StringBuffer() : sb;
-        return process(sb_, orders, a -> printOrder(sb_, a));
+        return orders == null ? sb : appendOrders(sb == null ? new StringBuffer() : sb, orders);
+    }
+
+    @Override
+    public <A extends Appendable> A printCustomer(A out, Customer c) {
+        return c == null ? requireOut(out) : appendCustomer(requireOut(out), c);
+    }
+
+    @Override
+    public <A extends Appendable> A printCustomers(A out, Collection<Customer> customers) {
+        return customers == null ? requireOut(out) : appendCustomers(requireOut(out), customers);
+    }
+
+    @Override
+    public <A extends Appendable> A printArticle(A out, Article a) {
+        return a == null ? requireOut(out) : appendArticle(requireOut(out), a);
+    }
+
+    @Override
+    public <A extends Appendable> A printArticles(A out, Collection<Article> articles) {
+        return articles == null ? requireOut(out) : appendArticles(requireOut(out), articles);
+    }
+
+    @Override
+    public <A extends Appendable> A printOrder(A out, Order order) {
+        return order == null ? requireOut(out) : appendOrder(requireOut(out), order);
+    }
+
+    @Override
+    public <A extends Appendable> A printOrders(A out, Collection<Order> orders) {
+        return orders == null ? requireOut(out) : appendOrders(requireOut(out), orders);
+    }
+
+    private <A extends Appendable> A appendCustomer(A out, Customer c) {
+        int nameStyle = 0;
+        try {
+            out.append("| ");
+            final long id = c.getIdAsLong();
+            if (id < 0) {
+                appendPadded(out, "null", 6);    // unassigned id
+            } else {
+                appendNumber(out, id, 6);
+            }
+            out.append(" | ");
+            appendPadded(out, formatter.fmtName(c.getFirstName(), c.getLastName(), nameStyle), -31);
+            out.append("| ");
+            final String[] cs = c.getContacts();
+            int len = 0;
+            for (int i = 0; i < cs.length; i++) {
+                if (i > 0) {
+                    out.append(", ");
+                    len += 2;
+                }
+                out.append(cs[i]);
+                len += cs[i].length();
+            }
+            pad(out, 44 - len);
+            out.append(" |\n");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out;
+    }
+
+    private <A extends Appendable> A appendCustomers(A out, Collection<Customer> customers) {
+        return process(out, customers, s -> s, c -> printCustomer(out, c));    // calling generic print method
+    }
+
+    private <A extends Appendable> A appendArticle(A out, Article a) {
+        try {
+            out.append("| ");
+            appendPadded(out, String.valueOf(a.getId()), 10);
+            out.append(" | ");
+            appendPadded(out, String.valueOf(a.getDescription()), -27);
+            out.append("| ");
+            appendNumber(out, a.getUnitPrice(), 6);
+            out.append(" \u20ac| ");    // Unicode for Euro
+            appendPadded(out, a.getTax() == TAX.GER_VAT_REDUCED ? "7%" : "19%", 4);
+            out.append(" MwSt|\n");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out;
+    }
+
+    private <A extends Appendable> A appendArticles(A out, Collection<Article> articles) {
+        return process(out, articles, a -> printArticle(out, a));
+    }
+
+    private <A extends Appendable> A appendOrder(A out, Order order) {
+        final String creationDate = formatter.fmtDate(order.getCreationDate(), 0, "");
+        final Customer c = order.getCustomer();
+        try {
+            out.append("| ");
+            appendPadded(out, String.valueOf(order.getId()), 10);
+            out.append(" | ");
+            appendPadded(out, formatter.fmtName(c.getFirstName(), c.getLastName(), 0), -27);
+            out.append("| ");
+            appendNumber(out, order.itemsCount(), 1);
+            out.append(" items | created: ").append(creationDate).append(" |\n");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out;
+    }
+
+    private <A extends Appendable> A appendOrders(A out, Collection<Order> orders) {
+        return process(out, orders, a -> printOrder(out, a));
+    }
+
+    /**
+     * Append text padded with spaces to width, right-aligned for a positive and
+     * left-aligned for a negative width as with {@code "%10s"} and {@code "%-10s"}.
+     * Text longer than width is not cut.
+     *
+     * @param out   Appendable to append to.
+     * @param text  text to append.
+     * @param width width of field, negative for left-aligned text.
+     * @throws IOException when appending fails.
+     */
+    private static void appendPadded(Appendable out, CharSequence text, int width) throws IOException {
+        if (width > 0) {
+            pad(out, width - text.length());
+        }
+        out.append(text);
+        if (width < 0) {
+            pad(out, -width - text.length());
+        }
+    }
+
+    /**
+     * Append number right-aligned to width with digits of the default format
+     * locale as with {@code "%6d"}.
+     *
+     * @param out   Appendable to append to.
+     * @param value number to append.
+     * @param width width of field.
+     * @throws IOException when appending fails.
+     */
+    private static void appendNumber(Appendable out, long value, int width) throws IOException {
+        final String digits = Long.toString(value);
+        final char zero = FormatterImpl.zeroDigit();
+        pad(out, width - digits.length());
+        if (zero == '0') {
+            out.append(digits);
+        } else {
+            for (int i = 0; i < digits.length(); i++) {
+                final char d = digits.charAt(i);
+                out.append(d >= '0' && d <= '9' ? (char) (zero + d - '0') : d);
+            }
+        }
+    }
+
+    /**
+     * Append n spaces, nothing for {@code n <= 0}.
+     *
+     * @param out Appendable to append to.
+     * @param n   number of spaces.
+     * @throws IOException when appending fails.
+     */
+    private static void pad(Appendable out, int n) throws IOException {
+        for (; n > 0; n--) {
+            out.append(' ');
+        }
+    }
+
+    /**
+     * Check Appendable argument.
+     *
+     * @param <A> generic Appendable type.
+     * @param out Appendable argument.
+     * @return Appendable argument (same out).
+     * @throws IllegalArgumentException when out is null.
+     */
+    private static <A extends Appendable> A requireOut(A out) {
+        if (out == null) {
+            throw new IllegalArgumentException("out is null.");
+        }
+        return out;
     }
 
     @Override
@@ -199,13 +338,10 @@ class PrinterImpl implements Printer {
         /*
          * TODO: E1(5) implement/change logic.
          */
-        Function<Stream<Order>, Stream<Order>> function = s -> s.sorted((a, b) -> (int) (b.getTotalOrderValue()) - (int) (a.getTotalOrderValue()));
-        Consumer<Order> consumer = s -> printOrder(orderTable, s).line();
-        for (Order order : orders) {
-            for (OrderItem item : order.getItems()) {
-                totals[0] += item.getArticle().getUnitPrice() * item.getUnitsOrdered();
-                totals[1] += calculator.calculateIncludedVAT(item.getArticle().getUnitPrice() * item.getUnitsOrdered(), item.getArticle().getTax());
-            }
+        long[] totalsByTax = calculator.accumulateValueAndTax(null, orders);
+        for (int i = 0; i < totalsByTax.length; i += 2) {
+            totals[0] += totalsByTax[i];
+            totals[1] += totalsByTax[i + 1];
         }
 
 
@@ -213,11 +349,50 @@ class PrinterImpl implements Printer {
         String totalPrice = formatter.fmtPrice(totals[0], 1);
         String totalVAT = formatter.fmtPrice(totals[1], 1);
         //
-        return process(orderTable, orders, function, consumer)
+        if (orders != null) {
+            // orders by descending total value, each total computed once into a key
+            final Order[] byValue = orders.toArray(new Order[0]);
+            final long[] keys = new long[byValue.length];
+            for (int i = 0; i < byValue.length; i++) {
+                keys[i] = byValue[i].getTotalOrderValue();
+            }
+            for (int i : sortDescending(keys)) {
+                printOrder(orderTable, byValue[i]).line();
+            }
+        }
+        return orderTable
                 .row("@ >        |   |", "", "", "", "", "Gesamt:", totalVAT, totalPrice)
                 .line("@          +=+=+");
     }
 
+    /**
+     * Stable sort of indices by descending long keys, equal keys keep their
+     * order. Bottom-up merge sort on primitive arrays without boxing keys.
+     *
+     * @param keys sort keys.
+     * @return indices of keys in order of descending keys.
+     */
+    static int[] sortDescending(long[] keys) {
+        int[] idx = new int[keys.length];
+        int[] tmp = new int[keys.length];
+        for (int i = 0; i < idx.length; i++) {
+            idx[i] = i;
+        }
+        for (int width = 1; width < idx.length; width *= 2) {
+            for (int lo = 0; lo < idx.length - width; lo += 2 * width) {
+                int mid = lo + width, hi = Math.min(lo + 2 * width, idx.length);
+                int i = lo, j = mid, k = lo;
+                while (i < mid && j < hi) {
+                    tmp[k++] = keys[idx[j]] > keys[idx[i]] ? idx[j++] : idx[i++];
+                }
+                while (i < mid) tmp[k++] = idx[i++];
+                while (j < hi) tmp[k++] = idx[j++];
+                System.arraycopy(tmp, lo, idx, lo, hi - lo);
+            }
+        }
+        return idx;
+    }
+
     /**
      * Generic method that converts a {@code Collection<T>} to {@code Stream<T>}
      * and applies a function @{code applyEach} to each element.
@@ -0,0 +1,106 @@
+package system.impl;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import datamodel.Article;
+import datamodel.Customer;
+import datamodel.Order;
+import system.DatamodelFactory;
+import system.OrderBook;
+
+/**
+ * Thread-safe view of a {@link DatamodelFactory} that serializes calls to
+ * factory and find methods on one lock. Used as sink when objects are
+ * created from multiple threads.
+ * <p>
+ * Lists returned by getters are the lists of the underlying factory, they
+ * must only be accessed when no other thread creates objects. Items must
+ * only be added to orders when no other thread does, since adding items
+ * updates indexes of the underlying factory.
+ * </p>
+ * 
+ * @version <code style=color:green>{@value application.package_info#Version}</code>
+ * @author <code style=color:blue>{@value application.package_info#Author}</code>
+ */
+
+class SynchronizedDatamodelFactory implements DatamodelFactory {
+
+	/**
+	 * Underlying factory, guarded by {@code this}.
+	 */
+	private final DatamodelFactory factory;
+
+
+	/**
+	 * Constructor with underlying factory.
+	 * 
+	 * @param factory factory to which calls are delegated.
+	 */
+	SynchronizedDatamodelFactory(DatamodelFactory factory) {
+		this.factory = factory;
+	}
+
+
+	@Override
+	public synchronized Customer createCustomer() { return factory.createCustomer(); }
+
+	@Override
+	public synchronized Customer createCustomer(String name) { return factory.createCustomer(name); }
+
+	@Override
+	public synchronized Article createArticle() { return factory.createArticle(); }
+
+	@Override
+	public synchronized Article createArticle(String description, long unitPrice) {
+		return factory.createArticle(description, unitPrice);
+	}
+
+	@Override
+	public synchronized Order createOrder(Customer customer) { return factory.createOrder(customer); }
+
+	@Override
+	public List<Customer> getCustomers() { return factory.getCustomers(); }
+
+	@Override
+	public List<Article> getArticles() { return factory.getArticles(); }
+
+	@Override
+	public List<Order> getOrders() { return factory.getOrders(); }
+
+	@Override
+	public synchronized int customersCount() { return factory.customersCount(); }
+
+	@Override
+	public synchronized int articlesCount() { return factory.articlesCount(); }
+
+	@Override
+	public synchronized int ordersCount() { return factory.ordersCount(); }
+
+	@Override
+	public synchronized Optional<Customer> findCustomerById(long id) { return factory.findCustomerById(id); }
+
+	@Override
+	public synchronized Optional<Article> findArticleById(String id) { return factory.findArticleById(id); }
+
+	@Override
+	public synchronized Optional<Article> findArticleByKey(long key) { return factory.findArticleByKey(key); }
+
+	@Override
+	public synchronized Optional<Order> findOrderById(String id) { return factory.findOrderById(id); }
+
+	@Override
+	public synchronized List<Order> findOrdersByCustomer(long customerId) {
+		return List.copyOf(factory.findOrdersByCustomer(customerId));
+	}
+
+	@Override
+	public synchronized Collection<Order> findOrdersByArticle(String articleId) {
+		return List.copyOf(factory.findOrdersByArticle(articleId));
+	}
+
+	@Override
+	public synchronized OrderBook createOrderBook() { return factory.createOrderBook(); }
+
+}
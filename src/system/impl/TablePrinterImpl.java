@@ -1,19 +1,35 @@
 package system.impl;
 
 import application.Application_E1;
+import system.Metrics;
 import system.TablePrinter;
 
+import java.io.BufferedWriter;
+import java.io.Flushable;
+import java.io.IOException;
 import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.CharBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.function.Consumer;
 
 public class TablePrinterImpl implements TablePrinter {
     final List<Column> columns = new ArrayList<Column>();
     final String rowSpec;    // default row spec:  "| | | |"
     final String lineSpec;    // default line spec: "+-+-+-+"
-    final StringBuffer sb;
+    final Layout rowLayout;    // compiled default row spec
+    final Layout lineLayout;    // compiled default line spec
+    final Map<String, Layout> layouts = new HashMap<String, Layout>();    // compiled "@" and line specs
+    final Appendable out;    // collects table or writes rows through (Writer)
+    char[] buf = new char[0];    // reused buffer of rendered row
+    final Metrics.Counter rows;    // counts rendered rows (not lines)
+    final static int MAX_LAYOUTS = 64;    // bound of compiled specs cache
+    final static int NO_FILL = -1;
     final static char SPACE = 0x20;
     final static char NUL = 0x00;
     final static char L = 'L';
@@ -45,8 +61,83 @@ public class TablePrinterImpl implements TablePrinter {
         }
     }
 
-    TablePrinterImpl(StringBuffer sb, Consumer<Builder> builder) {
-        this.sb = sb == null ? new StringBuffer() : sb;
+    /**
+     * Immutable layout of a row compiled from a spec and the columns. Each
+     * column renders as optional left border, cell of exactly {@code width}
+     * characters and optional right border, such that borders and newline
+     * have fixed positions in a row template and only cells are written
+     * per row.
+     */
+    static final class Layout {
+        final char[] template;    // row with borders and newline, cells are overwritten
+        final int cells;        // number of cells
+        final int[] column;        // column index (args index) of cell
+        final int[] pos;        // start position of cell in row
+        final int[] width;        // cell width
+        final int[] fill;        // fill character of cell, NO_FILL when spec has none
+        final boolean[] right;    // right-aligned cell
+
+        Layout(List<Column> columns, String spec, boolean isRowSpec) {
+            int lens = spec != null ? spec.length() : -1;
+            spec = lens > 0 && spec.startsWith("@") ? spec.substring(1) : spec;
+            int n = Math.max(0, Math.min(columns.size(), lens / 2));
+            this.column = new int[n];
+            this.pos = new int[n];
+            this.width = new int[n];
+            this.fill = new int[n];
+            this.right = new boolean[n];
+            final StringBuilder tmpl = new StringBuilder();
+            int c = 0;
+            for (int i = 0; i < n; i++) {
+                Column col = columns.get(i);
+                int j = i * 2;
+                if (col.lb && j < lens) {
+                    tmpl.append(spec.charAt(j));
+                }
+                if (++j < lens || col.fill != SPACE) {
+                    column[c] = i;
+                    pos[c] = tmpl.length();
+                    width[c] = Math.max(0, col.width);
+                    fill[c] = isRowSpec && col.fill != SPACE ? col.fill
+                            : j < spec.length() ? spec.charAt(j) : NO_FILL;
+                    right[c] = col.align == ALIGN.R;
+                    tmpl.append(" ".repeat(width[c]));
+                    c++;
+                }
+                if (col.rb && ++j < lens) {
+                    tmpl.append(spec.charAt(j));
+                }
+            }
+            this.template = tmpl.append('\n').toString().toCharArray();
+            this.cells = c;
+        }
+    }
+
+    /**
+     * Constructor of a TablePrinter that appends each row to an Appendable
+     * when it is rendered. Rows are collected in builders such as StringBuilder
+     * or written through to Writers with memory use bounded by one row.
+     *
+     * @param out destination of rows, a new StringBuilder is used when null, Writers are
+     *            wrapped into a BufferedWriter unless already buffered.
+     * @param builder initialize table at creation with columns, widths and alignment.
+     */
+    TablePrinterImpl(Appendable out, Consumer<Builder> builder) {
+        this(out, builder, new MetricsImpl());
+    }
+
+    /**
+     * Constructor of a TablePrinter that counts rendered rows in a Metrics component.
+     *
+     * @param out destination of rows, same as {@link #TablePrinterImpl(Appendable, Consumer)}.
+     * @param builder initialize table at creation with columns, widths and alignment.
+     * @param metrics Metrics component with counter "table.rows" of rendered rows.
+     */
+    TablePrinterImpl(Appendable out, Consumer<Builder> builder, Metrics metrics) {
+        this.rows = metrics.counter("table.rows");
+        this.out = out == null ? new StringBuilder()
+                : out instanceof Writer && !(out instanceof BufferedWriter) ? new BufferedWriter((Writer) out)
+                : out;
         builder.accept(new Builder() {
             @Override
             public Builder column(String spec, int width) {
@@ -57,67 +148,130 @@ public class TablePrinterImpl implements TablePrinter {
         });
         this.rowSpec = "| ".repeat(columns.size()) + "|";
         this.lineSpec = "+-".repeat(columns.size()) + "+";
+        this.rowLayout = new Layout(columns, rowSpec, true);
+        this.lineLayout = new Layout(columns, lineSpec, false);
     }
 
     @Override
     public TablePrinter line() {
-        return render(lineSpec);
+        return render(lineLayout, null, 0);
     }
 
     @Override
     public TablePrinter line(String spec) {
-        return render(spec);
+        return render(layout(spec), null, 0);
     }
 
     @Override
     public TablePrinter row(String... args) {
         int lena = args != null ? args.length : -1;
         String arg0 = lena > 0 ? args[0] : "";
-        boolean hasSpec = arg0.startsWith("@");    // shift args[] << 1
-        String[] args2 = hasSpec ? Arrays.copyOfRange(args, 1, lena) : args;
-        return render(hasSpec ? arg0 : rowSpec, args2);
+        boolean hasSpec = arg0 != null && arg0.startsWith("@");    // shift args[] << 1
+        rows.increment();
+        return hasSpec ? render(layout(arg0), args, 1) : render(rowLayout, args, 0);
     }
 
     @Override
     public void print(PrintStream ps) {
-        ps.print(sb);
+        if (out instanceof Flushable) {
+            flush();    // rows have already been written through, ps is not written
+        } else {
+            ps.print(out);
+        }
     }
 
-    private TablePrinter render(String spec, String... args) {
-        int lens = spec != null ? spec.length() : -1;
-        int lena = args != null ? args.length : -1;
-        spec = lens > 0 && spec.startsWith("@") ? spec.substring(1) : spec;
-        // IntStream.range(0, columns.size()).forEach( i -> {
-        for (int i = 0; i < columns.size() && i < lens / 2; i++) {
-            Column col = columns.get(i);
-            int j = i * 2;
-            if (col.lb && j < lens) {
-                sb.append(String.valueOf(spec.charAt(j)));
+    /**
+     * Flush rows written through, no effect when table is collected.
+     */
+    void flush() {
+        try {
+            if (out instanceof Flushable) {
+                ((Flushable) out).flush();
             }
-            if (++j < lens || col.fill != SPACE) {
-                String text = i < lena && args[i] != null ? args[i] : "";
-                int d = col.width - text.length();
-                if (d > 0) {    // fill to width from left or right
-                    char fc = spec == rowSpec && col.fill != SPACE ? col.fill : NUL;
-                    fc = fc == NUL && i < lens ? spec.charAt(j) : fc;
-                    String fill = String.valueOf(fc).repeat(d);
-                    boolean left = col.align == ALIGN.L;
-                    sb.append(left ? text : fill).append(left ? fill : text);
-                }
-                if (d < 0) {    // cut to width
-                    sb.append(col.align == ALIGN.R ? text.substring(-d)// cut from left
-                            : text.substring(0, text.length() + d));    // cut from right
-                }
-                if (d == 0) {
-                    sb.append(text);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Return compiled layout of spec, specs are compiled once.
+     *
+     * @param spec line or row spec.
+     * @return compiled layout.
+     */
+    private Layout layout(String spec) {
+        if (spec == null) {
+            return new Layout(columns, null, false);
+        }
+        Layout layout = layouts.get(spec);
+        if (layout == null) {
+            if (layouts.size() >= MAX_LAYOUTS) {
+                layouts.clear();    // bound cache for generated specs
+            }
+            layout = new Layout(columns, spec, false);
+            layouts.put(spec, layout);
+        }
+        return layout;
+    }
+
+    /**
+     * Render row from layout into reused buffer and emit it. Cells are filled
+     * to width from left or right or cut to width.
+     *
+     * @param layout compiled row layout.
+     * @param args cell texts, {@code args[offset + i]} for column i (null is empty).
+     * @param offset index of first cell text in args.
+     * @return chainable self-reference.
+     */
+    private TablePrinter render(Layout layout, String[] args, int offset) {
+        final char[] tmpl = layout.template;
+        if (buf.length < tmpl.length) {
+            buf = new char[tmpl.length];
+        }
+        System.arraycopy(tmpl, 0, buf, 0, tmpl.length);
+        final int lena = args != null ? args.length - offset : -1;
+        for (int c = 0; c < layout.cells; c++) {
+            int i = layout.column[c];
+            String text = i < lena && args[offset + i] != null ? args[offset + i] : "";
+            int len = text.length(), width = layout.width[c], p = layout.pos[c];
+            boolean right = layout.right[c];
+            int d = width - len;
+            if (d > 0) {    // fill to width from left or right
+                if (layout.fill[c] == NO_FILL) {
+                    throw new StringIndexOutOfBoundsException("spec has no fill character for column " + i);
                 }
+                Arrays.fill(buf, right ? p : p + len, right ? p + d : p + width, (char) layout.fill[c]);
+                text.getChars(0, len, buf, right ? p + d : p);
+            } else {    // cut to width from left (right-aligned) or right
+                int from = right ? -d : 0;
+                text.getChars(from, from + width, buf, p);
             }
-            if (col.rb && ++j < lens) {
-                sb.append(String.valueOf(spec.charAt(j)));
+        }
+        return emit(buf, tmpl.length);
+    }
+
+    /**
+     * Emit rendered row to destination with one append call, character
+     * arrays are appended without copy where the destination allows it.
+     *
+     * @param row buffer with rendered row.
+     * @param len length of rendered row.
+     * @return chainable self-reference.
+     */
+    private TablePrinter emit(char[] row, int len) {
+        try {
+            if (out instanceof StringBuilder) {
+                ((StringBuilder) out).append(row, 0, len);
+            } else if (out instanceof Writer) {
+                ((Writer) out).write(row, 0, len);
+            } else if (out instanceof StringBuffer) {
+                ((StringBuffer) out).append(row, 0, len);
+            } else {
+                out.append(CharBuffer.wrap(row, 0, len));
             }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
-        ;
-        sb.append("\n");
         return this;
     }
 }
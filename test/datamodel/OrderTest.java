@@ -0,0 +1,132 @@
+package datamodel;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+
+/**
+ * Tests of cached order totals, which are invalidated when items or prices
+ * or tax rates of ordered articles change.
+ *
+ * @version <code style=color:green>{@value application.package_info#Version}</code>
+ * @author <code style=color:blue>{@value application.package_info#Author}</code>
+ */
+
+class OrderTest {
+
+	private final Article tasse = new Article("Tasse", 299).setTax(TAX.GER_VAT_REDUCED);
+	private final Article kanne = new Article("Kanne", 1999);
+	private final Order order = new Order(new Customer("Eric Meyer")).addItem(tasse, 4).addItem(kanne, 1);
+
+	private final AtomicInteger computed = new AtomicInteger();
+	private final Object key = new Object();
+
+
+	@Test
+	void totalFollowsItemChanges() {
+		assertEquals(4 * 299 + 1999, order.getTotalOrderValue());
+		order.addItem(kanne, 2);
+		assertEquals(4 * 299 + 3 * 1999, order.getTotalOrderValue());
+		order.deleteItem(0);
+		assertEquals(3 * 1999, order.getTotalOrderValue());
+		order.getItems().iterator().next().setUnitsOrdered(3);
+		assertEquals(5 * 1999, order.getTotalOrderValue());
+		order.deleteAllItems();
+		assertEquals(0L, order.getTotalOrderValue());
+	}
+
+
+	@Test
+	void totalFollowsPriceChanges() {
+		assertEquals(4 * 299 + 1999, order.getTotalOrderValue());
+		tasse.setUnitPrice(349);
+		assertEquals(4 * 349 + 1999, order.getTotalOrderValue());
+		kanne.setUnitPrice(0);
+		assertEquals(4 * 349, order.getTotalOrderValue());
+	}
+
+
+	@Test
+	void cachedValueIsComputedOnceUntilChange() {
+		assertEquals("4", cached());
+		assertEquals("4", cached());
+		assertEquals(1, computed.get());
+		//
+		tasse.setUnitPrice(299);		// same price, no change
+		assertEquals("4", cached());
+		assertEquals(1, computed.get());
+		tasse.setTax(TAX.GER_VAT);		// tax rate changes VAT
+		assertEquals("4", cached());
+		assertEquals(2, computed.get());
+		order.addItem(tasse, 1);
+		assertEquals("5", cached());
+		order.getItems().iterator().next().setUnitsOrdered(2);
+		assertEquals("5", cached());
+		assertEquals(4, computed.get());
+	}
+
+
+	@Test
+	void cachedValuesOfKeysAreSeparated() {
+		Object other = new Object();
+		assertEquals("4", cached());
+		assertEquals("other", order.getCached(other, o -> "other"));
+		assertEquals("4", cached());		// values of both keys are cached
+		assertEquals(1, computed.get());
+		assertEquals(4 * 299 + 1999, order.getTotalOrderValue());
+		//
+		assertThrows(IllegalArgumentException.class, () -> order.getCached(null, o -> "x"));
+		assertThrows(IllegalArgumentException.class, () -> order.getCached(key, null));
+	}
+
+
+	@Test
+	void cacheHitDoesNotReadItems() {
+		AtomicInteger reads = new AtomicInteger();
+		Article counted = new Article("Becher", 499) {
+			@Override
+			public long getUnitPrice() {
+				reads.incrementAndGet();
+				return super.getUnitPrice();
+			}
+			@Override
+			public int getPriceVersion() {
+				reads.incrementAndGet();
+				return super.getPriceVersion();
+			}
+		};
+		order.addItem(counted, 2);
+		assertEquals("5", cached());
+		assertEquals(4 * 299 + 1999 + 2 * 499, order.getTotalOrderValue());
+		reads.set(0);
+		for(int i=0; i < 100; i++) {
+			assertEquals("5", cached());
+			assertEquals(4 * 299 + 1999 + 2 * 499, order.getTotalOrderValue());
+		}
+		assertEquals(0, reads.get());
+		assertEquals(1, computed.get());
+		//
+		new Article("Teller", 799).setUnitPrice(899);	// price of other article changes
+		assertEquals("5", cached());
+		assertEquals(1, reads.get());		// versions read once, not recomputed
+		assertEquals(1, computed.get());
+		counted.setUnitPrice(599);
+		assertEquals("5", cached());
+		assertEquals(2, computed.get());
+		assertEquals(4 * 299 + 1999 + 2 * 599, order.getTotalOrderValue());
+	}
+
+
+	/**
+	 * Cached text with number of items, computations are counted.
+	 */
+	private String cached() {
+		return order.getCached(key, o -> {
+			computed.incrementAndGet();
+			return Integer.toString(o.itemsCount() + 2);
+		});
+	}
+}
@@ -0,0 +1,59 @@
+package datamodel;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+
+/**
+ * Tests of deduplicating strings with a bounded {@link StringPool}.
+ *
+ * @version <code style=color:green>{@value application.package_info#Version}</code>
+ * @author <code style=color:blue>{@value application.package_info#Author}</code>
+ */
+
+class StringPoolTest {
+
+	private final StringPool pool = new StringPool(1024);
+
+
+	@Test
+	void equalStringsShareOneInstance() {
+		String s1 = new String("Tasse");
+		String s2 = new String("Tasse");
+		assertSame(s1, pool.intern(s1));
+		assertSame(s1, pool.intern(s2));
+		assertSame(s1, pool.intern(s1));		// same instance is no hit
+		assertNull(pool.intern(null));
+		//
+		assertEquals(1L, pool.hits());
+		assertEquals(1L, pool.misses());
+		assertEquals(24 + 24, pool.savedBytes());	// String object, byte[] of 16 + 5 bytes aligned to 24
+	}
+
+
+	@Test
+	void capacityIsBounded() {
+		assertEquals(1024, pool.capacity());
+		assertEquals(1024, new StringPool(1000).capacity());
+		assertEquals(1, new StringPool(1).capacity());
+		assertThrows(IllegalArgumentException.class, () -> new StringPool(0));
+		assertThrows(IllegalArgumentException.class, () -> new StringPool((1 << 30) + 1));
+		//
+		for(int i=0; i < 100_000; i++) {
+			String s = "SKU-" + i;
+			assertEquals(s, pool.intern(s));		// colliding strings replace each other
+		}
+		assertEquals(100_000L, pool.misses());
+	}
+
+
+	@Test
+	void namesOfCustomersAreDeduplicated() {
+		Customer c1 = new Customer(new String("Eric Meyer"));
+		Customer c2 = new Customer(new String("Meyer, Eric"));
+		assertSame(c1.getFirstName(), c2.getFirstName());
+		assertSame(c1.getLastName(), c2.getLastName());
+		assertSame(StringPool.getShared(), StringPool.getShared());
+	}
+}
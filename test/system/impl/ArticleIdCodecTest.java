@@ -0,0 +1,88 @@
+package system.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import datamodel.Article;
+
+
+/**
+ * Tests of encoding article ids to primitive keys with {@link ArticleIdCodec}.
+ *
+ * @version <code style=color:green>{@value application.package_info#Version}</code>
+ * @author <code style=color:blue>{@value application.package_info#Author}</code>
+ */
+
+class ArticleIdCodecTest {
+
+	@Test
+	void regularIdsDecodeToSameId() {
+		Random rand = new Random(42);
+		for(int i=0; i < 100_000; i++) {
+			int digits = 1 + rand.nextInt(15);
+			StringBuilder sb = new StringBuilder("SKU-");
+			for(int d=0; d < digits; d++) {
+				sb.append((char)('0' + rand.nextInt(10)));
+			}
+			String id = sb.toString();
+			long key = ArticleIdCodec.encode(id);
+			assertTrue(key >= 0L, id);
+			assertEquals(id, ArticleIdCodec.decode(key));
+		}
+		assertEquals("SKU-999999999999999", ArticleIdCodec.decode(ArticleIdCodec.encode("SKU-999999999999999")));
+		assertEquals("SKU-0", ArticleIdCodec.decode(ArticleIdCodec.encode("SKU-0")));
+	}
+
+
+	@Test
+	void leadingZerosMakeDifferentKeys() {
+		long k1 = ArticleIdCodec.encode("SKU-42");
+		long k2 = ArticleIdCodec.encode("SKU-0042");
+		assertNotEquals(k1, k2);
+		assertEquals("SKU-0042", ArticleIdCodec.decode(k2));
+		assertNotEquals(ArticleIdCodec.encode("SKU-0"), ArticleIdCodec.encode("SKU-00"));
+	}
+
+
+	@Test
+	void irregularIds() {
+		for(String id : new String[] {null, "", "SKU-", "SKU-12a", "sku-12", "SKU--1", "SKU-+1", "SKU- 1", "Kanne-1",
+				"SKU-1234567890123456", "XSKU-1"}) {
+			assertEquals(ArticleIdCodec.IRREGULAR, ArticleIdCodec.encode(id), id);
+		}
+	}
+
+
+	@Test
+	void charactersEncodeAsString() {
+		char[] buf = "[\"SKU-458362\", \"Kanne-1\", \"SKU-0042\"]".toCharArray();
+		assertEquals(ArticleIdCodec.encode("SKU-458362"), ArticleIdCodec.encode(buf, 2, 10));
+		assertEquals(ArticleIdCodec.IRREGULAR, ArticleIdCodec.encode(buf, 16, 7));
+		assertEquals(ArticleIdCodec.encode("SKU-0042"), ArticleIdCodec.encode(buf, 27, 8));
+		assertEquals(ArticleIdCodec.IRREGULAR, ArticleIdCodec.encode(buf, 2, 4));		// "SKU-"
+		assertEquals(ArticleIdCodec.IRREGULAR, ArticleIdCodec.encode(buf, 1, 10));		// "\"SKU-45836"
+	}
+
+
+	@Test
+	void invalidKeysAreNotDecoded() {
+		for(long key : new long[] {ArticleIdCodec.IRREGULAR, 0L, 42L, Long.MIN_VALUE, 16L << 50, (2L << 50) | 100L}) {
+			assertThrows(IllegalArgumentException.class, () -> ArticleIdCodec.decode(key), Long.toString(key));
+		}
+	}
+
+
+	@Test
+	void articlesAreFoundByKey() {
+		DatamodelFactoryImpl factory = new DatamodelFactoryImpl();
+		Article tasse = factory.createArticle("Tasse", 299).setId("SKU-458362");
+		factory.createArticle("Kanne", 1999).setId("Kanne-1");
+		assertSame(tasse, factory.findArticleByKey(ArticleIdCodec.encode("SKU-458362")).get());
+		assertTrue(factory.findArticleByKey(ArticleIdCodec.encode("SKU-458363")).isEmpty());
+		assertTrue(factory.findArticleByKey(ArticleIdCodec.IRREGULAR).isEmpty());
+		assertTrue(factory.findArticleById("Kanne-1").isPresent());
+	}
+}
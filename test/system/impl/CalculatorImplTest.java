@@ -0,0 +1,169 @@
+package system.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import datamodel.Article;
+import datamodel.Customer;
+import datamodel.Order;
+import datamodel.TAX;
+
+
+/**
+ * Tests of value and VAT calculations in integer cent with {@link CalculatorImpl}.
+ *
+ * @version <code style=color:green>{@value application.package_info#Version}</code>
+ * @author <code style=color:blue>{@value application.package_info#Author}</code>
+ */
+
+class CalculatorImplTest {
+
+	private final CalculatorImpl calculator = new CalculatorImpl();
+	private final DatamodelFactoryImpl factory = new DatamodelFactoryImpl();
+	private final Customer customer = factory.createCustomer("Eric Meyer").setId(892474L);
+
+
+	@Test
+	void taxRatesInPercent() {
+		assertEquals(19.0, calculator.getTaxRate(TAX.GER_VAT));
+		assertEquals(7.0, calculator.getTaxRate(TAX.GER_VAT_REDUCED));
+		assertEquals(0.0, calculator.getTaxRate(TAX.TAXFREE));
+		assertEquals(0.0, calculator.getTaxRate(null));
+	}
+
+
+	@Test
+	void includedVATOfKnownValues() {
+		assertEquals(19L, calculator.calculateIncludedVAT(119L, TAX.GER_VAT));
+		assertEquals(16L, calculator.calculateIncludedVAT(100L, TAX.GER_VAT));		// 15.97
+		assertEquals(20L, calculator.calculateIncludedVAT(299L, TAX.GER_VAT_REDUCED));	// 19.56
+		assertEquals(7L, calculator.calculateIncludedVAT(107L, TAX.GER_VAT_REDUCED));
+		assertEquals(0L, calculator.calculateIncludedVAT(0L, TAX.GER_VAT));
+		assertEquals(0L, calculator.calculateIncludedVAT(1999L, TAX.TAXFREE));
+		assertEquals(0L, calculator.calculateIncludedVAT(1999L, null));
+	}
+
+
+	@Test
+	void includedVATIsRoundedHalfUpToTheCent() {
+		for(TAX tax : TAX.values()) {
+			BigDecimal rate = BigDecimal.valueOf(calculator.getTaxRate(tax));
+			for(long gross = -10_000L; gross <= 100_000L; gross++) {
+				long expected = BigDecimal.valueOf(gross).multiply(rate)
+					.divide(rate.add(BigDecimal.valueOf(100)), 0, RoundingMode.HALF_UP).longValueExact();
+				assertEquals(expected, calculator.calculateIncludedVAT(gross, tax), tax + " of " + gross);
+			}
+		}
+	}
+
+
+	@Test
+	void includedVATOfLargeValues() {
+		long gross = 1_000_000_000_000_000L;	// 10^13 EUR in cent
+		assertEquals(159_663_865_546_218L, calculator.calculateIncludedVAT(gross, TAX.GER_VAT));
+	}
+
+
+	@Test
+	void valueAndTaxOfOrder() {
+		Order order = factory.createOrder(customer)
+			.addItem(article("SKU-1", 299, TAX.GER_VAT_REDUCED), 4)		// 1196, VAT 78.24
+			.addItem(article("SKU-2", 1999, TAX.GER_VAT), 1);			// 1999, VAT 319.17
+		//
+		assertArrayEquals(new long[] {3195L, 78L + 319L}, calculator.calculateValueAndTax(order));
+		assertArrayEquals(new long[] {0L, 0L}, calculator.calculateValueAndTax(null));
+	}
+
+
+	@Test
+	void accumulatesValueAndTaxPerTaxRate() {
+		Article reduced = article("SKU-1", 299, TAX.GER_VAT_REDUCED);
+		Article regular = article("SKU-2", 1999, TAX.GER_VAT);
+		List<Order> orders = List.of(
+			factory.createOrder(customer).addItem(reduced, 4).addItem(regular, 1),
+			factory.createOrder(customer).addItem(regular, 2));
+		//
+		long[] acc = calculator.accumulateValueAndTax(null, orders);
+		assertEquals(2 * TAX.values().length, acc.length);
+		assertEquals(1196L, acc[2 * TAX.GER_VAT_REDUCED.ordinal()]);
+		assertEquals(78L, acc[2 * TAX.GER_VAT_REDUCED.ordinal() + 1]);
+		assertEquals(1999L + 3998L, acc[2 * TAX.GER_VAT.ordinal()]);
+		assertEquals(319L + 638L, acc[2 * TAX.GER_VAT.ordinal() + 1]);
+		assertEquals(0L, acc[2 * TAX.TAXFREE.ordinal()]);
+		//
+		assertSame(acc, calculator.accumulateValueAndTax(acc, orders));		// sums are added
+		assertEquals(2 * 1196L, acc[2 * TAX.GER_VAT_REDUCED.ordinal()]);
+		assertSame(acc, calculator.accumulateValueAndTax(acc, (Collection<Order>)null));
+	}
+
+
+	@Test
+	void parallelStreamAccumulatesSameSumsAsOrdersOneByOne() {
+		Random rand = new Random(42);
+		List<Article> articles = new ArrayList<Article>();
+		for(int i=0; i < 50; i++) {
+			articles.add(article("SKU-" + i, 1 + rand.nextInt(20_000), TAX.values()[rand.nextInt(TAX.values().length)]));
+		}
+		List<Order> orders = new ArrayList<Order>();
+		for(int i=0; i < 10_000; i++) {
+			Order order = factory.createOrder(customer);
+			for(int j=rand.nextInt(5); j >= 0; j--) {
+				order.addItem(articles.get(rand.nextInt(articles.size())), 1 + rand.nextInt(12));
+			}
+			orders.add(order);
+		}
+		long value = 0L, vat = 0L;
+		for(Order order : orders) {
+			long[] totals = calculator.calculateValueAndTax(order);
+			value += totals[0];
+			vat += totals[1];
+		}
+		//
+		long[] acc = calculator.accumulateValueAndTax(null, orders.parallelStream());
+		long accValue = 0L, accVat = 0L;
+		for(int i=0; i < acc.length; i += 2) {
+			accValue += acc[i];
+			accVat += acc[i + 1];
+		}
+		assertEquals(value, accValue);
+		assertEquals(vat, accVat);
+		assertArrayEquals(acc, calculator.accumulateValueAndTax(null, orders));
+	}
+
+
+	@Test
+	void cachedSumsFollowPriceAndItemChanges() {
+		CalculatorImpl other = new CalculatorImpl();
+		Article tasse = article("SKU-1", 299, TAX.GER_VAT_REDUCED);
+		Order order = factory.createOrder(customer).addItem(tasse, 4);
+		assertArrayEquals(new long[] {1196L, 78L}, calculator.calculateValueAndTax(order));
+		assertArrayEquals(new long[] {1196L, 78L}, other.calculateValueAndTax(order));
+		//
+		tasse.setUnitPrice(349);
+		assertArrayEquals(new long[] {1396L, 91L}, calculator.calculateValueAndTax(order));	// 91.33
+		tasse.setTax(TAX.GER_VAT);
+		assertArrayEquals(new long[] {1396L, 223L}, other.calculateValueAndTax(order));		// 222.89
+		assertArrayEquals(new long[] {1396L, 223L}, calculator.calculateValueAndTax(order));
+		order.addItem(article("SKU-2", 100, TAX.TAXFREE), 1);
+		assertArrayEquals(new long[] {1496L, 223L}, calculator.calculateValueAndTax(order));
+		long[] acc = calculator.accumulateValueAndTax(null, List.of(order));
+		acc[2 * TAX.GER_VAT.ordinal()] = 0L;		// accumulator is not shared with cache
+		assertArrayEquals(new long[] {1496L, 223L}, other.calculateValueAndTax(order));
+	}
+
+
+	/**
+	 * Create article with id, price and tax rate.
+	 */
+	private Article article(String id, long unitPrice, TAX tax) {
+		return factory.createArticle("Article " + id, unitPrice).setId(id).setTax(tax);
+	}
+}
@@ -0,0 +1,115 @@
+package system.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import datamodel.Article;
+import datamodel.Customer;
+import datamodel.Order;
+import datamodel.TAX;
+import system.OrderBook;
+
+
+/**
+ * Tests of aggregations over order items stored in columns by
+ * {@link ColumnarOrderBook}.
+ *
+ * @version <code style=color:green>{@value application.package_info#Version}</code>
+ * @author <code style=color:blue>{@value application.package_info#Author}</code>
+ */
+
+class ColumnarOrderBookTest {
+
+	private final DatamodelFactoryImpl factory = new DatamodelFactoryImpl();
+	private final CalculatorImpl calculator = new CalculatorImpl();
+	private final Customer customer = factory.createCustomer("Eric Meyer").setId(892474L);
+
+
+	@Test
+	void aggregationsEqualThoseOfOrderObjects() {
+		Random rand = new Random(42);
+		List<Article> articles = new ArrayList<Article>();
+		for(int i=0; i < 40; i++) {
+			articles.add(factory.createArticle("Artikel " + i, rand.nextInt(20_000)).setId("SKU-" + (100_000 + i))
+				.setTax(TAX.values()[rand.nextInt(TAX.values().length)]));
+		}
+		long[] units = new long[articles.size()];
+		int items = 0;
+		for(int i=0; i < 1000; i++) {
+			Order order = factory.createOrder(customer);
+			for(int j=rand.nextInt(6); j > 0; j--, items++) {		// up to 5 items, columns grow
+				int a = rand.nextInt(articles.size()), u = 1 + rand.nextInt(12);
+				order.addItem(articles.get(a), u);
+				units[a] += u;
+			}
+		}
+		OrderBook book = factory.createOrderBook();
+		//
+		assertEquals(1000, book.ordersCount());
+		assertEquals(items, book.itemsCount());
+		assertEquals(40, book.articlesCount());
+		long[] values = book.orderValues();
+		long total = 0L;
+		for(int o=0; o < book.ordersCount(); o++) {
+			assertSame(factory.getOrders().get(o), book.getOrder(o));
+			assertEquals(book.getOrder(o).getTotalOrderValue(), values[o]);
+			total += values[o];
+		}
+		assertEquals(total, book.totalValue());
+		assertArrayEquals(units, book.unitsByArticle());
+		assertArrayEquals(calculator.accumulateValueAndTax(null, factory.getOrders()), book.accumulateValueAndTax(null, calculator));
+	}
+
+
+	@Test
+	void articlesAreFoundByIndex() {
+		Article tasse = factory.createArticle("Tasse", 299).setId("SKU-458362");
+		Article kanne = factory.createArticle("Kanne", 1999).setId("Kanne-1");		// irregular id
+		Article teller = new Article("Teller", 649).setId("SKU-100");				// not in factory
+		factory.createOrder(customer).addItem(kanne, 1).addItem(teller, 2);
+		OrderBook book = factory.createOrderBook();
+		//
+		assertEquals(3, book.articlesCount());
+		assertEquals(0, book.findArticleIndex("SKU-458362"));
+		assertEquals(1, book.findArticleIndex("Kanne-1"));
+		assertEquals(2, book.findArticleIndex("SKU-100"));			// appended
+		assertSame(tasse, book.getArticle(0));
+		assertSame(teller, book.getArticle(2));
+		assertEquals(-1, book.findArticleIndex("SKU-999"));
+		assertEquals(-1, book.findArticleIndex("Becher"));
+		assertEquals(-1, book.findArticleIndex(null));
+		assertArrayEquals(new long[] {0L, 1L, 2L}, book.unitsByArticle());
+	}
+
+
+	@Test
+	void bookIsSnapshotOfPrices() {
+		Article tasse = factory.createArticle("Tasse", 299).setId("SKU-1").setTax(TAX.GER_VAT_REDUCED);
+		factory.createOrder(customer).addItem(tasse, 4);
+		OrderBook book = factory.createOrderBook();
+		tasse.setUnitPrice(349);
+		factory.createOrder(customer).addItem(tasse, 1);
+		//
+		assertEquals(1196L, book.totalValue());
+		assertEquals(1, book.ordersCount());
+		long[] acc = {1L, 1L, 1L, 1L, 1L, 1L};
+		assertSame(acc, book.accumulateValueAndTax(acc, calculator));
+		assertEquals(1L + 1196L, acc[2 * TAX.GER_VAT_REDUCED.ordinal()]);
+		assertEquals(1L + 78L, acc[2 * TAX.GER_VAT_REDUCED.ordinal() + 1]);
+		assertThrows(IllegalArgumentException.class, () -> book.accumulateValueAndTax(null, null));
+	}
+
+
+	@Test
+	void emptyBook() {
+		OrderBook book = new ColumnarOrderBook(List.of(), List.of());
+		assertEquals(0, book.itemsCount());
+		assertEquals(0L, book.totalValue());
+		assertEquals(0, book.orderValues().length);
+	}
+}
@@ -0,0 +1,247 @@
+package system.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.lang.reflect.Field;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import datamodel.Article;
+import datamodel.Customer;
+import datamodel.Order;
+
+
+/**
+ * Tests of creating and looking up objects from many threads with
+ * {@link ConcurrentDatamodelFactory}.
+ *
+ * @version <code style=color:green>{@value application.package_info#Version}</code>
+ * @author <code style=color:blue>{@value application.package_info#Author}</code>
+ */
+
+class ConcurrentDatamodelFactoryTest {
+
+	private final ConcurrentDatamodelFactory factory = new ConcurrentDatamodelFactory();
+
+
+	@Test
+	void objectsCreatedConcurrentlyAreFound() throws Exception {
+		final int threads = 8, n = 5_000;
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<?>> futures = new ArrayList<Future<?>>();
+			for(int t=0; t < threads; t++) {
+				final int base = t * n;
+				futures.add(pool.submit(() -> {
+					for(int i=base; i < base + n; i++) {
+						Customer c = factory.createCustomer("Eric Meyer").setId(100_000L + i);
+						Article a = factory.createArticle("Tasse", 299).setId("SKU-" + (100_000 + i));
+						Order o = factory.createOrder(c).setId(Long.toString(1_000_000_000L + i)).addItem(a, 1);
+						// id set before lookup is found, also when other threads index
+						assertSame(c, factory.findCustomerById(100_000L + i).get());
+						assertSame(a, factory.findArticleById("SKU-" + (100_000 + i)).get());
+						assertSame(o, factory.findOrderById(Long.toString(1_000_000_000L + i)).get());
+						assertSame(a, factory.findArticleByKey(ArticleIdCodec.encode("SKU-" + (100_000 + i))).get());
+					}
+					return null;
+				}));
+			}
+			for(Future<?> f : futures) {
+				f.get();
+			}
+		} finally {
+			pool.shutdown();
+		}
+		assertEquals(threads * n, factory.customersCount());
+		assertEquals(threads * n, factory.articlesCount());
+		assertEquals(threads * n, factory.ordersCount());
+		assertEquals(threads * n, factory.getOrders().stream().distinct().count());
+		for(int i=0; i < threads * n; i += 997) {
+			assertEquals(100_000L + i, factory.findCustomerById(100_000L + i).get().getId());
+		}
+	}
+
+
+	@Test
+	void ordersOfCustomersCreatedConcurrently() throws Exception {
+		Customer[] customers = new Customer[10];
+		for(int i=0; i < customers.length; i++) {
+			customers[i] = factory.createCustomer("Eric Meyer").setId(i);
+		}
+		ExecutorService pool = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<?>> futures = new ArrayList<Future<?>>();
+			for(int t=0; t < 8; t++) {
+				futures.add(pool.submit(() -> {
+					for(int i=0; i < 10_000; i++) {
+						factory.createOrder(customers[i % customers.length]);
+					}
+				}));
+			}
+			for(Future<?> f : futures) {
+				f.get();
+			}
+		} finally {
+			pool.shutdown();
+		}
+		for(int i=0; i < customers.length; i++) {
+			List<Order> orders = factory.findOrdersByCustomer(i);
+			assertEquals(8_000, orders.size());
+			for(Order o : orders) {
+				assertSame(customers[i], o.getCustomer());
+			}
+		}
+	}
+
+
+	@Test
+	void ordersByArticleOfItemsAddedAndDeletedConcurrently() throws Exception {
+		Customer eric = factory.createCustomer("Eric Meyer").setId(1L);
+		Article tasse = factory.createArticle("Tasse", 299).setId("SKU-1");
+		ExecutorService pool = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<Order>> futures = new ArrayList<Future<Order>>();
+			for(int i=0; i < 1_000; i++) {
+				final boolean delete = i % 2 == 0;
+				futures.add(pool.submit(() -> {
+					Order o = factory.createOrder(eric).addItem(tasse, 1).addItem(tasse, 2);
+					if(delete) {
+						o.deleteAllItems();
+					}
+					return o;
+				}));
+			}
+			List<Order> kept = new ArrayList<Order>();
+			for(Future<Order> f : futures) {
+				Order o = f.get();
+				if(o.itemsCount() > 0) {
+					kept.add(o);
+				}
+			}
+			assertEquals(500, factory.findOrdersByArticle("SKU-1").size());
+			assertTrue(factory.findOrdersByArticle("SKU-1").containsAll(kept));
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+
+	@Test
+	void objectsAreFoundOnceIdIsSetAfterLookups() {
+		Customer c = factory.createCustomer("Anne Bayer");
+		assertTrue(factory.findCustomerById(42L).isEmpty());
+		c.setId(42L);
+		assertSame(c, factory.findCustomerById(42L).get());
+		assertTrue(factory.findArticleById(null).isEmpty());
+	}
+
+
+	@Test
+	void objectCreatedFirstWinsOnceItIsIndexed() {
+		Customer first = factory.createCustomer("Eric Meyer");
+		Order firstOrder = factory.createOrder(first);
+		assertTrue(factory.findCustomerById(42L).isEmpty());		// passed without id
+		assertTrue(factory.findOrderById("42").isEmpty());
+		Customer later = factory.createCustomer("Anne Bayer").setId(1L);
+		factory.createOrder(later).setId("1");
+		assertSame(later, factory.findCustomerById(1L).get());
+		//
+		first.setId(1L);
+		firstOrder.setId("1");
+		assertTrue(factory.findCustomerById(42L).isEmpty());		// miss indexes passed objects
+		assertTrue(factory.findOrderById("42").isEmpty());
+		assertSame(first, factory.findCustomerById(1L).get());
+		assertSame(firstOrder, factory.findOrderById("1").get());
+	}
+
+
+	@Test
+	void missesTakeNoLockWhenAllObjectsAreIndexed() throws Exception {
+		Customer c = factory.createCustomer("Anne Bayer").setId(42L);
+		Order o = factory.createOrder(c).setId("8592356245");
+		assertSame(c, factory.findCustomerById(42L).get());		// indexes queued objects
+		assertSame(o, factory.findOrderById("8592356245").get());
+		ExecutorService other = Executors.newSingleThreadExecutor();
+		try {
+			synchronized(field(factory, "unindexedCustomers")) {
+				synchronized(field(factory, "unindexedOrders")) {	// lookups that lock would block
+					assertTrue(other.submit(() -> factory.findCustomerById(43L)).get(10, TimeUnit.SECONDS).isEmpty());
+					assertTrue(other.submit(() -> factory.findOrderById("1")).get(10, TimeUnit.SECONDS).isEmpty());
+				}
+			}
+		} finally {
+			other.shutdownNow();
+		}
+	}
+
+
+	@Test
+	void readerOfFailedAppendDoesNotWaitForever() throws Exception {
+		assumeTrue(Runtime.getRuntime().maxMemory() < 4L << 30);	// chunk of 2^30 slots cannot be allocated
+		ConcurrentDatamodelFactory.AppendOnlyList<Integer> list = new ConcurrentDatamodelFactory.AppendOnlyList<Integer>();
+		((AtomicInteger)field(list, "reserved")).set(1 << 30);
+		assertThrows(OutOfMemoryError.class, () -> list.append(1));
+		assertEquals((1 << 30) + 1, list.size());
+		assertTimeoutPreemptively(Duration.ofSeconds(10),
+			() -> assertThrows(IllegalStateException.class, () -> list.get(1 << 30)));
+	}
+
+
+	@Test
+	void gettersAreReadOnlyViews() {
+		factory.createCustomer("Eric Meyer");
+		assertThrows(UnsupportedOperationException.class, () -> factory.getCustomers().add(new Customer()));
+		assertThrows(UnsupportedOperationException.class, () -> factory.getCustomers().remove(0));
+	}
+
+
+	@Test
+	void appendOnlyListGrowsInChunks() {
+		ConcurrentDatamodelFactory.AppendOnlyList<Integer> list = new ConcurrentDatamodelFactory.AppendOnlyList<Integer>();
+		for(int i=0; i < 10_000; i++) {		// chunks of 1024, 2048, 4096, 8192
+			list.append(i);
+		}
+		assertEquals(10_000, list.size());
+		for(int i=0; i < 10_000; i++) {
+			assertEquals(i, list.get(i));
+		}
+		assertThrows(IndexOutOfBoundsException.class, () -> list.get(10_000));
+		assertThrows(IndexOutOfBoundsException.class, () -> list.get(-1));
+		assertThrows(IllegalArgumentException.class, () -> list.append(null));
+	}
+
+
+	@Test
+	void iteratorsSeeElementsAppendedDuringIteration() {
+		ConcurrentDatamodelFactory.AppendOnlyList<Integer> list = new ConcurrentDatamodelFactory.AppendOnlyList<Integer>();
+		list.append(0);
+		int seen = 0;
+		for(Iterator<Integer> it = list.iterator(); it.hasNext(); seen++) {
+			int i = it.next();
+			if(i < 2_000) {
+				list.append(i + 1);		// no ConcurrentModificationException
+			}
+		}
+		assertEquals(2_001, seen);
+	}
+
+
+	/**
+	 * Value of private field, e.g. to hold a lock or to skip slots.
+	 */
+	private static Object field(Object obj, String name) throws ReflectiveOperationException {
+		Field field = obj.getClass().getDeclaredField(name);
+		field.setAccessible(true);
+		return field.get(obj);
+	}
+}
@@ -0,0 +1,134 @@
+package system.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+
+/**
+ * Tests of JSON files generated by {@link DataGeneratorJSON}.
+ *
+ * @version <code style=color:green>{@value application.package_info#Version}</code>
+ * @author <code style=color:blue>{@value application.package_info#Author}</code>
+ */
+
+class DataGeneratorJSONTest {
+
+	@TempDir
+	Path dir;
+
+	private final ObjectMapper mapper = new ObjectMapper();
+
+
+	@Test
+	void sameSeedGeneratesSameFiles() throws IOException {
+		new DataGeneratorJSON(properties("gen.orders=500", "gen.invalid=0.05")).generate(dir.resolve("a"));
+		new DataGeneratorJSON(properties("gen.orders=500", "gen.invalid=0.05")).generate(dir.resolve("b"));
+		new DataGeneratorJSON(properties("gen.orders=500", "gen.invalid=0.05", "gen.seed=7")).generate(dir.resolve("c"));
+		//
+		for(String file : new String[] {"customers.json", "articles.json", "orders.json"}) {
+			assertEquals(Files.readString(dir.resolve("a").resolve(file)), Files.readString(dir.resolve("b").resolve(file)), file);
+		}
+		assertNotEquals(Files.readString(dir.resolve("a").resolve("orders.json")), Files.readString(dir.resolve("c").resolve("orders.json")));
+	}
+
+
+	@Test
+	void validRecordsAreLoadedAndInvalidRecordsDropped() throws IOException {
+		new DataGeneratorJSON(properties("gen.customers=200", "gen.articles=50", "gen.orders=2000", "gen.invalid=0.1")).generate(dir);
+		JsonNode orders = mapper.readTree(dir.resolve("orders.json").toFile());
+		assertTrue(orders.size() > 2000);
+		//
+		DatamodelFactoryImpl factory = new DatamodelFactoryImpl();
+		MetricsImpl metrics = new MetricsImpl();
+		Properties props = new Properties();
+		props.setProperty("data.path", dir.toString());
+		props.setProperty("data.customers", "customers.json");
+		props.setProperty("data.articles", "articles.json");
+		props.setProperty("data.orders", "orders.json");
+		new OrderBuilderJSONImpl(factory, props, metrics).buildOrders();
+		assertEquals(200, factory.customersCount());
+		assertEquals(50, factory.articlesCount());
+		long withItems = 0;		// orders of items with units of wrong type are loaded without items
+		for(JsonNode order : orders) {
+			withItems += order.get("customer_id").asLong() >= 0 && order.get("items").size() > 0 ? 1 : 0;
+		}
+		assertTrue(withItems > 2000);
+		assertEquals(withItems, factory.ordersCount());
+		assertTrue(metrics.counter("json.dropped").count() >= orders.size() - withItems);
+	}
+
+
+	@Test
+	void orderIdsAreUnique() throws IOException {
+		new DataGeneratorJSON(properties("gen.orders=2000", "gen.invalid=0.2")).generate(dir);
+		Set<String> ids = new HashSet<String>();
+		for(JsonNode order : mapper.readTree(dir.resolve("orders.json").toFile())) {
+			assertTrue(ids.add(order.get("id").asText()), "duplicate id " + order.get("id"));
+		}
+		assertTrue(ids.contains("1000000000"));
+		assertTrue(ids.contains("1000001999"));
+		assertTrue(ids.contains("1000002000"));		// first invalid order
+	}
+
+
+	@Test
+	void articlesArePickedByZipfPopularity() throws IOException {
+		new DataGeneratorJSON(properties("gen.articles=100", "gen.orders=5000")).generate(dir);
+		Map<String, Integer> picks = new HashMap<String, Integer>();
+		for(JsonNode order : mapper.readTree(dir.resolve("orders.json").toFile())) {
+			for(JsonNode item : order.get("items")) {
+				picks.merge(item.get("article_id").asText(), 1, Integer::sum);
+			}
+		}
+		int first = picks.get("SKU-100000"), tenth = picks.get("SKU-100009");
+		assertTrue(first > 5 * tenth, first + " vs " + tenth);
+	}
+
+
+	@Test
+	void emptyArrays() throws IOException {
+		new DataGeneratorJSON(properties("gen.orders=0")).generate(dir);
+		assertEquals(0, mapper.readTree(dir.resolve("orders.json").toFile()).size());
+	}
+
+
+	@Test
+	void invalidProperties() {
+		IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> new DataGeneratorJSON(properties("gen.orders=many")));
+		assertEquals("invalid property: gen.orders = many, not a number", e.getMessage());
+		assertTrue(e.getCause() instanceof NumberFormatException);
+		e = assertThrows(IllegalArgumentException.class, () -> new DataGeneratorJSON(properties("gen.customers=0")));
+		assertEquals("invalid property: gen.customers = 0, not in range [1, 2147483647]", e.getMessage());
+		e = assertThrows(IllegalArgumentException.class, () -> new DataGeneratorJSON(properties("gen.invalid=1.5")));
+		assertEquals("invalid property: gen.invalid = 1.5, not in range [0, 1.0]", e.getMessage());
+		e = assertThrows(IllegalArgumentException.class, () -> new DataGeneratorJSON(properties("gen.zipf=x")));
+		assertEquals("invalid property: gen.zipf = x, not a number", e.getMessage());
+	}
+
+
+	/**
+	 * Generation properties from key=value pairs.
+	 */
+	private static Properties properties(String... keyValues) {
+		Properties props = new Properties();
+		for(String kv : keyValues) {
+			String[] s = kv.split("=", 2);
+			props.setProperty(s[0], s[1]);
+		}
+		return props;
+	}
+}
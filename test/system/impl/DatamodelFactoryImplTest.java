@@ -0,0 +1,168 @@
+package system.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import datamodel.Article;
+import datamodel.Customer;
+import datamodel.Order;
+
+
+/**
+ * Tests of lookups by id in {@link DatamodelFactoryImpl} through its indexes.
+ *
+ * @version <code style=color:green>{@value application.package_info#Version}</code>
+ * @author <code style=color:blue>{@value application.package_info#Author}</code>
+ */
+
+class DatamodelFactoryImplTest {
+
+	private final DatamodelFactoryImpl factory = new DatamodelFactoryImpl();
+
+
+	@Test
+	void findsObjectsByIdSetAfterCreation() {
+		Customer c = factory.createCustomer("Eric Meyer").setId(892474L);
+		Article a = factory.createArticle("Tasse", 299).setId("SKU-458362");
+		Article b = factory.createArticle("Becher", 149).setId("Becher-1");
+		Order o = factory.createOrder(c).setId("8592356245");
+		//
+		assertSame(c, factory.findCustomerById(892474L).get());
+		assertSame(a, factory.findArticleById("SKU-458362").get());
+		assertSame(b, factory.findArticleById("Becher-1").get());
+		assertSame(o, factory.findOrderById("8592356245").get());
+	}
+
+
+	@Test
+	void missingIdsAreNotFound() {
+		factory.createCustomer("Eric Meyer").setId(1L);
+		factory.createArticle("Tasse", 299).setId("SKU-1");
+		//
+		assertTrue(factory.findCustomerById(2L).isEmpty());
+		assertTrue(factory.findCustomerById(-1L).isEmpty());
+		assertTrue(factory.findArticleById("SKU-2").isEmpty());
+		assertTrue(factory.findArticleById(null).isEmpty());
+		assertTrue(factory.findOrderById(null).isEmpty());
+	}
+
+
+	@Test
+	void objectsAreFoundOnceIdIsSetAfterLookups() {
+		Customer c = factory.createCustomer("Anne Bayer");
+		Article a = factory.createArticle("Kanne", 1999);
+		Order o = factory.createOrder(factory.createCustomer("Tim Schulz").setId(7L));
+		assertTrue(factory.findCustomerById(42L).isEmpty());	// scanned without id
+		assertTrue(factory.findArticleById("SKU-42").isEmpty());
+		assertTrue(factory.findOrderById("42").isEmpty());
+		//
+		c.setId(42L);
+		a.setId("SKU-42");
+		o.setId("42");
+		assertSame(c, factory.findCustomerById(42L).get());
+		assertSame(a, factory.findArticleById("SKU-42").get());
+		assertSame(o, factory.findOrderById("42").get());
+	}
+
+
+	@Test
+	void firstObjectFoundWithIdWins() {
+		Customer first = factory.createCustomer("Eric Meyer").setId(1L);
+		assertSame(first, factory.findCustomerById(1L).get());
+		factory.createCustomer("Anne Bayer").setId(1L);
+		assertSame(first, factory.findCustomerById(1L).get());
+	}
+
+
+	@Test
+	void objectCreatedFirstWinsWhenItsIdIsSetLater() {
+		Customer first = factory.createCustomer("Eric Meyer");
+		Article firstArticle = factory.createArticle("Tasse", 299);
+		Article firstIrregular = factory.createArticle("Becher", 149);
+		Order firstOrder = factory.createOrder(first);
+		assertTrue(factory.findCustomerById(42L).isEmpty());	// scanned without id
+		assertTrue(factory.findArticleById("SKU-42").isEmpty());
+		assertTrue(factory.findOrderById("42").isEmpty());
+		Customer later = factory.createCustomer("Anne Bayer").setId(1L);
+		factory.createArticle("Kanne", 1999).setId("SKU-1");
+		factory.createArticle("Krug", 999).setId("Krug-1");
+		factory.createOrder(later).setId("1");
+		assertSame(later, factory.findCustomerById(1L).get());		// found with id first
+		assertNotSame(firstArticle, factory.findArticleById("SKU-1").get());
+		assertNotSame(firstIrregular, factory.findArticleById("Krug-1").get());
+		assertNotSame(firstOrder, factory.findOrderById("1").get());
+		//
+		first.setId(1L);
+		firstArticle.setId("SKU-1");
+		firstIrregular.setId("Krug-1");
+		firstOrder.setId("1");
+		assertSame(first, factory.findCustomerById(1L).get());		// hit of id is replaced
+		assertSame(firstArticle, factory.findArticleById("SKU-1").get());
+		assertSame(firstIrregular, factory.findArticleById("Krug-1").get());
+		assertSame(firstOrder, factory.findOrderById("1").get());
+		assertSame(first, factory.getCustomers().stream().filter(c -> c.getIdAsLong() == 1L).findFirst().get());
+	}
+
+
+	@Test
+	void ordersByCustomerInOrderOfCreation() {
+		Customer eric = factory.createCustomer("Eric Meyer").setId(1L);
+		Customer anne = factory.createCustomer("Anne Bayer").setId(2L);
+		Order o1 = factory.createOrder(eric);
+		Order o2 = factory.createOrder(anne);
+		Order o3 = factory.createOrder(eric);
+		//
+		List<Order> orders = factory.findOrdersByCustomer(1L);
+		assertEquals(List.of(o1, o3), orders);
+		assertEquals(List.of(o2), factory.findOrdersByCustomer(2L));
+		assertTrue(factory.findOrdersByCustomer(3L).isEmpty());
+		assertThrows(UnsupportedOperationException.class, () -> orders.remove(0));
+		//
+		Order o4 = factory.createOrder(eric);
+		assertEquals(List.of(o1, o3, o4), factory.findOrdersByCustomer(1L));
+		Customer tim = factory.createCustomer("Tim Schulz");
+		Order o5 = factory.createOrder(tim);
+		tim.setId(3L);		// id set after orders were created
+		assertEquals(List.of(o5), factory.findOrdersByCustomer(3L));
+	}
+
+
+	@Test
+	void ordersByArticleFollowAddedAndDeletedItems() {
+		Customer eric = factory.createCustomer("Eric Meyer").setId(1L);
+		Article tasse = factory.createArticle("Tasse", 299).setId("SKU-1");
+		Article kanne = factory.createArticle("Kanne", 1999).setId("SKU-2");
+		Order o1 = factory.createOrder(eric).addItem(tasse, 4).addItem(kanne, 1).addItem(tasse, 2);
+		Order o2 = factory.createOrder(eric).addItem(kanne, 2);
+		Order o3 = factory.createOrder(eric).addItem(tasse, 1);
+		//
+		assertEquals(List.of(o1, o3), List.copyOf(factory.findOrdersByArticle("SKU-1")));
+		assertEquals(List.of(o1, o2), List.copyOf(factory.findOrdersByArticle("SKU-2")));
+		assertTrue(factory.findOrdersByArticle("SKU-3").isEmpty());
+		assertThrows(UnsupportedOperationException.class, () -> factory.findOrdersByArticle("SKU-1").clear());
+		//
+		o1.deleteItem(0);		// o1 still has second item of tasse
+		assertEquals(List.of(o1, o3), List.copyOf(factory.findOrdersByArticle("SKU-1")));
+		o1.deleteItem(1);
+		assertEquals(List.of(o3), List.copyOf(factory.findOrdersByArticle("SKU-1")));
+		o2.deleteAllItems();
+		assertEquals(List.of(o1), List.copyOf(factory.findOrdersByArticle("SKU-2")));
+		o2.addItem(tasse, 3);
+		assertEquals(List.of(o3, o2), List.copyOf(factory.findOrdersByArticle("SKU-1")));
+	}
+
+
+	@Test
+	void lookupsCountInMetrics() {
+		MetricsImpl metrics = new MetricsImpl();
+		DatamodelFactoryImpl f = new DatamodelFactoryImpl(metrics);
+		f.findCustomerById(1L);
+		f.findCustomerById(2L);
+		f.findArticleById("SKU-1");
+		assertEquals(2L, metrics.counter("factory.find.customer").count());
+		assertEquals(1L, metrics.counter("factory.find.article").count());
+	}
+}
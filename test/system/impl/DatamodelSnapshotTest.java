@@ -0,0 +1,235 @@
+package system.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import datamodel.Article;
+import datamodel.Currency;
+import datamodel.Customer;
+import datamodel.Order;
+import datamodel.TAX;
+import system.DatamodelFactory;
+
+
+/**
+ * Tests of writing and reading binary snapshots with {@link DatamodelSnapshot}.
+ *
+ * @version <code style=color:green>{@value application.package_info#Version}</code>
+ * @author <code style=color:blue>{@value application.package_info#Author}</code>
+ */
+
+class DatamodelSnapshotTest {
+
+	@TempDir
+	Path dir;
+
+	private final DatamodelFactoryImpl factory = new DatamodelFactoryImpl();
+
+
+	@Test
+	void snapshotLoadsSameObjects() throws IOException {
+		populate();
+		Path file = dir.resolve("snapshot.bin");
+		long size = DatamodelSnapshot.write(factory, file);
+		assertEquals(Files.size(file), size);
+		//
+		DatamodelSnapshot snapshot = DatamodelSnapshot.open(file);
+		assertEquals(3, snapshot.customersCount());
+		assertEquals(3, snapshot.articlesCount());
+		assertEquals(3, snapshot.ordersCount());
+		assertEquals(4, snapshot.itemsCount());
+		DatamodelFactoryImpl loaded = new DatamodelFactoryImpl();
+		assertSame(loaded, snapshot.loadInto(loaded));
+		assertEquals(dump(factory), dump(loaded));
+		assertSame(loaded.findCustomerById(892474L).get(), loaded.findOrderById("8592356245").get().getCustomer());
+	}
+
+
+	@Test
+	void objectsAreMaterializedOnAccess() throws IOException {
+		populate();
+		Path file = dir.resolve("snapshot.bin");
+		DatamodelSnapshot.write(factory, file);
+		DatamodelSnapshot snapshot = DatamodelSnapshot.open(file);
+		//
+		Order order = snapshot.findOrderById("8592356245").get();
+		assertSame(order, snapshot.getOrder(0));
+		assertSame(snapshot.findCustomerById(892474L).get(), order.getCustomer());
+		assertSame(snapshot.findArticleById("Kanne-1").get(), order.getItems().iterator().next().getArticle());
+		assertEquals(factory.findOrderById("8592356245").get().getTotalOrderValue(), order.getTotalOrderValue());
+		assertEquals(1652813743348L, order.getCreationDate());
+		//
+		assertTrue(snapshot.findCustomerById(1L).isEmpty());
+		assertTrue(snapshot.findArticleById("SKU-1").isEmpty());
+		assertTrue(snapshot.findOrderById(null).isEmpty());
+		assertThrows(IndexOutOfBoundsException.class, () -> snapshot.getCustomer(3));
+	}
+
+
+	@Test
+	void emptyFactory() throws IOException {
+		Path file = dir.resolve("empty.bin");
+		DatamodelSnapshot.write(factory, file);
+		DatamodelSnapshot snapshot = DatamodelSnapshot.open(file);
+		assertEquals(0, snapshot.ordersCount());
+		assertTrue(snapshot.findCustomerById(0L).isEmpty());
+		assertEquals(0, snapshot.loadInto(new DatamodelFactoryImpl()).customersCount());
+	}
+
+
+	@Test
+	void invalidSnapshots() throws IOException {
+		Path file = dir.resolve("orders.json");
+		Files.writeString(file, "[]".repeat(32), StandardCharsets.UTF_8);
+		assertThrows(IOException.class, () -> DatamodelSnapshot.open(file));
+		assertThrows(IOException.class, () -> DatamodelSnapshot.open(dir.resolve("missing.bin")));
+		assertThrows(IllegalArgumentException.class, () -> DatamodelSnapshot.write(null, dir.resolve("null.bin")));
+		DatamodelSnapshot.write(factory, dir.resolve("empty.bin"));
+		assertThrows(IllegalArgumentException.class, () -> DatamodelSnapshot.open(dir.resolve("empty.bin")).loadInto(null));
+	}
+
+
+	@Test
+	void damagedSnapshotsAreRejected() throws IOException {
+		populate();
+		Path file = dir.resolve("snapshot.bin");
+		DatamodelSnapshot.write(factory, file);
+		byte[] bytes = Files.readAllBytes(file);
+		//
+		Path damaged = dir.resolve("damaged.bin");
+		Files.write(damaged, Arrays.copyOf(bytes, bytes.length - 1));	// truncated string data
+		assertTrue(assertThrows(IOException.class, () -> DatamodelSnapshot.open(damaged)).getMessage().contains("corrupted"));
+		byte[] tax = bytes.clone();
+		tax[32 + 3 * 24 + 16] = 99;		// tax ordinal of first article
+		Files.write(damaged, tax);
+		assertThrows(IOException.class, () -> DatamodelSnapshot.open(damaged));
+		byte[] count = bytes.clone();
+		count[8] = 4;		// 4 customers in header
+		Files.write(damaged, count);
+		assertThrows(IOException.class, () -> DatamodelSnapshot.open(damaged));
+		//
+		// header, 3 customers, 3 articles, 3 orders, id indexes (16, 8, 8 bytes), 4 items: first contact
+		byte[] contact = bytes.clone();
+		contact[32 + 9 * 24 + 3 * 32 + 4 * 8] = 0;		// string 0 is "Eric", too short for a contact
+		Files.write(damaged, contact);
+		DatamodelFactoryImpl loaded = new DatamodelFactoryImpl();
+		DatamodelSnapshot snapshot = DatamodelSnapshot.open(damaged);
+		assertThrows(IllegalArgumentException.class, () -> snapshot.loadInto(loaded));
+		assertEquals(0, loaded.customersCount());		// no partial objects
+	}
+
+
+	@Test
+	void snapshotIsReplacedAtomically() throws IOException {
+		populate();
+		Path file = dir.resolve("snapshot.bin");
+		DatamodelSnapshot.write(new DatamodelFactoryImpl(), file);
+		DatamodelSnapshot mapped = DatamodelSnapshot.open(file);
+		DatamodelSnapshot.write(factory, file);
+		assertEquals(0, mapped.customersCount());		// mapping of replaced file remains intact
+		assertEquals(3, DatamodelSnapshot.open(file).customersCount());
+		try(var files = Files.list(dir)) {
+			assertEquals(List.of(file), files.toList());	// no temporary file left
+		}
+	}
+
+
+	@Test
+	void builderFallsBackToJSONFilesForDamagedSnapshot() throws IOException {
+		Properties props = generate();
+		Files.writeString(dir.resolve("snapshot.bin"), "DMSN".repeat(64), StandardCharsets.UTF_8);
+		MetricsImpl metrics = new MetricsImpl();
+		new OrderBuilderJSONImpl(factory, props, metrics).buildOrders();
+		assertEquals(0L, metrics.histogram("snapshot.read").count());
+		assertEquals(1L, metrics.histogram("snapshot.write").count());
+		assertEquals(500, factory.ordersCount());
+		//
+		DatamodelFactoryImpl loaded = new DatamodelFactoryImpl();
+		assertEquals(dump(factory), dump(DatamodelSnapshot.open(dir.resolve("snapshot.bin")).loadInto(loaded)));
+	}
+
+
+	@Test
+	void builderLoadsSnapshotInsteadOfJSONFiles() throws IOException {
+		Properties props = generate();
+		new OrderBuilderJSONImpl(factory, props).buildOrders();
+		assertTrue(Files.exists(dir.resolve("snapshot.bin")));
+		//
+		MetricsImpl metrics = new MetricsImpl();
+		DatamodelFactoryImpl loaded = new DatamodelFactoryImpl();
+		new OrderBuilderJSONImpl(loaded, props, metrics).buildOrders();
+		assertEquals(1L, metrics.histogram("snapshot.read").count());
+		assertEquals(0L, metrics.histogram("json.read." + dir.resolve("orders.json")).count());
+		assertEquals(dump(factory), dump(loaded));
+	}
+
+
+	/**
+	 * Generate JSON files of 500 orders, modified before snapshots written by
+	 * tests, and return properties to load them with snapshot.bin.
+	 */
+	private Properties generate() throws IOException {
+		Properties gen = new Properties();
+		gen.setProperty("gen.orders", "500");
+		new DataGeneratorJSON(gen).generate(dir);
+		for(String file : new String[] {"customers.json", "articles.json", "orders.json"}) {
+			Files.setLastModifiedTime(dir.resolve(file), FileTime.fromMillis(System.currentTimeMillis() - 60_000L));
+		}
+		Properties props = new Properties();
+		props.setProperty("data.path", dir.toString());
+		props.setProperty("data.customers", "customers.json");
+		props.setProperty("data.articles", "articles.json");
+		props.setProperty("data.orders", "orders.json");
+		props.setProperty("data.snapshot", "snapshot.bin");
+		return props;
+	}
+
+
+	/**
+	 * Create customers, articles and orders with all attributes set.
+	 */
+	private void populate() {
+		Customer eric = factory.createCustomer("Eric Meyer").setId(892474L).addContact("eric98@yahoo.com").addContact("(030) 3945-642298");
+		Customer anne = factory.createCustomer("Bayer, Anne").setId(643270L);
+		factory.createCustomer("Tim").setId(286516L);			// no first name
+		Article tasse = factory.createArticle("Tasse", 299).setId("SKU-458362").setTax(TAX.GER_VAT_REDUCED);
+		Article kanne = factory.createArticle("Kanne \"Ü\"", 1999).setId("Kanne-1");
+		factory.createArticle("Buch", 7995).setId("SKU-000001").setTax(TAX.TAXFREE).setCurrency(Currency.USD);
+		factory.createOrder(eric).setId("8592356245").addItem(kanne, 1).addItem(tasse, 4).setCreationDate(1652813743348L);
+		factory.createOrder(anne).setId("3563561357").addItem(tasse, 2).addItem(kanne, 1);
+		factory.createOrder(anne).setId("5234968294");		// no items
+	}
+
+
+	/**
+	 * Text of all attributes of objects in order of creation.
+	 */
+	private static String dump(DatamodelFactory f) {
+		StringBuilder sb = new StringBuilder();
+		for(Customer c : f.getCustomers()) {
+			sb.append(c.getId()).append('|').append(c.getFirstName()).append('|').append(c.getLastName())
+				.append('|').append(String.join(",", c.getContacts())).append('\n');
+		}
+		for(Article a : f.getArticles()) {
+			sb.append(a.getId()).append('|').append(a.getDescription()).append('|').append(a.getUnitPrice())
+				.append('|').append(a.getTax()).append('|').append(a.getCurrency()).append('\n');
+		}
+		for(Order o : f.getOrders()) {
+			sb.append(o.getId()).append('|').append(o.getCustomer().getId()).append('|').append(o.getCreationDate());
+			o.getItems().forEach(i -> sb.append('|').append(i.getArticle().getId()).append('x').append(i.getUnitsOrdered()));
+			sb.append('\n');
+		}
+		return sb.toString();
+	}
+}
@@ -0,0 +1,170 @@
+package system.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.text.DateFormat;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+
+/**
+ * Tests of date, price and decimal formatting with {@link FormatterImpl}.
+ *
+ * @version <code style=color:green>{@value application.package_info#Version}</code>
+ * @author <code style=color:blue>{@value application.package_info#Author}</code>
+ */
+
+class FormatterImplTest {
+
+	private final FormatterImpl formatter = new FormatterImpl();
+
+	/**
+	 * Tue May 17 2022 18:55:43.348 UTC.
+	 */
+	private static final long DATETIME = 1652813743348L;
+
+
+	@Test
+	void datesFormattedAsWithDateFormat() {
+		Random rand = new Random(42);
+		for(int i=0; i < 200; i++) {
+			long datetime = rand.nextLong(4_102_444_800_000L);	// 1970 to 2100
+			DateFormat[] dateFmts = dateFormats();
+			for(int st=0; st < dateFmts.length; st++) {
+				String expected = dateFmts[st] != null ? dateFmts[st].format(new Date(datetime)) : Long.toString(datetime);
+				assertEquals(expected, formatter.fmtDate(datetime, st, null), "style " + st + " of " + datetime);
+			}
+		}
+	}
+
+
+	@Test
+	void timesFormattedAsWithDateFormat() {
+		DateFormat[] dateFmts = dateFormats();
+		DateFormat[] timeFmts = {
+			new SimpleDateFormat("HH:mm:ss"),
+			new SimpleDateFormat("HH:mm"),
+			new SimpleDateFormat("HH:mm:ss.SSS"),
+			new SimpleDateFormat("HH:mm:ss, z"),
+			new SimpleDateFormat("HH:mm:ss, Z"),
+			new SimpleDateFormat("HH:mm:ss, aa"),
+		};
+		for(int st=3; st < dateFmts.length; st++) {
+			for(int tst=0; tst < timeFmts.length; tst++) {
+				String expected = dateFmts[st].format(new Date(DATETIME)) + " | " + timeFmts[tst].format(new Date(DATETIME));
+				assertEquals(expected, formatter.fmtDate(DATETIME, st, " | ", tst), "style " + st + ", " + tst);
+			}
+		}
+	}
+
+
+	@Test
+	void timeIsAppendedWithDefaultFillOnlyAfterDateOnlyStyles() {
+		String date = formatter.fmtDate(DATETIME, 3, null);
+		String time = new SimpleDateFormat("HH:mm").format(new Date(DATETIME));
+		assertEquals(date + " " + time, formatter.fmtDate(DATETIME, 3, null, 1));
+		assertEquals(formatter.fmtDate(DATETIME, 0, null), formatter.fmtDate(DATETIME, 0, "-", 1));
+		assertEquals(date, formatter.fmtDate(DATETIME, 3, "-", 6));
+	}
+
+
+	@Test
+	void longStringAndInvalidStyles() {
+		assertEquals("1652813743348", formatter.fmtDate(DATETIME, 2, null, 0));
+		assertEquals("18446744073709551615", formatter.fmtDate(-1L, 2, null));
+		assertEquals("", formatter.fmtDate(DATETIME, -1, null));
+		assertEquals("", formatter.fmtDate(DATETIME, 17, null));
+		String time = new SimpleDateFormat("HH:mm").format(new Date(DATETIME));
+		assertEquals(" " + time, formatter.fmtDate(DATETIME, 17, null, 1));	// time without date, as before
+	}
+
+
+	@Test
+	void pricesOfAllStyles() {
+		assertEquals("4.99", formatter.fmtPrice(499L));
+		assertEquals("4.99\u20ac", formatter.fmtPrice(499L, 1));
+		assertEquals("1,234.56$", formatter.fmtPrice(123456L, 2));
+		assertEquals("0.05\u00A3", formatter.fmtPrice(5L, 3));
+		assertEquals("16,000\u00A5", formatter.fmtPrice(16000L, 4));
+		assertEquals("16,000", formatter.fmtPrice(16000L, 5));
+		assertEquals("", formatter.fmtPrice(499L, 6));
+		assertEquals("-12.34", formatter.fmtPrice(-1234L, 0));
+	}
+
+
+	@Test
+	void decimalsFormattedAsWithStringFormat() {
+		Locale locale = Locale.getDefault(Locale.Category.FORMAT);
+		try {
+			for(Locale l : new Locale[] {Locale.US, Locale.GERMANY, Locale.FRANCE}) {
+				Locale.setDefault(Locale.Category.FORMAT, l);
+				Random rand = new Random(42);
+				for(int i=0; i < 10_000; i++) {
+					long value = i < 2_000 ? i - 1_000 : rand.nextLong() >> rand.nextInt(64);
+					for(int digs=0; digs <= 3; digs++) {
+						assertEquals(format(value, digs, "\u20ac"), formatter.fmtDecimal(value, digs, "\u20ac"), l + ": " + value);
+					}
+				}
+				for(long value : new long[] {Long.MIN_VALUE, Long.MAX_VALUE, -1L, -99L, -100L}) {
+					assertEquals(format(value, 2, null), formatter.fmtDecimal(value, 2), l + ": " + value);
+					assertEquals(format(value, 0, null), formatter.fmtDecimal(value, 0), l + ": " + value);
+				}
+			}
+		} finally {
+			Locale.setDefault(Locale.Category.FORMAT, locale);
+		}
+	}
+
+
+	@Test
+	void decimalsAppendedToStringBuilder() {
+		StringBuilder sb = new StringBuilder("value: ");
+		assertSame(sb, formatter.fmtDecimal(sb, 1234567L, 3, "kg"));
+		assertSame(sb, formatter.fmtPrice(sb.append(", price: "), 199L, 1));
+		assertEquals("value: 1,234.567kg, price: 1.99\u20ac", sb.toString());
+		assertEquals("1.99", formatter.fmtPrice(null, 199L).toString());
+		assertEquals("-1.5", formatter.fmtDecimal(-15L, 1));
+		assertEquals("0.5", formatter.fmtDecimal(-5L, 1));		// sign of values between -1 and 0 not shown
+	}
+
+
+	/**
+	 * Decimal formatted with {@link String#format(String, Object...)} as before.
+	 */
+	private static String format(long value, int decimalDigits, String unit) {
+		final long[] scale = {1L, 10L, 100L, 1000L};
+		final String unitStr = unit != null ? unit : "";
+		return decimalDigits == 0 ? String.format("%,d%s", value, unitStr) :
+			String.format("%,d.%0" + decimalDigits + "d%s", value / scale[decimalDigits], Math.abs(value % scale[decimalDigits]), unitStr);
+	}
+
+
+	/**
+	 * Date formats of the same styles as {@link FormatterImpl}, style 2 has no format.
+	 */
+	private static DateFormat[] dateFormats() {
+		return new DateFormat[] {
+			new SimpleDateFormat("yyyy-MM-dd HH:mm:ss"),
+			new SimpleDateFormat("dd-MM-yyyy HH:mm:ss"),
+			null,
+			new SimpleDateFormat("yyyy-MM-dd"),
+			new SimpleDateFormat("dd-MM-yyyy"),
+			new SimpleDateFormat("MM/dd/yy", Locale.US),
+			new SimpleDateFormat("MM/dd/yyyy", Locale.US),
+			DateFormat.getDateInstance(DateFormat.MEDIUM, Locale.US),
+			DateFormat.getDateInstance(DateFormat.SHORT, Locale.GERMAN),
+			DateFormat.getDateInstance(DateFormat.MEDIUM, Locale.GERMAN),
+			DateFormat.getDateInstance(DateFormat.LONG, Locale.GERMAN),
+			new SimpleDateFormat("EEE", Locale.GERMAN),
+			new SimpleDateFormat("EEEE", Locale.GERMAN),
+			new SimpleDateFormat("EEEE, 'der' dd. MMM yyyy", Locale.GERMAN),
+			new SimpleDateFormat("EEE", Locale.US),
+			new SimpleDateFormat("EEEE", Locale.US),
+			new SimpleDateFormat("EEE, MMM dd, yyyy", Locale.US),
+		};
+	}
+}
@@ -0,0 +1,114 @@
+package system.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import datamodel.Customer;
+
+
+/**
+ * Tests of the primitive long-keyed {@link LongHashMap}.
+ *
+ * @version <code style=color:green>{@value application.package_info#Version}</code>
+ * @author <code style=color:blue>{@value application.package_info#Author}</code>
+ */
+
+class LongHashMapTest {
+
+	private final LongHashMap<String> map = new LongHashMap<String>();
+
+
+	@Test
+	void entriesAreFoundAfterGrowth() {
+		for(long k=0; k < 10_000; k++) {
+			assertNull(map.putIfAbsent(k * 31, "v" + k));
+			assertEquals(k + 1, map.size());
+		}
+		for(long k=0; k < 10_000; k++) {
+			assertEquals("v" + k, map.get(k * 31));
+		}
+		assertNull(map.get(1L));
+		assertNull(map.get(-31L));
+	}
+
+
+	@Test
+	void extremeKeys() {
+		long[] keys = {0L, -1L, Long.MIN_VALUE, Long.MAX_VALUE, 1L << 32, 1L << 63 >>> 1};
+		assertNull(map.get(0L));		// empty map
+		for(long k : keys) {
+			map.putIfAbsent(k, Long.toString(k));
+		}
+		for(long k : keys) {
+			assertEquals(Long.toString(k), map.get(k));
+		}
+		assertEquals(keys.length, map.size());
+	}
+
+
+	@Test
+	void existingValueIsNotReplaced() {
+		assertNull(map.putIfAbsent(42L, "first"));
+		assertEquals("first", map.putIfAbsent(42L, "second"));
+		assertEquals("first", map.get(42L));
+		assertEquals(1, map.size());
+		assertThrows(IllegalArgumentException.class, () -> map.putIfAbsent(7L, null));
+		assertNull(map.get(7L));
+	}
+
+
+	@Test
+	void putReplacesValue() {
+		assertNull(map.put(0L, "first"));
+		assertEquals("first", map.put(0L, "second"));
+		assertEquals("second", map.get(0L));
+		assertNull(map.put(16L, "other"));
+		assertEquals("other", map.put(16L, "third"));
+		assertEquals("third", map.get(16L));
+		assertEquals("second", map.get(0L));
+		assertEquals(2, map.size());
+	}
+
+
+	@Test
+	void readersFindPublishedEntriesWhileMapGrows() throws InterruptedException {
+		final AtomicLong published = new AtomicLong(-1L);
+		final AtomicBoolean missed = new AtomicBoolean();
+		Thread reader = new Thread(() -> {
+			long last;
+			while((last = published.get()) < 199_999L) {
+				for(long k = Math.max(0L, last - 100); k <= last; k++) {
+					if(map.get(k) == null) {
+						missed.set(true);
+					}
+				}
+			}
+		});
+		reader.start();
+		for(long k=0; k < 200_000L; k++) {
+			map.putIfAbsent(k, "v");
+			published.set(k);
+		}
+		reader.join();
+		assertFalse(missed.get());
+	}
+
+
+	@Test
+	void customersAreFoundByPrimitiveId() {
+		Customer c = new Customer("Eric Meyer");
+		assertEquals(-1L, c.getIdAsLong());
+		assertNull(c.getId());
+		c.setId(892474L);
+		assertEquals(892474L, c.getIdAsLong());
+		//
+		DatamodelFactoryImpl factory = new DatamodelFactoryImpl();
+		Customer anne = factory.createCustomer("Anne Bayer").setId(0L);
+		assertSame(anne, factory.findCustomerById(0L).get());
+		assertTrue(factory.findCustomerById(-1L).isEmpty());
+	}
+}
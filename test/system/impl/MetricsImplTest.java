@@ -0,0 +1,131 @@
+package system.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import datamodel.Order;
+import system.IoC;
+import system.Metrics;
+
+
+/**
+ * Tests of counters, histograms and snapshots of {@link MetricsImpl}.
+ *
+ * @version <code style=color:green>{@value application.package_info#Version}</code>
+ * @author <code style=color:blue>{@value application.package_info#Author}</code>
+ */
+
+class MetricsImplTest {
+
+	private final MetricsImpl metrics = new MetricsImpl();
+
+
+	@Test
+	void countersAreRegisteredByName() {
+		Metrics.Counter c = metrics.counter("orders");
+		assertSame(c, metrics.counter("orders"));
+		assertNotSame(c, metrics.counter("articles"));
+		c.increment();
+		c.add(41L);
+		assertEquals(42L, metrics.counter("orders").count());
+		assertEquals(0L, metrics.counter("articles").count());
+		//
+		assertThrows(IllegalArgumentException.class, () -> metrics.counter(null));
+		assertThrows(IllegalArgumentException.class, () -> metrics.histogram(""));
+	}
+
+
+	@Test
+	void concurrentRecordingIsNotLost() throws InterruptedException {
+		List<Thread> threads = new ArrayList<Thread>();
+		for(int t=0; t < 8; t++) {
+			threads.add(new Thread(() -> {
+				for(int i=1; i <= 10_000; i++) {
+					metrics.counter("calls").increment();
+					metrics.histogram("latency").record(i);
+				}
+			}));
+		}
+		threads.forEach(Thread::start);
+		for(Thread t : threads) {
+			t.join();
+		}
+		assertEquals(80_000L, metrics.counter("calls").count());
+		assertEquals(80_000L, metrics.histogram("latency").count());
+		assertEquals(10_000L, metrics.histogram("latency").max());
+		assertEquals(5000.5, metrics.histogram("latency").mean(), 1e-9);
+	}
+
+
+	@Test
+	void percentilesWithinRelativePrecision() {
+		Metrics.Histogram h = metrics.histogram("latency");
+		for(long v=1; v <= 1_000_000L; v++) {
+			h.record(v);
+		}
+		for(double p : new double[] {1.0, 50.0, 90.0, 99.0, 99.9}) {
+			long exact = (long)Math.ceil(p / 100.0 * 1_000_000L);
+			long value = h.valueAtPercentile(p);
+			assertTrue(value >= exact && value <= exact * 1.04, "p" + p + " = " + value);
+		}
+		assertEquals(1_000_000L, h.valueAtPercentile(100.0));
+		assertEquals(1L, h.valueAtPercentile(0.0));
+		assertThrows(IllegalArgumentException.class, () -> h.valueAtPercentile(100.1));
+		assertThrows(IllegalArgumentException.class, () -> h.valueAtPercentile(-1.0));
+	}
+
+
+	@Test
+	void smallAndNegativeValues() {
+		Metrics.Histogram h = metrics.histogram("small");
+		assertEquals(0L, h.valueAtPercentile(50.0));		// empty
+		assertEquals(0.0, h.mean());
+		for(long v=0; v < 32; v++) {
+			h.record(v);		// exact buckets
+		}
+		h.record(-5L);		// recorded as 0
+		assertEquals(15L, h.valueAtPercentile(50.0));
+		assertEquals(31L, h.max());
+		assertEquals(33L, h.count());
+		h.record(Long.MAX_VALUE);
+		assertEquals(Long.MAX_VALUE, h.valueAtPercentile(100.0));
+	}
+
+
+	@Test
+	void snapshots() throws Exception {
+		metrics.counter("json.dropped").add(3L);
+		metrics.counter("calculator.valueAndTax").increment();
+		metrics.histogram("json.read.\"orders\"").record(2_500_000L);
+		//
+		String text = metrics.snapshotText(new StringBuilder()).toString();
+		assertTrue(text.indexOf("calculator.valueAndTax") < text.indexOf("json.dropped"));	// sorted by name
+		assertTrue(text.contains("count=3\n"));
+		assertTrue(text.contains("max=2.5ms"), text);
+		//
+		JsonNode json = new ObjectMapper().readTree(metrics.snapshotJSON(null).toString());
+		assertEquals(3L, json.get("counters").get("json.dropped").asLong());
+		JsonNode h = json.get("histograms").get("json.read.\"orders\"");
+		assertEquals(1L, h.get("count").asLong());
+		assertEquals(2_500_000L, h.get("max").asLong());
+		assertEquals(2_500_000L, h.get("p50").asLong());
+	}
+
+
+	@Test
+	void componentsOfContainerShareMetrics() {
+		IoC ioc = IoC.getInstance();
+		Metrics m = ioc.getMetrics();
+		assertSame(m, ioc.getMetrics());
+		long calls = m.counter("calculator.valueAndTax").count();
+		ioc.getCalculator().calculateValueAndTax((Order)null);
+		assertEquals(calls + 1L, m.counter("calculator.valueAndTax").count());
+	}
+}
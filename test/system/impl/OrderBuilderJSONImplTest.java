@@ -0,0 +1,324 @@
+package system.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CancellationException;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import datamodel.Customer;
+import datamodel.Order;
+import datamodel.TAX;
+import system.DatamodelFactory;
+
+
+/**
+ * Tests of loading customers, articles and orders from JSON files with
+ * {@link OrderBuilderJSONImpl}.
+ *
+ * @version <code style=color:green>{@value application.package_info#Version}</code>
+ * @author <code style=color:blue>{@value application.package_info#Author}</code>
+ */
+
+class OrderBuilderJSONImplTest {
+
+	@TempDir
+	Path dir;
+
+	private final DatamodelFactoryImpl factory = new DatamodelFactoryImpl();
+	private final MetricsImpl metrics = new MetricsImpl();
+
+	static final String CUSTOMERS = """
+		[
+		  {"id": 892474, "name": "Eric Meyer", "contacts": ["eric98@yahoo.com", "(030) 3945-642298"]},
+		  {"id": 643270, "name": "Bayer, Anne", "contacts": []},
+		  {"id": 286516, "name": "Tim Schulz-Mueller"}
+		]
+		""";
+
+	static final String ARTICLES = """
+		[
+		  {"id": "SKU-458362", "description": "Tasse", "price": 299, "tax": "reduced"},
+		  {"id": "SKU-693856", "description": "Becher", "price": 149},
+		  {"id": "Kanne-1", "description": "Kanne", "price": 1999}
+		]
+		""";
+
+	static final String ORDERS = """
+		[
+		  {"id": "8592356245", "customer_id": 892474, "items": [
+		    {"article_id": "SKU-458362", "units": 4},
+		    {"article_id": "Kanne-1", "units": 1}
+		  ]},
+		  {"id": "3563561357", "customer_id": 643270, "items": [
+		    {"article_id": "SKU-693856", "units": 8}
+		  ]}
+		]
+		""";
+
+
+	@Test
+	void loadsAllElementsOfArrays() throws IOException {
+		load(CUSTOMERS, ARTICLES, ORDERS);
+		//
+		assertEquals(3, factory.customersCount());
+		assertEquals(3, factory.articlesCount());
+		assertEquals(2, factory.ordersCount());
+		Customer c = factory.findCustomerById(892474L).get();
+		assertEquals("Eric", c.getFirstName());
+		assertEquals(2, c.contactsCount());
+		assertEquals(TAX.GER_VAT_REDUCED, factory.findArticleById("SKU-458362").get().getTax());
+		Order o = factory.findOrderById("8592356245").get();
+		assertSame(c, o.getCustomer());
+		assertEquals(2, o.itemsCount());
+		assertEquals(4 * 299 + 1999, o.getTotalOrderValue());
+	}
+
+
+	@Test
+	void fieldsOfWrongTypeAreSkipped() throws IOException {
+		load("""
+			[
+			  {"id": 1, "name": "Eric Meyer"},
+			  {"id": "C-2", "name": "Anne Bayer"},
+			  {"id": 3, "name": "Tim Schulz", "contacts": {"email": "tim@example.com"}},
+			  {"id": 4, "name": "Nadine Blumenfeld", "contacts": ["nadine@example.com", {"x": 1}, 12345678]},
+			  "Tim Schulz",
+			  42
+			]
+			""", ARTICLES, """
+			[
+			  {"id": "1", "customer_id": 1, "items": [
+			    {"article_id": "SKU-458362", "units": "four"},
+			    {"article_id": "SKU-693856", "units": [2]},
+			    "Kanne-1",
+			    {"article_id": "Kanne-1", "units": 2}
+			  ]},
+			  {"id": "2", "customer_id": "one", "items": [ {"article_id": "Kanne-1", "units": 1} ]},
+			  {"id": "3", "customer_id": 1, "items": {"article_id": "Kanne-1", "units": 1}}
+			]
+			""");
+		//
+		assertEquals(3, factory.customersCount());			// "C-2" has no valid id
+		assertEquals(0, factory.findCustomerById(3L).get().contactsCount());
+		assertArrayEquals(new String[] {"nadine@example.com", "12345678"}, factory.findCustomerById(4L).get().getContacts());
+		assertEquals(1, factory.ordersCount());
+		Order o = factory.findOrderById("1").get();
+		assertEquals(1, o.itemsCount());					// only item with valid units
+		assertEquals(2 * 1999, o.getTotalOrderValue());
+		assertEquals(5L, metrics.counter("json.dropped").count());	// "C-2", 2 elements, orders "2" and "3"
+	}
+
+
+	@Test
+	void invalidRecordsAreDropped() throws IOException {
+		load(CUSTOMERS, """
+			[
+			  {"id": "SKU-1", "description": "Tasse", "price": -1},
+			  {"id": "", "description": "Becher", "price": 149},
+			  {"id": "SKU-3", "price": 149},
+			  {"id": "SKU-4", "description": "Kanne", "price": 0}
+			]
+			""", """
+			[
+			  {"id": "1", "customer_id": 1, "items": [ {"article_id": "SKU-4", "units": 1} ]},
+			  {"id": "2", "customer_id": 892474, "items": []},
+			  {"id": "3", "customer_id": 892474, "items": [ {"article_id": "SKU-4", "units": 0} ]}
+			]
+			""");
+		//
+		assertEquals(1, factory.articlesCount());
+		assertEquals(1, factory.ordersCount());
+		assertEquals(0, factory.getOrders().get(0).itemsCount());	// item without units is left out
+		assertEquals(5L, metrics.counter("json.dropped").count());
+	}
+
+
+	@Test
+	void droppedRecordsAreReportedWithTheirJSONText() throws IOException {
+		PrintStream out = System.out;
+		ByteArrayOutputStream captured = new ByteArrayOutputStream();
+		System.setOut(new PrintStream(captured, true, StandardCharsets.UTF_8));
+		try {
+			load("""
+				[
+				  {"id": "C-1",  "name": "Eric Meyer"},
+				  {"id": 2, "name": "Anne Bayer"},
+				  {"id": -3,
+				     "name": "Tim Schulz", "contacts": [ "tim@example.com" ] }
+				]
+				""", "[]", "[]");
+		} finally {
+			System.setOut(out);
+		}
+		assertEquals("""
+			dropping: {"id":"C-1","name":"Eric Meyer"}
+			dropping: {"id":-3,"name":"Tim Schulz","contacts":["tim@example.com"]}
+			""", captured.toString(StandardCharsets.UTF_8).replace(System.lineSeparator(), "\n"));
+	}
+
+
+	@Test
+	void articleUpdatesAreAppliedAsDelta() throws IOException {
+		load(CUSTOMERS, ARTICLES, ORDERS);
+		Order o1 = factory.findOrderById("8592356245").get();
+		assertEquals(4 * 299 + 1999, o1.getTotalOrderValue());		// total is cached
+		Files.writeString(dir.resolve("update.json"), """
+			[
+			  {"id": "SKU-458362", "description": "Tasse", "price": 349},
+			  {"id": "SKU-693856", "description": "Becher", "price": 149},
+			  {"id": "Kanne-1", "description": "Kanne, Restposten", "price": 0},
+			  {"id": "SKU-100", "description": "Teller", "price": 649, "tax": "reduced"},
+			  {"id": "SKU-458362", "description": "Tasse", "price": -1}
+			]
+			""", StandardCharsets.UTF_8);
+		Properties props = properties();
+		props.setProperty("data.articles.update", "update.json");
+		//
+		Collection<Order> affected = new OrderBuilderJSONImpl(factory, props, metrics).updateArticles();
+		assertEquals(List.of(o1), List.copyOf(affected));
+		assertEquals(4 * 349, o1.getTotalOrderValue());
+		assertEquals(TAX.GER_VAT_REDUCED, factory.findArticleById("SKU-458362").get().getTax());	// tax kept
+		assertEquals("Kanne, Restposten", factory.findArticleById("Kanne-1").get().getDescription());
+		assertEquals(649, factory.findArticleById("SKU-100").get().getUnitPrice());	// created
+		assertEquals(4, factory.articlesCount());
+		assertEquals(2, factory.ordersCount());
+		assertEquals(4L, metrics.counter("json.updated").count());
+		assertEquals(1L, metrics.counter("json.dropped").count());
+	}
+
+
+	@Test
+	void withoutUpdateFileNothingIsAffected() throws IOException {
+		load(CUSTOMERS, ARTICLES, ORDERS);
+		assertTrue(new OrderBuilderJSONImpl(factory, properties(), metrics).updateArticles().isEmpty());
+	}
+
+
+	@Test
+	void recordsReadTimePerFile() throws IOException {
+		load(CUSTOMERS, ARTICLES, ORDERS);
+		//
+		assertEquals(1L, metrics.histogram("json.read." + dir.resolve("customers.json")).count());
+		assertEquals(1L, metrics.histogram("json.read." + dir.resolve("orders.json")).count());
+	}
+
+
+	@Test
+	void missingFileLoadsNothing() throws IOException {
+		Files.writeString(dir.resolve("customers.json"), CUSTOMERS, StandardCharsets.UTF_8);
+		new OrderBuilderJSONImpl(factory, properties(), metrics).buildOrders();
+		//
+		assertEquals(3, factory.customersCount());
+		assertEquals(0, factory.articlesCount());
+		assertEquals(0, factory.ordersCount());
+	}
+
+
+	@Test
+	void parallelLoadCreatesSameObjectsInFileOrder() throws IOException {
+		generate(2000, 100, 5000);		// more orders than one chunk
+		Properties props = properties();
+		new OrderBuilderJSONImpl(factory, props).buildOrders();
+		//
+		props.setProperty("data.parallel", "true");
+		DatamodelFactoryImpl parallel = new DatamodelFactoryImpl();
+		new OrderBuilderJSONImpl(parallel, props).buildOrders();
+		ConcurrentDatamodelFactory concurrent = new ConcurrentDatamodelFactory();
+		new OrderBuilderJSONImpl(concurrent, props).buildOrders();
+		//
+		assertEquals(5000, factory.ordersCount());
+		assertEquals(dump(factory), dump(parallel));
+		assertEquals(dump(factory), dump(concurrent));
+	}
+
+
+	@Test
+	void interruptedParallelLoadIsCancelledAndNotMarkedLoaded() throws IOException {
+		generate(100, 10, 100);
+		Properties props = properties();
+		props.setProperty("data.parallel", "true");
+		props.setProperty("data.snapshot", "snapshot.bin");
+		OrderBuilderJSONImpl builder = new OrderBuilderJSONImpl(factory, props);
+		//
+		Thread.currentThread().interrupt();
+		try {
+			assertThrows(CancellationException.class, () -> builder.buildOrders());
+		} finally {
+			Thread.interrupted();
+		}
+		assertFalse(Files.exists(dir.resolve("snapshot.bin")));
+		//
+		DatamodelFactoryImpl reloaded = new DatamodelFactoryImpl();
+		new OrderBuilderJSONImpl(reloaded, props).buildOrders();
+		assertEquals(100, reloaded.ordersCount());
+		assertTrue(Files.exists(dir.resolve("snapshot.bin")));
+	}
+
+
+	/**
+	 * Generate valid JSON files into temporary directory.
+	 */
+	private void generate(int customers, int articles, int orders) throws IOException {
+		Properties gen = new Properties();
+		gen.setProperty("gen.customers", Integer.toString(customers));
+		gen.setProperty("gen.articles", Integer.toString(articles));
+		gen.setProperty("gen.orders", Integer.toString(orders));
+		new DataGeneratorJSON(gen).generate(dir);
+	}
+
+	/**
+	 * Text of ids and items of objects in order of creation.
+	 */
+	private static String dump(DatamodelFactory f) {
+		StringBuilder sb = new StringBuilder();
+		f.getCustomers().forEach(c -> sb.append(c.getId()).append(' ').append(c.getName()).append('\n'));
+		f.getArticles().forEach(a -> sb.append(a.getId()).append(' ').append(a.getUnitPrice()).append('\n'));
+		for(Order o : f.getOrders()) {
+			sb.append(o.getId()).append(' ').append(o.getCustomer().getId());
+			o.getItems().forEach(i -> sb.append(' ').append(i.getArticle().getId()).append('x').append(i.getUnitsOrdered()));
+			sb.append('\n');
+		}
+		return sb.toString();
+	}
+
+
+	/**
+	 * Write JSON files and load them.
+	 */
+	private void load(String customers, String articles, String orders) throws IOException {
+		write(customers, articles, orders);
+		new OrderBuilderJSONImpl(factory, properties(), metrics).buildOrders();
+	}
+
+	/**
+	 * Write JSON files into temporary directory.
+	 */
+	private void write(String customers, String articles, String orders) throws IOException {
+		Files.writeString(dir.resolve("customers.json"), customers, StandardCharsets.UTF_8);
+		Files.writeString(dir.resolve("articles.json"), articles, StandardCharsets.UTF_8);
+		Files.writeString(dir.resolve("orders.json"), orders, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Properties that name the JSON files in the temporary directory.
+	 */
+	private Properties properties() {
+		Properties props = new Properties();
+		props.setProperty("data.path", dir.toString());
+		props.setProperty("data.customers", "customers.json");
+		props.setProperty("data.articles", "articles.json");
+		props.setProperty("data.orders", "orders.json");
+		return props;
+	}
+}
@@ -0,0 +1,175 @@
+package system.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import datamodel.Article;
+import datamodel.Customer;
+import datamodel.Order;
+import datamodel.TAX;
+import system.TablePrinter;
+
+
+/**
+ * Tests of printing objects into StringBuffers, Appendables and
+ * TablePrinters with {@link PrinterImpl}.
+ *
+ * @version <code style=color:green>{@value application.package_info#Version}</code>
+ * @author <code style=color:blue>{@value application.package_info#Author}</code>
+ */
+
+class PrinterImplTest {
+
+	private final DatamodelFactoryImpl factory = new DatamodelFactoryImpl();
+	private final PrinterImpl printer = new PrinterImpl(new CalculatorImpl(), new FormatterImpl());
+
+	private final Customer eric = factory.createCustomer("Eric Meyer").setId(892474L).addContact("eric98@yahoo.com");
+	private final Customer anne = factory.createCustomer("Bayer, Anne").setId(643270L);
+	private final Article tasse = factory.createArticle("Tasse", 299).setId("SKU-458362").setTax(TAX.GER_VAT_REDUCED);
+	private final Article kanne = factory.createArticle("Kanne", 1999).setId("SKU-693856");
+	private final Order o1 = factory.createOrder(eric).setId("8592356245").addItem(tasse, 4).addItem(kanne, 1);
+	private final Order o2 = factory.createOrder(anne).setId("3563561357").addItem(kanne, 2);
+
+
+	@Test
+	void appendablesGetSameOutputAsStringBuffer() {
+		List<Customer> customers = List.of(eric, anne);
+		List<Article> articles = List.of(tasse, kanne);
+		List<Order> orders = List.of(o1, o2);
+		//
+		assertEquals(printer.printCustomers(new StringBuffer(), customers).toString(),
+			printer.printCustomers(new StringBuilder(), customers).toString());
+		assertEquals(printer.printArticles(new StringBuffer(), articles).toString(),
+			printer.printArticles(new StringBuilder(), articles).toString());
+		assertEquals(printer.printOrders(new StringBuffer(), orders).toString(),
+			printer.printOrders(new StringBuilder(), orders).toString());
+		assertEquals(printer.printCustomer(new StringBuffer(), eric).toString(),
+			printer.printCustomer(new StringWriter(), eric).toString());
+		assertEquals("| 892474 | Meyer, Eric", printer.printCustomer(new StringBuilder(), eric).substring(0, 22));
+	}
+
+
+	@Test
+	void linesArePaddedAsWithStringFormat() {
+		Customer noId = factory.createCustomer("Maximilian-Alexander von Hohenzollern-Sigmaringen")
+			.addContact("max.von.hohenzollern@example.com").addContact("+49 (0)7571 7290-0000");
+		Article noDescription = factory.createArticle().setId("SKU-000000000001").setUnitPrice(12345678L);
+		Order big = factory.createOrder(noId).setId("8592356245");
+		for(int i=0; i < 12; i++) {
+			big.addItem(kanne, 1);
+		}
+		for(Customer c : List.of(eric, anne, noId)) {
+			String contacts = String.join(", ", c.getContacts());
+			String expected = String.format("| %6d ", c.getId())
+				+ String.format("| %-31s", new FormatterImpl().fmtName(c.getFirstName(), c.getLastName(), 0))
+				+ String.format("| %-44s ", contacts) + "|\n";
+			assertEquals(expected, printer.printCustomer(new StringBuilder(), c).toString());
+		}
+		for(Article a : List.of(tasse, kanne, noDescription)) {
+			String expected = String.format("| %10s ", a.getId()) + String.format("| %-27s", a.getDescription())
+				+ String.format("| %6d ", a.getUnitPrice()) + "\u20ac"
+				+ String.format("| %4s MwSt", a.getTax() == TAX.GER_VAT_REDUCED ? "7%" : "19%") + "|\n";
+			assertEquals(expected, printer.printArticle(new StringBuilder(), a).toString());
+		}
+		for(Order o : List.of(o1, o2, big)) {
+			Customer c = o.getCustomer();
+			String expected = String.format("| %10s ", o.getId())
+				+ String.format("| %-27s", new FormatterImpl().fmtName(c.getFirstName(), c.getLastName(), 0))
+				+ String.format("| %1d items ", o.itemsCount())
+				+ String.format("| created: %s ", new FormatterImpl().fmtDate(o.getCreationDate(), 0, "")) + "|\n";
+			assertEquals(expected, printer.printOrder(new StringBuilder(), o).toString());
+		}
+	}
+
+
+	@Test
+	void nullArguments() {
+		StringBuffer sb = printer.printArticle((StringBuffer)null, tasse);
+		assertEquals(printer.printArticle(new StringBuilder(), tasse).toString(), sb.toString());
+		assertNull(printer.printOrder((StringBuffer)null, (Order)null));
+		StringBuilder out = new StringBuilder();
+		assertSame(out, printer.printOrders(out, null));
+		assertEquals(0, out.length());
+		assertThrows(IllegalArgumentException.class, () -> printer.printCustomer((StringBuilder)null, eric));
+	}
+
+
+	@Test
+	void appendErrorsAreUnchecked() {
+		Appendable failing = new Appendable() {
+			@Override
+			public Appendable append(CharSequence csq) throws IOException { throw new IOException("closed"); }
+			@Override
+			public Appendable append(CharSequence csq, int start, int end) throws IOException { throw new IOException("closed"); }
+			@Override
+			public Appendable append(char c) throws IOException { throw new IOException("closed"); }
+		};
+		assertThrows(UncheckedIOException.class, () -> printer.printArticle(failing, kanne));
+	}
+
+
+	@Test
+	void tablePrintersOfStringBufferAndStringBuilderAreEqual() {
+		StringBuffer sb = new StringBuffer();
+		StringBuilder sbl = new StringBuilder();
+		printer.printOrders(table(printer.createTablePrinter(sb, TablePrinterImplTest.COLUMNS)), List.of(o1, o2));
+		printer.printOrders(table(printer.createTablePrinter(sbl, TablePrinterImplTest.COLUMNS)), List.of(o1, o2));
+		//
+		assertTrue(sb.length() > 0);
+		assertEquals(sb.toString(), sbl.toString());
+		assertNotNull(printer.createTablePrinter((StringBuffer)null, TablePrinterImplTest.COLUMNS));
+		assertNotNull(printer.createTablePrinter((Appendable)null, TablePrinterImplTest.COLUMNS));
+	}
+
+
+	@Test
+	void sortDescendingIsStable() {
+		Random rand = new Random(42);
+		for(int n : new int[] {0, 1, 2, 3, 17, 1000, 4097}) {
+			long[] keys = new long[n];
+			for(int i=0; i < n; i++) {
+				keys[i] = switch(rand.nextInt(4)) {
+					case 0 -> Long.MIN_VALUE;		// difference of keys overflows
+					case 1 -> Long.MAX_VALUE;
+					default -> rand.nextInt(20) - 10;	// many equal keys
+				};
+			}
+			List<Integer> expected = new ArrayList<Integer>();
+			for(int i=0; i < n; i++) {
+				expected.add(i);
+			}
+			expected.sort((i, j) -> Long.compare(keys[j], keys[i]));	// List.sort is stable
+			int[] idx = PrinterImpl.sortDescending(keys);
+			assertArrayEquals(expected.stream().mapToInt(i -> i).toArray(), idx, "n = " + n);
+		}
+	}
+
+
+	@Test
+	void ordersArePrintedByDescendingValue() {
+		Order o3 = factory.createOrder(eric).setId("1111111111").addItem(kanne, 2);	// same value as o2
+		List<Order> orders = new ArrayList<Order>(List.of(o1, o2, o3));
+		StringBuilder sb = new StringBuilder();
+		printer.printOrders(printer.createTablePrinter(sb, builder -> builder.column("|", 11).column("|", 28)), orders);
+		String table = sb.toString();
+		int i1 = table.indexOf("8592356245"), i2 = table.indexOf("3563561357"), i3 = table.indexOf("1111111111");
+		assertTrue(i2 >= 0 && i2 < i3 && i3 < i1, table);		// 3998, 3998, 3195
+		assertEquals(List.of(o1, o2, o3), orders);		// argument is not sorted in place
+	}
+
+
+	/**
+	 * Table header.
+	 */
+	private static TablePrinter table(TablePrinter table) {
+		return table.line().row("Id", "Value", "Total").line();
+	}
+}
@@ -0,0 +1,197 @@
+package system.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.Test;
+
+import system.TablePrinter;
+
+
+/**
+ * Tests of tables collected in builders or written through to Writers by
+ * {@link TablePrinterImpl}.
+ *
+ * @version <code style=color:green>{@value application.package_info#Version}</code>
+ * @author <code style=color:blue>{@value application.package_info#Author}</code>
+ */
+
+class TablePrinterImplTest {
+
+	static final Consumer<TablePrinter.Builder> COLUMNS = builder -> builder
+		.column("|", 6)			// "Id"
+		.column("|R", 8)		// "Value"
+		.column(" |R", 8);		// "Total"
+
+	static final String TABLE = """
+		+-----+--------------+
+		|Id   |  Value  Total|
+		+-----+--------------+
+		|1    |   4.99   4.99|
+		|2    |  12.00  16.99|
+		+-----+--------------+
+		""";
+
+	private final ByteArrayOutputStream printed = new ByteArrayOutputStream();
+	private final PrintStream ps = new PrintStream(printed, true, StandardCharsets.UTF_8);
+
+
+	@Test
+	void collectedTableIsPrinted() {
+		StringBuilder sb = new StringBuilder();
+		table(new TablePrinterImpl(sb, COLUMNS)).print(ps);
+		//
+		assertEquals(TABLE, sb.toString());
+		assertEquals(TABLE, printed.toString(StandardCharsets.UTF_8));
+	}
+
+
+	@Test
+	void rowsAreWrittenThroughToWriter() {
+		StringWriter writer = new StringWriter();
+		TablePrinter table = table(new TablePrinterImpl(writer, COLUMNS));
+		assertEquals("", writer.toString());		// buffered until flushed
+		//
+		table.print(ps);
+		assertEquals(TABLE, writer.toString());
+		assertEquals(0, printed.size());			// rows are not printed again
+		//
+		table.row("3", "0.01", "17.00").print(ps);
+		assertTrue(writer.toString().endsWith("|3    |   0.01  17.00|\n"));
+	}
+
+
+	@Test
+	void bufferedWriterIsNotWrappedAgain() {
+		StringWriter writer = new StringWriter();
+		BufferedWriter buffered = new BufferedWriter(writer);
+		TablePrinterImpl table = new TablePrinterImpl(buffered, COLUMNS);
+		assertSame(buffered, table.out);
+		assertTrue(new TablePrinterImpl(writer, COLUMNS).out instanceof BufferedWriter);
+		//
+		table(table).print(ps);
+		assertEquals(TABLE, writer.toString());
+	}
+
+
+	@Test
+	void writeErrorsAreUnchecked() {
+		Writer failing = new Writer() {
+			@Override
+			public void write(char[] cbuf, int off, int len) throws IOException {
+				throw new IOException("disk full");
+			}
+			@Override
+			public void flush() throws IOException {
+				throw new IOException("disk full");
+			}
+			@Override
+			public void close() { }
+		};
+		TablePrinter table = table(new TablePrinterImpl(failing, COLUMNS));
+		UncheckedIOException e = assertThrows(UncheckedIOException.class, () -> table.print(ps));
+		assertEquals("disk full", e.getCause().getMessage());
+	}
+
+
+	@Test
+	void renderedRowsAreCounted() {
+		MetricsImpl metrics = new MetricsImpl();
+		table(new TablePrinterImpl(null, COLUMNS, metrics));
+		assertEquals(3L, metrics.counter("table.rows").count());		// lines are not counted
+	}
+
+
+	@Test
+	void cellsAreFilledOrCutToWidth() {
+		StringBuilder sb = new StringBuilder();
+		new TablePrinterImpl(sb, COLUMNS)
+			.row("Identifier", "Value-long-text", "12345678")	// cut from right, left, left
+			.row("1")
+			.row((String[])null)
+			.row("1", null, "0.00");
+		assertEquals("""
+			|Ident|ng-text2345678|
+			|1    |              |
+			|     |              |
+			|1    |          0.00|
+			""", sb.toString());
+	}
+
+
+	@Test
+	void specsOfRowsAndLines() {
+		StringBuilder sb = new StringBuilder();
+		new TablePrinterImpl(sb, COLUMNS)
+			.line("+=+=+=+")
+			.row("@|.|.|.|", "1", "2.00", "x")
+			.row("@ >    |", "", "Total:", "9.99")
+			.line("@     =+");
+		assertEquals("""
+			+=====+==============+
+			|1....|...2.00......x|
+			 >>>>>  Total:   9.99|
+			              =======+
+			""", sb.toString());
+	}
+
+
+	@Test
+	void fillCharacterOfColumn() {
+		StringBuilder sb = new StringBuilder();
+		new TablePrinterImpl(sb, builder -> builder.column("|.R", 6).column("|", 4))
+			.row("7", "ab")
+			.line();
+		assertEquals("""
+			|....7|ab\s
+			+-----+---
+			""", sb.toString());
+	}
+
+
+	@Test
+	void specWithoutFillCharacter() {
+		TablePrinter table = new TablePrinterImpl(new StringBuilder(), COLUMNS);
+		table.row("@|", "abcde");		// cell fits, no fill needed
+		assertThrows(StringIndexOutOfBoundsException.class, () -> table.row("@|", "abc"));
+	}
+
+
+	@Test
+	void specsAreCompiledOnceAndCacheIsBounded() {
+		TablePrinterImpl table = new TablePrinterImpl(new StringBuilder(), COLUMNS);
+		table.line("+=+=+=+").line("+=+=+=+");
+		assertEquals(1, table.layouts.size());
+		TablePrinterImpl.Layout layout = table.layouts.get("+=+=+=+");
+		table.line("+=+=+=+");
+		assertSame(layout, table.layouts.get("+=+=+=+"));
+		//
+		for(int i=0; i < 3 * TablePrinterImpl.MAX_LAYOUTS; i++) {
+			table.row("@|" + (char)('!' + i % 90) + "|" + (char)('!' + i / 90) + " -|", "1", "2");
+		}
+		assertTrue(table.layouts.size() <= TablePrinterImpl.MAX_LAYOUTS);
+	}
+
+
+	/**
+	 * Fill table with header and two rows.
+	 */
+	private static TablePrinter table(TablePrinter table) {
+		return table
+			.line()
+			.row("Id", "Value", "Total")
+			.line()
+			.row("1", "4.99", "4.99")
+			.row("2", "12.00", "16.99")
+			.line();
+	}
+}